@@ -13,6 +13,7 @@ import org.spongepowered.math.vector.Vector3d;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
 /**
@@ -73,6 +74,78 @@ public interface NucleusHomeService {
      */
     Optional<Home> getHome(UUID user, String name);
 
+    /**
+     * Gets the {@link Home}s for the specified user without blocking the calling
+     * thread, loading the user's data if necessary.
+     *
+     * @param user The {@link UUID}
+     * @return A {@link CompletableFuture} that will contain the homes.
+     */
+    CompletableFuture<List<Home>> getHomesAsync(UUID user);
+
+    /**
+     * Gets the number of homes the player currently has without blocking the calling
+     * thread.
+     *
+     * @param user The {@link UUID} of the player
+     * @return A {@link CompletableFuture} that will contain the number of homes.
+     */
+    default CompletableFuture<Integer> getHomeCountAsync(final UUID user) {
+        return this.getHomesAsync(user).thenApply(List::size);
+    }
+
+    /**
+     * Gets a specified home of the user, if it exists, without blocking the calling
+     * thread.
+     *
+     * @param user The {@link UUID} of the user to get the home for.
+     * @param name The name of the home.
+     * @return A {@link CompletableFuture} that will contain the {@link Home}, if it
+     *      exists.
+     */
+    CompletableFuture<Optional<Home>> getHomeAsync(UUID user, String name);
+
+    /**
+     * Creates a home, as {@link #createHome(UUID, String, ServerLocation, Vector3d)},
+     * once the user's data has been loaded. The home is created on the main thread.
+     *
+     * @param user The {@link UUID} of the user to create the home for.
+     * @param name The name of the home to create.
+     * @param location The location of the home.
+     * @param rotation The rotation of the player when they return to this home.
+     * @return A {@link CompletableFuture} that completes when the home has been
+     *      created, or completes exceptionally with a {@link HomeException} if it
+     *      could not be.
+     */
+    CompletableFuture<Void> createHomeAsync(UUID user, String name, ServerLocation location, Vector3d rotation);
+
+    /**
+     * Modifies a home's location, as
+     * {@link #modifyHome(UUID, String, ServerLocation, Vector3d)}, once the user's data
+     * has been loaded. The home is modified on the main thread.
+     *
+     * @param user The {@link UUID} of the user to modify the home for.
+     * @param name The name of the home to modify.
+     * @param location The location of the home.
+     * @param rotation The rotation of the player when they return to this home.
+     * @return A {@link CompletableFuture} that completes when the home has been
+     *      modified, or completes exceptionally with a {@link HomeException} if it
+     *      could not be.
+     */
+    CompletableFuture<Void> modifyHomeAsync(UUID user, String name, ServerLocation location, Vector3d rotation);
+
+    /**
+     * Removes a home, as {@link #removeHome(UUID, String)}, once the user's data has
+     * been loaded. The home is removed on the main thread.
+     *
+     * @param user The {@link UUID} of the user to remove the home of.
+     * @param name The name of the home to remove.
+     * @return A {@link CompletableFuture} that completes when the home has been
+     *      removed, or completes exceptionally with a {@link HomeException} if it
+     *      could not be.
+     */
+    CompletableFuture<Void> removeHomeAsync(UUID user, String name);
+
     /**
      * Creates a home. This is subject to Nucleus' standard checks.
      *
@@ -42,6 +42,7 @@ import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableServ
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IStorageManager;
 import io.github.nucleuspowered.nucleus.core.startuperror.NucleusConfigException;
 import io.github.nucleuspowered.nucleus.core.startuperror.NucleusErrorHandler;
+import io.github.nucleuspowered.storage.persistence.IStorageRepositoryFactory;
 import io.leangen.geantyref.TypeToken;
 import io.vavr.Tuple2;
 import io.vavr.collection.HashSet;
@@ -216,8 +217,13 @@ public final class NucleusCore {
                 factoryMap.put(VerticalTeleportScanner.Descending.KEY, new VerticalTeleportScanner.Descending());
                 return factoryMap;
             });
-            event.register(Registry.Keys.STORAGE_REPOSITORY_KEY, true,
-                    () -> Collections.singletonMap(Registry.Keys.FLAT_FILE_STORAGE_KEY, this.serviceCollection.storageManager().getFlatFileRepositoryFactory()));
+            event.register(Registry.Keys.STORAGE_REPOSITORY_KEY, true, () -> {
+                final Map<ResourceKey, IStorageRepositoryFactory> factoryMap = new HashMap<>();
+                final IStorageManager storageManager = this.serviceCollection.storageManager();
+                factoryMap.put(Registry.Keys.FLAT_FILE_STORAGE_KEY, storageManager.getFlatFileRepositoryFactory());
+                factoryMap.put(Registry.Keys.SINGLE_FILE_STORAGE_KEY, storageManager.getSingleFileRepositoryFactory());
+                return factoryMap;
+            });
         } catch (final Exception e) {
             new NucleusErrorHandler(this.pluginContainer, e, this.propertyHolder.shutdownOnError(), this.logger, this.pluginInfo)
                     .generatePrettyPrint(this.logger, Level.ERROR);
@@ -298,6 +304,7 @@ public final class NucleusCore {
     @Listener
     public void serverStopping(final StoppingEngineEvent<Server> event) {
         // Teardown data here
+        this.serviceCollection.userCacheService().save();
         final IStorageManager manager = this.serviceCollection.storageManager();
         manager.saveAndInvalidateAllCaches().whenComplete((v, t) -> manager.detachAll());
         Sponge.asyncScheduler().tasks(this.pluginContainer).forEach(ScheduledTask::cancel);
@@ -20,6 +20,8 @@ public final class Registry {
         public static final ResourceKey STORAGE_REPOSITORY_KEY = ResourceKey.of("nucleus", "storage_repository_factory");
 
         public static final ResourceKey FLAT_FILE_STORAGE_KEY = ResourceKey.of("nucleus", "flat_file");
+
+        public static final ResourceKey SINGLE_FILE_STORAGE_KEY = ResourceKey.of("nucleus", "single_file");
     }
 
     public static final class Types {
@@ -36,6 +38,9 @@ public final class Registry {
         public static final RegistryKey<IStorageRepositoryFactory> STORAGE_REPOSITORY_FLAT_FILE =
                 RegistryKey.of(Types.STORAGE_REPOSITORY, Keys.FLAT_FILE_STORAGE_KEY);
 
+        public static final RegistryKey<IStorageRepositoryFactory> STORAGE_REPOSITORY_SINGLE_FILE =
+                RegistryKey.of(Types.STORAGE_REPOSITORY, Keys.SINGLE_FILE_STORAGE_KEY);
+
     }
 
 
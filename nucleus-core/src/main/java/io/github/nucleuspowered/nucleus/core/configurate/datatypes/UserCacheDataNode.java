@@ -10,6 +10,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.configurate.objectmapping.ConfigSerializable;
 import org.spongepowered.configurate.objectmapping.meta.Setting;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -32,6 +33,12 @@ public final class UserCacheDataNode {
         // ignored - for Configurate
     }
 
+    public UserCacheDataNode(@Nullable final String ipAddress, @Nullable final String jail, final boolean isMuted) {
+        this.ipAddress = ipAddress;
+        this.jail = jail;
+        this.isMuted = isMuted;
+    }
+
     public UserCacheDataNode set(final IUserDataObject x,
             final Predicate<IUserDataObject> mutedProcessor,
             final Function<IUserDataObject, String> jailProcessor) {
@@ -56,4 +63,21 @@ public final class UserCacheDataNode {
     public boolean isMuted() {
         return this.isMuted;
     }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || this.getClass() != o.getClass()) {
+            return false;
+        }
+        final UserCacheDataNode that = (UserCacheDataNode) o;
+        return this.isMuted == that.isMuted && Objects.equals(this.ipAddress, that.ipAddress) && Objects.equals(this.jail, that.jail);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.ipAddress, this.jail, this.isMuted);
+    }
 }
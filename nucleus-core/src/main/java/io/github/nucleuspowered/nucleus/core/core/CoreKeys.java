@@ -15,6 +15,7 @@ import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.k
 
 import java.time.Instant;
 import java.util.Locale;
+import java.util.Map;
 
 public final class CoreKeys {
 
@@ -40,5 +41,7 @@ public final class CoreKeys {
 
     public static final DataKey<String, IUserDataObject> IP_ADDRESS = DataKey.of(TypeTokens.STRING, IUserDataObject.class, "lastIP");
 
+    public static final DataKey<Map<String, Instant>, IUserDataObject> COOLDOWNS = DataKey.ofMap(TypeTokens.INSTANT, IUserDataObject.class, "cooldowns");
+
     public static final DataKey<Boolean, IUserDataObject> FIRST_JOIN_PROCESSED = DataKey.of(false, TypeTokens.BOOLEAN, IUserDataObject.class, "firstJoinProcessed");
 }
@@ -19,11 +19,15 @@ import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.ReloadCommand
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.ResetFirstJoinCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.ResetUserCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.SaveCommand;
+import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.debug.LoggingStatisticsCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.debug.RefreshUniqueVisitors;
+import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.debug.SafeLocationStatisticsCommand;
+import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.debug.StorageStatisticsCommand;
 import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.debug.VerifyCommandDescriptionsCommand;
 import io.github.nucleuspowered.nucleus.core.core.config.CoreConfig;
 import io.github.nucleuspowered.nucleus.core.core.listeners.ChatChannelListener;
 import io.github.nucleuspowered.nucleus.core.core.listeners.CoreListener;
+import io.github.nucleuspowered.nucleus.core.core.listeners.SafeLocationCacheListener;
 import io.github.nucleuspowered.nucleus.core.core.listeners.WarmupListener;
 import io.github.nucleuspowered.nucleus.core.core.runnables.CoreTask;
 import io.github.nucleuspowered.nucleus.core.core.services.PlayerMetadataService;
@@ -52,7 +56,10 @@ public class CoreModule implements IModule.Configurable<CoreConfig> {
     @Override
     public Collection<Class<? extends ICommandExecutor>> getCommands() {
         return Arrays.asList(
+                LoggingStatisticsCommand.class,
                 RefreshUniqueVisitors.class,
+                SafeLocationStatisticsCommand.class,
+                StorageStatisticsCommand.class,
                 VerifyCommandDescriptionsCommand.class,
                 ClearCacheCommand.class,
                 CompatibilityCommand.class,
@@ -82,6 +89,7 @@ public class CoreModule implements IModule.Configurable<CoreConfig> {
         return Arrays.asList(
                 ChatChannelListener.class,
                 CoreListener.class,
+                SafeLocationCacheListener.class,
                 WarmupListener.class
         );
     }
@@ -34,9 +34,18 @@ public final class CorePermissions {
     @PermissionMetadata(descriptionKey = "permission.base", replacements = { "debug getuuids" }, level = SuggestedLevel.ADMIN)
     public static final String BASE_DEBUG_GETUUIDS = "nucleus.nucleus.debug.getuuids.base";
 
+    @PermissionMetadata(descriptionKey = "permission.base", replacements = { "debug loggingstats" }, level = SuggestedLevel.ADMIN)
+    public static final String BASE_DEBUG_LOGGINGSTATS = "nucleus.nucleus.debug.loggingstats.base";
+
     @PermissionMetadata(descriptionKey = "permission.base", replacements = { "debug refreshuniquevisitors" }, level = SuggestedLevel.ADMIN)
     public static final String BASE_DEBUG_REFRESHUNIQUEVISITORS = "nucleus.nucleus.debug.refreshuniquevisitors.base";
 
+    @PermissionMetadata(descriptionKey = "permission.base", replacements = { "debug safelocationstats" }, level = SuggestedLevel.ADMIN)
+    public static final String BASE_DEBUG_SAFELOCATIONSTATS = "nucleus.nucleus.debug.safelocationstats.base";
+
+    @PermissionMetadata(descriptionKey = "permission.base", replacements = { "debug storagestats" }, level = SuggestedLevel.ADMIN)
+    public static final String BASE_DEBUG_STORAGESTATS = "nucleus.nucleus.debug.storagestats.base";
+
     @PermissionMetadata(descriptionKey = "permission.base", replacements = { "nucleus getuser" }, level = SuggestedLevel.NONE)
     public static final String BASE_NUCLEUS_GETUSER = "nucleus.nucleus.getuser.base";
 
@@ -10,6 +10,9 @@ import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandContext;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandResult;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.annotation.Command;
+import net.kyori.adventure.text.Component;
+
+import java.util.concurrent.CompletableFuture;
 
 @Command(
         aliases = "rebuildusercache",
@@ -21,12 +24,21 @@ public class RebuildUserCacheCommand implements ICommandExecutor {
 
     @Override
     public ICommandResult execute(final ICommandContext context) {
-        context.sendMessage("command.nucleus.rebuild.start");
-        if (context.getServiceCollection().userCacheService().fileWalk()) {
-            context.sendMessage("command.nucleus.rebuild.end");
-            return context.successResult();
-        } else {
+        final CompletableFuture<Boolean> walk = context.getServiceCollection().userCacheService().fileWalk();
+        if (walk.isDone() && !walk.isCompletedExceptionally() && !walk.join()) {
             return context.errorResult("command.nucleus.rebuild.fail");
         }
+
+        context.sendMessage("command.nucleus.rebuild.start");
+        walk.whenComplete((result, throwable) ->
+                context.getServiceCollection().schedulerService().runOnMainThread(() -> {
+                    if (throwable != null) {
+                        context.completeLater(context.errorResultLiteral(Component.text("An unspecified error occurred")));
+                    } else {
+                        context.sendMessage("command.nucleus.rebuild.end");
+                        context.completeLater(context.successResult());
+                    }
+                }));
+        return ICommandResult.willContinueLater();
     }
 }
@@ -0,0 +1,40 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.core.commands.nucleus.debug;
+
+import io.github.nucleuspowered.nucleus.core.core.CorePermissions;
+import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.DebugCommand;
+import io.github.nucleuspowered.nucleus.core.logging.AbstractLoggingHandler;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandContext;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandResult;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.annotation.Command;
+import org.spongepowered.api.command.exception.CommandException;
+
+@Command(
+        aliases = "loggingstats",
+        basePermission = CorePermissions.BASE_DEBUG_LOGGINGSTATS,
+        commandDescriptionKey = "nucleus.debug.loggingstats",
+        parentCommand = DebugCommand.class
+)
+public class LoggingStatisticsCommand implements ICommandExecutor {
+
+    @Override
+    public ICommandResult execute(final ICommandContext context) throws CommandException {
+        context.sendMessage("command.nucleus.debug.loggingstats.title");
+        for (final AbstractLoggingHandler.Statistics statistics : AbstractLoggingHandler.getAllStatistics()) {
+            context.sendMessage("command.nucleus.debug.loggingstats.handler",
+                    statistics.getName(),
+                    statistics.getDepth(),
+                    statistics.getCapacity(),
+                    statistics.getQueued(),
+                    statistics.getDropped(),
+                    statistics.getWritten(),
+                    statistics.getBatches(),
+                    statistics.getFlushes());
+        }
+        return context.successResult();
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.core.commands.nucleus.debug;
+
+import io.github.nucleuspowered.nucleus.core.core.CorePermissions;
+import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.DebugCommand;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandContext;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandResult;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.annotation.Command;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.INucleusLocationService;
+import org.spongepowered.api.command.exception.CommandException;
+
+@Command(
+        aliases = "safelocationstats",
+        basePermission = CorePermissions.BASE_DEBUG_SAFELOCATIONSTATS,
+        commandDescriptionKey = "nucleus.debug.safelocationstats",
+        parentCommand = DebugCommand.class
+)
+public class SafeLocationStatisticsCommand implements ICommandExecutor {
+
+    @Override
+    public ICommandResult execute(final ICommandContext context) throws CommandException {
+        final INucleusLocationService.CacheStatistics statistics =
+                context.getServiceCollection().teleportService().getSafeLocationCacheStatistics();
+        context.sendMessage("command.nucleus.debug.safelocationstats.title");
+        context.sendMessage("command.nucleus.debug.safelocationstats.stats",
+                statistics.getSize(),
+                statistics.getHits(),
+                statistics.getMisses(),
+                String.format("%.1f", statistics.getHitRate() * 100),
+                statistics.getInvalidations());
+        return context.successResult();
+    }
+}
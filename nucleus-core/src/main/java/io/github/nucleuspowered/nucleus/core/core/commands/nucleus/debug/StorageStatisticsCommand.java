@@ -0,0 +1,45 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.core.commands.nucleus.debug;
+
+import io.github.nucleuspowered.nucleus.core.core.CorePermissions;
+import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.DebugCommand;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandContext;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandResult;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.annotation.Command;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.services.WriteBehindQueue;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IStorageManager;
+import org.spongepowered.api.command.exception.CommandException;
+
+@Command(
+        aliases = "storagestats",
+        basePermission = CorePermissions.BASE_DEBUG_STORAGESTATS,
+        commandDescriptionKey = "nucleus.debug.storagestats",
+        parentCommand = DebugCommand.class
+)
+public class StorageStatisticsCommand implements ICommandExecutor {
+
+    @Override
+    public ICommandResult execute(final ICommandContext context) throws CommandException {
+        final IStorageManager storageManager = context.getServiceCollection().storageManager();
+        context.sendMessage("command.nucleus.debug.storagestats.title", storageManager.getWriteBehindWindow());
+        for (final WriteBehindQueue.Statistics statistics : storageManager.getWriteBehindStatistics()) {
+            context.sendMessage("command.nucleus.debug.storagestats.queue",
+                    statistics.getName(),
+                    statistics.getDepth(),
+                    statistics.getEnqueued(),
+                    statistics.getCoalesced(),
+                    statistics.getWritten(),
+                    statistics.getFailed());
+            context.sendMessage("command.nucleus.debug.storagestats.latency",
+                    statistics.getBatches(),
+                    String.format("%.2f", statistics.getLastBatchMillis()),
+                    String.format("%.2f", statistics.getAverageBatchMillis()),
+                    String.format("%.2f", statistics.getMaxBatchMillis()));
+        }
+        return context.successResult();
+    }
+}
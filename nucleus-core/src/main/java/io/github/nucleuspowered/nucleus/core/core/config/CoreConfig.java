@@ -82,6 +82,14 @@ public class CoreConfig {
     @LocalisedComment("config.core.firstdateplayed")
     private boolean checkFirstDatePlayed = true;
 
+    @Setting(value = "persist-cooldowns-longer-than")
+    @LocalisedComment("config.core.persistcooldowns")
+    private long persistCooldownsLongerThan = 0;
+
+    @Setting(value = "file-logging")
+    @LocalisedComment("config.core.filelogging")
+    private FileLoggingConfig fileLoggingConfig = new FileLoggingConfig();
+
     @Setting(value = "data-storage")
     @LocalisedComment("config.core.datastorage")
     private StorageConfig storageConfig = new StorageConfig();
@@ -165,4 +173,12 @@ public class CoreConfig {
     public boolean isCheckFirstDatePlayed() {
         return this.checkFirstDatePlayed;
     }
+
+    public FileLoggingConfig getFileLoggingConfig() {
+        return this.fileLoggingConfig;
+    }
+
+    public long getPersistCooldownsLongerThan() {
+        return this.persistCooldownsLongerThan;
+    }
 }
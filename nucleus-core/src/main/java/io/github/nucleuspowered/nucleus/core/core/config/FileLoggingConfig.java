@@ -0,0 +1,37 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.core.config;
+
+import io.github.nucleuspowered.nucleus.core.services.interfaces.annotation.configuratehelper.LocalisedComment;
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.objectmapping.meta.Setting;
+
+@ConfigSerializable
+public final class FileLoggingConfig {
+
+    @Setting("write-interval-ms")
+    @LocalisedComment("config.core.filelogging.writeinterval")
+    private long writeInterval = 1000;
+
+    @Setting("flush-interval-ms")
+    @LocalisedComment("config.core.filelogging.flushinterval")
+    private long flushInterval = 5000;
+
+    @Setting("queue-capacity")
+    @LocalisedComment("config.core.filelogging.queuecapacity")
+    private int queueCapacity = 8192;
+
+    public long getWriteInterval() {
+        return Math.max(50, this.writeInterval);
+    }
+
+    public long getFlushInterval() {
+        return Math.max(0, this.flushInterval);
+    }
+
+    public int getQueueCapacity() {
+        return Math.max(16, this.queueCapacity);
+    }
+}
@@ -5,6 +5,7 @@
 package io.github.nucleuspowered.nucleus.core.core.config;
 
 import io.github.nucleuspowered.nucleus.core.Registry;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.annotation.configuratehelper.LocalisedComment;
 import org.spongepowered.configurate.objectmapping.ConfigSerializable;
 import org.spongepowered.configurate.objectmapping.meta.Setting;
 
@@ -20,6 +21,10 @@ public final class StorageConfig {
     @Setting("general-data")
     private String generalData = Registry.Keys.FLAT_FILE_STORAGE_KEY.asString();
 
+    @Setting("write-behind-window-ms")
+    @LocalisedComment("config.core.storage.writebehind")
+    private long writeBehindWindow = 1000;
+
     public String getUserData() {
         return this.userData;
     }
@@ -31,5 +36,9 @@ public final class StorageConfig {
     public String getGeneralData() {
         return this.generalData;
     }
+
+    public long getWriteBehindWindow() {
+        return this.writeBehindWindow;
+    }
 }
 
@@ -35,10 +35,12 @@ import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.event.CauseStackManager;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.entity.ChangeEntityWorldEvent;
 import org.spongepowered.api.event.filter.Getter;
 import org.spongepowered.api.event.lifecycle.RefreshGameEvent;
 import org.spongepowered.api.event.lifecycle.StoppingEngineEvent;
 import org.spongepowered.api.event.network.ServerSideConnectionEvent;
+import org.spongepowered.api.event.permission.SubjectDataUpdateEvent;
 import org.spongepowered.api.profile.GameProfile;
 import org.spongepowered.api.scheduler.Task;
 
@@ -48,6 +50,7 @@ import java.net.URL;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -71,6 +74,19 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
         this.url = u;
     }
 
+    /* (non-Javadoc)
+     * Start loading the user's data as early as possible, so that it is read on the preload pool
+     * while other plugins process the connection. The later listeners will wait for this load,
+     * rather than starting their own.
+     */
+    @Listener(order = Order.FIRST)
+    public void onPlayerAuthFirst(final ServerSideConnectionEvent.Auth event) {
+        final UUID userId = event.profile().uniqueId();
+        if (userId != null) {
+            this.serviceCollection.storageManager().getUserService().preload(Collections.singleton(userId));
+        }
+    }
+
     @Listener(order = Order.POST)
     public void onPlayerAuth(final ServerSideConnectionEvent.Auth event) {
         final UUID userId = event.profile().uniqueId();
@@ -94,6 +110,7 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
             this.serviceCollection.storageManager().getUserService().save(userId, dataObject);
         }
         this.serviceCollection.messageProvider().invalidateLocaleCacheFor(userId);
+        this.serviceCollection.cooldownService().loadPersistedCooldowns(userId, dataObject);
     }
 
     /* (non-Javadoc)
@@ -126,6 +143,7 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
      */
     @Listener(order = Order.FIRST)
     public void onPlayerJoinFirst(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
+        this.serviceCollection.playerDisplayNameService().indexOnlinePlayer(player.uniqueId(), player.name());
         try {
             final IUserDataObject qsu = this.serviceCollection.storageManager().getUserService().getOrNewOnThread(player.uniqueId());
             qsu.set(CoreKeys.LAST_LOGIN, Instant.now());
@@ -201,6 +219,25 @@ public class CoreListener implements IReloadableService.Reloadable, ListenerBase
     @Listener(order = Order.LAST)
     public void onPlayerQuit(final ServerSideConnectionEvent.Disconnect event, @Getter("player") final ServerPlayer player) {
         this.serviceCollection.storageManager().getUser(player.uniqueId()).thenAccept(x -> x.ifPresent(y -> this.onPlayerQuit(player, y)));
+        this.serviceCollection.permissionService().invalidateCache(player.uniqueId());
+        this.serviceCollection.playerDisplayNameService().invalidateCache(player.uniqueId());
+        this.serviceCollection.playerDisplayNameService().markOffline(player.uniqueId());
+    }
+
+    // Contexts, and so prefix and suffix options and formatting permissions, may depend
+    // on the world, and later listeners may check permissions.
+    @Listener(order = Order.FIRST)
+    public void onPlayerChangeWorld(final ChangeEntityWorldEvent.Post event, @Getter("entity") final ServerPlayer player) {
+        this.serviceCollection.permissionService().invalidateContexts(player.uniqueId());
+        this.serviceCollection.playerDisplayNameService().invalidateCache(player.uniqueId());
+        this.serviceCollection.textStyleService().invalidateCache(player);
+    }
+
+    @Listener(order = Order.POST)
+    public void onSubjectDataUpdate(final SubjectDataUpdateEvent event) {
+        this.serviceCollection.permissionService().invalidateCache(event.updatedData().subject());
+        this.serviceCollection.playerDisplayNameService().invalidateCache(event.updatedData().subject());
+        this.serviceCollection.textStyleService().invalidateCache(event.updatedData().subject());
     }
 
     private void onPlayerQuit(final ServerPlayer player, final IUserDataObject udo) {
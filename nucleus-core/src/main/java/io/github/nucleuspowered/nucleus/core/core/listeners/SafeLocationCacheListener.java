@@ -0,0 +1,43 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.core.listeners;
+
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.INucleusLocationService;
+import org.spongepowered.api.block.transaction.BlockTransaction;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.block.ChangeBlockEvent;
+import org.spongepowered.api.event.world.UnloadWorldEvent;
+
+/**
+ * Keeps the safe location cache in step with the world.
+ */
+public class SafeLocationCacheListener implements ListenerBase {
+
+    private final INucleusLocationService locationService;
+
+    @Inject
+    public SafeLocationCacheListener(final INucleusServiceCollection serviceCollection) {
+        this.locationService = serviceCollection.teleportService();
+    }
+
+    @Listener(order = Order.POST)
+    public void onBlockChange(final ChangeBlockEvent.All event) {
+        for (final BlockTransaction transaction : event.transactions()) {
+            if (transaction.isValid()) {
+                this.locationService.invalidateSafeLocations(transaction.original().world(), transaction.original().position());
+            }
+        }
+    }
+
+    @Listener
+    public void onWorldUnload(final UnloadWorldEvent event) {
+        this.locationService.invalidateSafeLocations(event.world().key());
+    }
+
+}
@@ -5,9 +5,13 @@
 package io.github.nucleuspowered.nucleus.core.logging;
 
 import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.core.config.CoreConfig;
+import io.github.nucleuspowered.nucleus.core.core.config.FileLoggingConfig;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IMessageProviderService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
 import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.IOException;
 import java.time.Instant;
@@ -15,23 +19,80 @@ import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Writes log entries to a {@link DateRotatableFileLogger}.
+ *
+ * <p>Entries are placed on a bounded, lock free queue, so that queueing an entry never
+ * blocks the thread that created it. A dedicated writer thread drains the queue on a
+ * fixed interval, writing each batch in one go, and only flushes the file once the flush
+ * interval has passed. If the queue fills up faster than it can be written, new entries
+ * are dropped and counted, rather than held in memory.</p>
+ *
+ * <p>Settings and the writer thread are guarded by one lock, and the file by another, so
+ * that reloading or starting the writer never waits on disk I/O.</p>
+ */
 public abstract class AbstractLoggingHandler implements IReloadableService.Reloadable {
 
     private static final DateTimeFormatter formatter = DateTimeFormatter
             .ofLocalizedDateTime(FormatStyle.SHORT)
             .withLocale(Locale.getDefault())
             .withZone(ZoneId.systemDefault());
+    private static final Collection<AbstractLoggingHandler> HANDLERS = new CopyOnWriteArrayList<>();
+    private static final long SHUTDOWN_COMPRESSION_WAIT = 10000;
+
     private final IMessageProviderService messageProviderService;
     private final Logger slogger;
-    protected DateRotatableFileLogger logger;
-    private final List<String> queueEntry = new ArrayList<>();
+    protected volatile DateRotatableFileLogger logger;
     private final String directoryName;
     private final String filePrefix;
     private final Object locking = new Object();
+    private final Object writing = new Object();
+
+    private volatile LogRingBuffer<String> queue;
+    // The buffer that was replaced by the last resize, which may still get entries from
+    // threads that read the old buffer before the swap.
+    @Nullable private volatile LogRingBuffer<String> previousQueue;
+    private long writeInterval;
+    private volatile long flushInterval;
+    @Nullable private ScheduledExecutorService writer;
+    @Nullable private volatile ScheduledFuture<?> writeTask;
+
+    // Only touched by whoever holds the writing lock.
+    private long lastFlush = System.currentTimeMillis();
+    private boolean unflushed = false;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    /**
+     * Gets the statistics for every logging handler that has been created.
+     *
+     * @return The {@link Statistics}
+     */
+    public static List<Statistics> getAllStatistics() {
+        final List<Statistics> statistics = new ArrayList<>();
+        for (final AbstractLoggingHandler handler : HANDLERS) {
+            statistics.add(handler.getStatistics());
+        }
+        return Collections.unmodifiableList(statistics);
+    }
 
     @Inject
     public AbstractLoggingHandler(final String directoryName,
@@ -42,42 +103,172 @@ public abstract class AbstractLoggingHandler implements IReloadableService.Reloa
         this.filePrefix = filePrefix;
         this.messageProviderService = messageProviderService;
         this.slogger = logger;
+
+        final FileLoggingConfig defaults = new FileLoggingConfig();
+        this.queue = new LogRingBuffer<>(defaults.getQueueCapacity());
+        this.writeInterval = defaults.getWriteInterval();
+        this.flushInterval = defaults.getFlushInterval();
+        HANDLERS.add(this);
     }
 
     public void queueEntry(final String s) {
         if (this.logger != null) {
-            synchronized (this.locking) {
-                this.queueEntry.add(s);
+            if (this.queue.offer(s)) {
+                this.queued.incrementAndGet();
+                this.ensureWriter();
+            } else {
+                this.dropped.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Reads the file logging settings from the core config. Implementations must call
+     * this before acting on their own configuration.
+     *
+     * @param serviceCollection The {@link INucleusServiceCollection}
+     */
+    @Override
+    public void onReload(final INucleusServiceCollection serviceCollection) {
+        final CoreConfig coreConfig = serviceCollection.configProvider().getCoreConfig();
+        final FileLoggingConfig config = coreConfig == null ? new FileLoggingConfig() : coreConfig.getFileLoggingConfig();
+        LogRingBuffer<String> previous = null;
+        synchronized (this.locking) {
+            this.flushInterval = config.getFlushInterval();
+            if (this.queue.capacity() != LogRingBuffer.capacityFor(config.getQueueCapacity())) {
+                previous = this.queue;
+                this.queue = new LogRingBuffer<>(config.getQueueCapacity());
+            }
+
+            if (this.writeInterval != config.getWriteInterval()) {
+                this.writeInterval = config.getWriteInterval();
+                if (this.writeTask != null) {
+                    this.writeTask.cancel(false);
+                    this.writeTask = null;
+                    this.ensureWriter();
+                }
+            }
+        }
+
+        if (previous != null) {
+            // Anything that was queued against the old buffer moves over. Entries that land
+            // in it after this are picked up by the writer, which drains it too.
+            synchronized (this.writing) {
+                this.previousQueue = previous;
+                this.drainInto(previous, this.queue);
             }
         }
     }
 
     public void onServerShutdown() throws IOException {
         this.onShutdown();
+        LogCompressor.awaitPending(SHUTDOWN_COMPRESSION_WAIT);
     }
 
     protected void onShutdown() throws IOException {
-        if (this.logger != null) {
-            this.logger.close();
-            this.logger = null;
+        synchronized (this.locking) {
+            if (this.writeTask != null) {
+                this.writeTask.cancel(false);
+                this.writeTask = null;
+            }
+            if (this.writer != null) {
+                this.writer.shutdown();
+                this.writer = null;
+            }
+        }
+
+        synchronized (this.writing) {
+            if (this.logger != null) {
+                this.writeQueued(true);
+                this.logger.close();
+                this.logger = null;
+            }
         }
     }
 
     protected abstract boolean enabledLog();
 
+    /**
+     * Ensures that the writer thread is running. The writing itself happens on that
+     * thread, so this is cheap to call from any thread.
+     */
     public void onTick() {
-        if (this.queueEntry.isEmpty()) {
+        if (this.logger != null) {
+            this.ensureWriter();
+        }
+    }
+
+    public Statistics getStatistics() {
+        final LogRingBuffer<String> queue = this.queue;
+        return new Statistics(
+                this.filePrefix,
+                queue.size(),
+                queue.capacity(),
+                this.queued.get(),
+                this.dropped.get(),
+                this.written.get(),
+                this.batches.get(),
+                this.flushes.get());
+    }
+
+    protected void createLogger() throws IOException {
+        synchronized (this.writing) {
+            this.logger = new DateRotatableFileLogger(this.directoryName, this.filePrefix, s -> "[" +
+                    formatter.format(Instant.now().atZone(ZoneOffset.systemDefault())) +
+                    "] " + s);
+        }
+    }
+
+    private void ensureWriter() {
+        if (this.writeTask != null) {
             return;
         }
 
-        final List<String> l;
         synchronized (this.locking) {
-            l = new ArrayList<>(this.queueEntry);
-            this.queueEntry.clear();
+            if (this.writeTask != null) {
+                return;
+            }
+            if (this.writer == null) {
+                this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final Thread thread = new Thread(runnable, "Nucleus Log Writer - " + this.filePrefix);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            this.writeTask = this.writer.scheduleWithFixedDelay(
+                    () -> this.writeQueued(false),
+                    this.writeInterval,
+                    this.writeInterval,
+                    TimeUnit.MILLISECONDS);
         }
+    }
+
+    private void drainInto(final LogRingBuffer<String> from, final LogRingBuffer<String> to) {
+        String entry;
+        while ((entry = from.poll()) != null) {
+            if (!to.offer(entry)) {
+                this.dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private void writeQueued(final boolean forceFlush) {
+        synchronized (this.writing) {
+            final LogRingBuffer<String> queue = this.queue;
+            final LogRingBuffer<String> previousQueue = this.previousQueue;
+            if (previousQueue != null) {
+                this.drainInto(previousQueue, queue);
+            }
+
+            if (queue.isEmpty() && !this.unflushed) {
+                return;
+            }
+
+            if (this.logger == null) {
+                if (!this.enabledLog()) {
+                    return;
+                }
 
-        if (this.logger == null) {
-            if (this.enabledLog()) {
                 try {
                     this.createLogger();
                 } catch (final IOException e) {
@@ -85,28 +276,99 @@ public abstract class AbstractLoggingHandler implements IReloadableService.Reloa
                     e.printStackTrace();
                     return;
                 }
-            } else {
-                return;
             }
-        }
 
-        try {
-            this.writeEntry(l);
-        } catch (final IOException e) {
-            this.slogger.warn(this.messageProviderService.getMessageString("commandlog.couldnotwrite"));
-            e.printStackTrace();
+            final Deque<String> batch = new ArrayDeque<>(Math.min(queue.size(), queue.capacity()));
+            String entry;
+            while ((entry = queue.poll()) != null) {
+                batch.add(entry);
+            }
+
+            try {
+                if (!batch.isEmpty()) {
+                    final int size = batch.size();
+                    this.logger.logEntry(batch, false);
+                    this.written.addAndGet(size);
+                    this.batches.incrementAndGet();
+                    this.unflushed = true;
+                }
+
+                final long now = System.currentTimeMillis();
+                if (this.unflushed && (forceFlush || now - this.lastFlush >= this.flushInterval)) {
+                    this.logger.flush();
+                    this.flushes.incrementAndGet();
+                    this.lastFlush = now;
+                    this.unflushed = false;
+                }
+            } catch (final IOException e) {
+                this.slogger.warn(this.messageProviderService.getMessageString("commandlog.couldnotwrite"));
+                e.printStackTrace();
+            }
         }
     }
 
-    protected void createLogger() throws IOException {
-        this.logger = new DateRotatableFileLogger(this.directoryName, this.filePrefix, s -> "[" +
-            formatter.format(Instant.now().atZone(ZoneOffset.systemDefault())) +
-            "] " + s);
-    }
+    /**
+     * A snapshot of the state of a logging handler.
+     */
+    public static final class Statistics {
 
-    private void writeEntry(final Iterable<String> entry) throws IOException {
-        if (this.logger != null) {
-            this.logger.logEntry(entry);
+        private final String name;
+        private final int depth;
+        private final int capacity;
+        private final long queued;
+        private final long dropped;
+        private final long written;
+        private final long batches;
+        private final long flushes;
+
+        Statistics(final String name,
+                final int depth,
+                final int capacity,
+                final long queued,
+                final long dropped,
+                final long written,
+                final long batches,
+                final long flushes) {
+            this.name = name;
+            this.depth = depth;
+            this.capacity = capacity;
+            this.queued = queued;
+            this.dropped = dropped;
+            this.written = written;
+            this.batches = batches;
+            this.flushes = flushes;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public int getDepth() {
+            return this.depth;
+        }
+
+        public int getCapacity() {
+            return this.capacity;
+        }
+
+        public long getQueued() {
+            return this.queued;
+        }
+
+        public long getDropped() {
+            return this.dropped;
+        }
+
+        public long getWritten() {
+            return this.written;
+        }
+
+        public long getBatches() {
+            return this.batches;
+        }
+
+        public long getFlushes() {
+            return this.flushes;
         }
     }
 }
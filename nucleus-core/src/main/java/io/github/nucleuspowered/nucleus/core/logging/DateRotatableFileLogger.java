@@ -4,8 +4,6 @@
  */
 package io.github.nucleuspowered.nucleus.core.logging;
 
-import io.github.nucleuspowered.nucleus.core.Util;
-
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -15,6 +13,7 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Objects;
@@ -62,11 +61,7 @@ public class DateRotatableFileLogger implements Closeable {
             fileName = this.directory.toString() + "/" + this.filenamePrefix + "-" + DateTimeFormatter.ofPattern("yyyy-MM-dd").format(Instant.now().atZone(ZoneId.systemDefault())) + "-" + count + ".log";
             final Path nextFile = Paths.get(fileName);
             if (Files.exists(nextFile)) {
-                try {
-                    Util.compressAndDeleteFile(nextFile);
-                } catch (final IOException e) {
-                    e.printStackTrace();
-                }
+                LogCompressor.compressAndDeleteLater(nextFile);
             } else if (!Files.exists(Paths.get(fileName + ".gz"))) {
                 this.file = new LogFile(nextFile, this.formatter);
                 go = true;
@@ -81,18 +76,36 @@ public class DateRotatableFileLogger implements Closeable {
             throw new IllegalStateException();
         }
 
-        this.logEntry(Collections.singleton(entry), true);
+        this.logEntry(new ArrayDeque<>(Collections.singleton(entry)), true, true);
     }
 
     public void logEntry(final Iterable<String> entry) throws IOException {
+        this.logEntry(entry, true);
+    }
+
+    /**
+     * Writes the entries to the current file, removing each one from the
+     * {@link Iterable} once it has been written.
+     *
+     * @param entry The entries to write
+     * @param flush Whether to flush the file once the entries are written
+     * @throws IOException if the entries could not be written
+     */
+    public void logEntry(final Iterable<String> entry, final boolean flush) throws IOException {
         if (this.isClosed) {
             throw new IllegalStateException();
         }
 
-        this.logEntry(entry, true);
+        this.logEntry(entry, flush, true);
+    }
+
+    public void flush() throws IOException {
+        if (this.file != null && !this.file.isClosed()) {
+            this.file.flush();
+        }
     }
 
-    private void logEntry(final Iterable<String> entry, final boolean retryOnError) throws IOException {
+    private void logEntry(final Iterable<String> entry, final boolean flush, final boolean retryOnError) throws IOException {
         if (this.file == null || this.file.isClosed() || Instant.now().truncatedTo(ChronoUnit.DAYS).isAfter(this.currentDate)) {
             this.openFile();
         }
@@ -104,10 +117,12 @@ public class DateRotatableFileLogger implements Closeable {
                 iterator.remove();
             }
 
-            this.file.flush();
+            if (flush) {
+                this.file.flush();
+            }
         } catch (final IOException e) {
             if (retryOnError) {
-                this.logEntry(entry, false);
+                this.logEntry(entry, flush, false);
             } else {
                 throw e;
             }
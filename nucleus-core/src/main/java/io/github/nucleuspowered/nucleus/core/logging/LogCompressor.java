@@ -0,0 +1,75 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.logging;
+
+import io.github.nucleuspowered.nucleus.core.Util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses rotated log files on a background thread, so that rotation does not hold
+ * up the writing of new entries.
+ */
+final class LogCompressor {
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "Nucleus Log Compressor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Set<Path> PENDING = ConcurrentHashMap.newKeySet();
+
+    private LogCompressor() {
+    }
+
+    /**
+     * Queues the file for compression, if it is not queued already.
+     *
+     * @param file The file to compress
+     */
+    static void compressAndDeleteLater(final Path file) {
+        final Path normalised = file.toAbsolutePath().normalize();
+        if (!PENDING.add(normalised)) {
+            return;
+        }
+
+        final Runnable task = () -> {
+            try {
+                Util.compressAndDeleteFile(normalised);
+            } catch (final IOException e) {
+                e.printStackTrace();
+            } finally {
+                PENDING.remove(normalised);
+            }
+        };
+
+        try {
+            EXECUTOR.execute(task);
+        } catch (final RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    /**
+     * Waits for the files that are currently queued to be compressed.
+     *
+     * @param timeout The maximum time to wait, in milliseconds
+     */
+    static void awaitPending(final long timeout) {
+        try {
+            EXECUTOR.submit(() -> { }).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (final Exception e) {
+            // we tried
+        }
+    }
+
+}
@@ -5,7 +5,6 @@
 package io.github.nucleuspowered.nucleus.core.logging;
 
 import com.google.common.base.Preconditions;
-import io.github.nucleuspowered.nucleus.core.Util;
 
 import java.io.BufferedWriter;
 import java.io.Closeable;
@@ -59,7 +58,7 @@ class LogFile implements Closeable {
         } finally {
             this.isClosed = true;
 
-            Util.compressAndDeleteFile(this.location);
+            LogCompressor.compressAndDeleteLater(this.location);
         }
     }
 }
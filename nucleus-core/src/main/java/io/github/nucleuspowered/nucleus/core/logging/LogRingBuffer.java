@@ -0,0 +1,119 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.logging;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock free queue backed by a ring of slots.
+ *
+ * <p>Each slot carries a sequence number that tells producers and consumers whether
+ * it is free to write or ready to read, so neither side ever blocks. When the ring is
+ * full, {@link #offer(Object)} fails rather than waiting.</p>
+ *
+ * @param <T> The type of element
+ */
+final class LogRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Gets the capacity a buffer will actually have if the given capacity is requested.
+     *
+     * @param requestedCapacity The requested capacity
+     * @return The next power of two at or above the request
+     */
+    static int capacityFor(final int requestedCapacity) {
+        int capacity = 2;
+        while (capacity < requestedCapacity && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    LogRingBuffer(final int requestedCapacity) {
+        final int capacity = LogRingBuffer.capacityFor(requestedCapacity);
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return this.mask + 1;
+    }
+
+    int size() {
+        return (int) Math.max(0, Math.min(this.capacity(), this.tail.get() - this.head.get()));
+    }
+
+    boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Adds an element to the buffer, if there is room.
+     *
+     * @param element The element
+     * @return {@code false} if the buffer is full
+     */
+    boolean offer(final T element) {
+        long position = this.tail.get();
+        while (true) {
+            final int index = (int) (position & this.mask);
+            final long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.elements.set(index, element);
+                    this.sequences.set(index, position + 1);
+                    return true;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element from the buffer.
+     *
+     * @return The element, or {@code null} if there is nothing to read
+     */
+    @Nullable
+    T poll() {
+        long position = this.head.get();
+        while (true) {
+            final int index = (int) (position & this.mask);
+            final long difference = this.sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (this.head.compareAndSet(position, position + 1)) {
+                    final T element = this.elements.get(index);
+                    this.elements.set(index, null);
+                    this.sequences.set(index, position + this.mask + 1);
+                    return element;
+                }
+                position = this.head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = this.head.get();
+            }
+        }
+    }
+
+}
@@ -248,6 +248,17 @@ public interface ICommandContext {
 
     void addFailAction(Consumer<ICommandContext> action);
 
+    /**
+     * Completes a command that returned {@link ICommandResult#willContinueLater()} from its
+     * executor, running the success or failure actions for the given result. Any error
+     * message is sent to the command source.
+     *
+     * <p>This must be called on the main thread.</p>
+     *
+     * @param result The final result
+     */
+    void completeLater(ICommandResult result);
+
     Audience audience();
 
     Locale getLocale();
@@ -70,6 +70,9 @@ public final class CommandControl {
     private final CommandModifiersConfig commandModifiersConfig = new CommandModifiersConfig();
 
     private final String command;
+    private final String cooldownOptionKey;
+    private final String warmupOptionKey;
+    private final String costOptionKey;
     private boolean acceptingRegistration = true;
 
     private org.spongepowered.api.command.Command.@Nullable Parameterized lazy$builtCommand;
@@ -95,6 +98,11 @@ public final class CommandControl {
             this.command = meta.getAliases()[0];
         }
 
+        final String optionPrefix = "nucleus." + this.command.replace(" ", ".").toLowerCase() + ".";
+        this.cooldownOptionKey = optionPrefix + "cooldown";
+        this.warmupOptionKey = optionPrefix + "warmup";
+        this.costOptionKey = optionPrefix + "cost";
+
         // this must be last.
         this.modifiers = CommandControl.validateModifiers(this, serviceCollection.logger(), meta.getCommandAnnotation());
     }
@@ -244,6 +252,25 @@ public final class CommandControl {
         }
     }
 
+    // Entry point for commands that finish asynchronously.
+    public void completeLater(@NonNull final ICommandContext contextSource, @NonNull final ICommandResult result) {
+        if (result.isWillContinue()) {
+            return;
+        }
+
+        if (!result.isSuccess()) {
+            this.onFail(contextSource, result.getErrorMessage(contextSource).orElse(null));
+            return;
+        }
+
+        try {
+            this.onSuccess(contextSource);
+        } catch (final CommandException ex) {
+            final Component message = ex.componentMessage() == null ? Component.text("Unknown error!", NamedTextColor.RED) : ex.componentMessage();
+            this.onFail(contextSource, message);
+        }
+    }
+
     private ICommandResult execute(@NonNull final ICommandContext context) throws CommandException {
         if (this.executor == null) {
             throw new IllegalStateException("Executor is missing.");
@@ -369,7 +396,7 @@ public final class CommandControl {
 
     public int getCooldown(final Subject subject) {
         return this.serviceCollection.permissionService()
-                .getIntOptionFromSubject(subject, String.format("nucleus.%s.cooldown", this.command.replace(" ", ".")))
+                .getIntOptionFromSubject(subject, this.cooldownOptionKey)
                 .orElseGet(this::getCooldown);
     }
 
@@ -379,7 +406,7 @@ public final class CommandControl {
 
     public int getWarmup(final Subject subject) {
         return this.serviceCollection.permissionService()
-                .getIntOptionFromSubject(subject, String.format("nucleus.%s.warmup", this.command.replace(" ", ".")))
+                .getIntOptionFromSubject(subject, this.warmupOptionKey)
                 .orElseGet(this::getWarmup);
     }
 
@@ -389,7 +416,7 @@ public final class CommandControl {
 
     public double getCost(final Subject subject) {
         return this.serviceCollection.permissionService()
-                .getDoubleOptionFromSubject(subject, String.format("nucleus.%s.cost", this.command.replace(" ", ".")))
+                .getDoubleOptionFromSubject(subject, this.costOptionKey)
                 .orElseGet(this::getCost);
     }
 
@@ -52,6 +52,7 @@ public final class CommandContextImpl implements ICommandContext {
     private final CommandCause cause;
     private final CommandContext context;
     private final Map<CommandModifier, ICommandModifier> modifiers;
+    private final CommandControl control;
     private final ArrayList<Consumer<ICommandContext>> failActions = new ArrayList<>();
 
     private static String getFriendlyName(final CommandCause cause) {
@@ -71,6 +72,7 @@ public final class CommandContextImpl implements ICommandContext {
             final Map<CommandModifier, ICommandModifier> modifiers) {
         this.cause = cause;
         this.commandkey = control.getCommandKey();
+        this.control = control;
         this.context = context;
         this.serviceCollection = serviceCollection;
         this.cost = control.getCost(cause);
@@ -278,6 +280,10 @@ public final class CommandContextImpl implements ICommandContext {
         this.failActions.add(action);
     }
 
+    @Override public void completeLater(final ICommandResult result) {
+        this.control.completeLater(this, result);
+    }
+
     @Override public Audience audience() {
         return this.cause.audience();
     }
@@ -4,81 +4,209 @@
  */
 package io.github.nucleuspowered.nucleus.core.services.impl.cooldown;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import io.github.nucleuspowered.nucleus.core.core.CoreKeys;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.IUserDataObject;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.ICooldownService;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IStorageManager;
 import org.spongepowered.api.util.Identifiable;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
+/**
+ * Stores cooldowns as expiry times, held per player.
+ *
+ * <p>Checking a cooldown is a pair of hash lookups. Expired cooldowns are not swept on
+ * every check, instead, each cooldown's expiry is placed on a deadline queue, and the
+ * expired head of that queue is removed when a new cooldown is set.</p>
+ *
+ * <p>Cooldowns that are at least as long as the configured threshold are also stored
+ * against the player's data, so that they survive a restart.</p>
+ */
 @Singleton
-public class CooldownService implements ICooldownService {
-
-    private final Map<DualKey, Instant> cooldowns = new HashMap<>();
-
-    private Map<DualKey, Instant> cleanUp() {
-        final Instant now = Instant.now();
-        final Collection<DualKey> keys = this.cooldowns.entrySet()
-                .stream()
-                .filter(x -> x.getValue().isBefore(now))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-        for (final DualKey key : keys) {
-            this.cooldowns.remove(key);
-        }
+public class CooldownService implements ICooldownService, IReloadableService.Reloadable {
+
+    private final IStorageManager storageManager;
+    private final Map<UUID, PlayerCooldowns> cooldowns = new ConcurrentHashMap<>();
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>();
+    private long persistThresholdMillis = 0;
+
+    private static String toStorageKey(final String key) {
+        // Stored map keys are data queries, so can't contain the separator
+        return key.replace('.', '/');
+    }
+
+    private static String fromStorageKey(final String key) {
+        return key.replace('/', '.');
+    }
 
-        return this.cooldowns;
+    @Inject
+    public CooldownService(final IStorageManager storageManager, final IReloadableService reloadableService) {
+        this.storageManager = storageManager;
+        reloadableService.registerReloadable(this);
     }
 
     @Override public boolean hasCooldown(final String key, final Identifiable identifiable) {
-        return this.cleanUp().containsKey(new DualKey(key, identifiable.uniqueId()));
+        return this.getExpiry(key, identifiable.uniqueId()) > System.currentTimeMillis();
     }
 
     @Override public Optional<Duration> getCooldown(final String key, final Identifiable identifiable) {
-        return Optional.ofNullable(this.cleanUp()
-                .get(new DualKey(key, identifiable.uniqueId())))
-                .map(x -> Duration.between(Instant.now(), x));
+        final long remaining = this.getExpiry(key, identifiable.uniqueId()) - System.currentTimeMillis();
+        if (remaining > 0) {
+            return Optional.of(Duration.ofMillis(remaining));
+        }
+        return Optional.empty();
     }
 
     @Override public void setCooldown(final String key, final Identifiable identifiable, final Duration cooldownLength) {
-        this.cooldowns.put(new DualKey(key, identifiable.uniqueId()), Instant.now().plus(cooldownLength));
+        this.setCooldown(key, identifiable, cooldownLength,
+                this.persistThresholdMillis > 0 && cooldownLength.toMillis() >= this.persistThresholdMillis);
+    }
+
+    @Override public void setCooldown(final String key, final Identifiable identifiable, final Duration cooldownLength, final boolean persist) {
+        final UUID uuid = identifiable.uniqueId();
+        final long now = System.currentTimeMillis();
+        final long expiry = now + cooldownLength.toMillis();
+        this.purgeExpired(now);
+        if (expiry <= now) {
+            this.clearCooldown(key, identifiable);
+            return;
+        }
+
+        // Written under the same compute that purgeExpired removes empty entries with, so the
+        // cooldown can't be put into an entry that has just been removed.
+        final PlayerCooldowns playerCooldowns = this.cooldowns.compute(uuid, (u, x) -> {
+            final PlayerCooldowns result = x == null ? new PlayerCooldowns() : x;
+            result.expiries.put(key, expiry);
+            if (persist) {
+                result.persisted.add(key);
+            }
+            return result;
+        });
+        synchronized (this.deadlines) {
+            this.deadlines.add(new Deadline(uuid, key, expiry));
+        }
+
+        if (persist) {
+            this.updatePersisted(uuid, map -> map.put(CooldownService.toStorageKey(key), Instant.ofEpochMilli(expiry)));
+        } else if (playerCooldowns.persisted.remove(key)) {
+            this.updatePersisted(uuid, map -> map.remove(CooldownService.toStorageKey(key)));
+        }
     }
 
     @Override public void clearCooldown(final String key, final Identifiable identifiable) {
-        this.cooldowns.remove(new DualKey(key, identifiable.uniqueId()));
+        final UUID uuid = identifiable.uniqueId();
+        final PlayerCooldowns playerCooldowns = this.cooldowns.get(uuid);
+        if (playerCooldowns != null) {
+            playerCooldowns.expiries.remove(key);
+            if (playerCooldowns.persisted.remove(key)) {
+                this.updatePersisted(uuid, map -> map.remove(CooldownService.toStorageKey(key)));
+            }
+        }
     }
 
-    private final static class DualKey {
+    @Override public void loadPersistedCooldowns(final UUID uuid, final IUserDataObject userDataObject) {
+        final Map<String, Instant> persisted = userDataObject.get(CoreKeys.COOLDOWNS).orElse(null);
+        if (persisted == null || persisted.isEmpty()) {
+            return;
+        }
 
-        private final String key;
-        private final UUID uuid;
+        final long now = System.currentTimeMillis();
+        final List<Deadline> loaded = new ArrayList<>();
+        this.cooldowns.compute(uuid, (u, x) -> {
+            final PlayerCooldowns result = x == null ? new PlayerCooldowns() : x;
+            for (final Map.Entry<String, Instant> entry : persisted.entrySet()) {
+                final long expiry = entry.getValue().toEpochMilli();
+                if (expiry > now) {
+                    final String key = CooldownService.fromStorageKey(entry.getKey());
+                    result.expiries.merge(key, expiry, Math::max);
+                    result.persisted.add(key);
+                    loaded.add(new Deadline(uuid, key, expiry));
+                }
+            }
+            return result.expiries.isEmpty() ? null : result;
+        });
 
-        private DualKey(final String key, final UUID uuid) {
-            this.key = key;
-            this.uuid = uuid;
+        // Not done in the compute, purgeExpired holds this lock while it computes.
+        synchronized (this.deadlines) {
+            this.deadlines.addAll(loaded);
         }
+    }
 
-        @Override public boolean equals(final Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o == null || this.getClass() != o.getClass()) {
-                return false;
+    @Override public void onReload(final INucleusServiceCollection serviceCollection) {
+        this.persistThresholdMillis = Math.max(0, serviceCollection.configProvider().getCoreConfig().getPersistCooldownsLongerThan()) * 1000L;
+    }
+
+    private long getExpiry(final String key, final UUID uuid) {
+        final PlayerCooldowns playerCooldowns = this.cooldowns.get(uuid);
+        if (playerCooldowns == null) {
+            return 0;
+        }
+
+        final Long expiry = playerCooldowns.expiries.get(key);
+        return expiry == null ? 0 : expiry;
+    }
+
+    private void purgeExpired(final long now) {
+        synchronized (this.deadlines) {
+            Deadline deadline;
+            while ((deadline = this.deadlines.peek()) != null && deadline.expiry <= now) {
+                this.deadlines.poll();
+                final Deadline expired = deadline;
+                this.cooldowns.computeIfPresent(expired.uuid, (uuid, x) -> {
+                    // If the cooldown was renewed, its new deadline is still in the queue.
+                    x.expiries.remove(expired.key, expired.expiry);
+                    return x.expiries.isEmpty() ? null : x;
+                });
             }
-            final DualKey dualKey = (DualKey) o;
-            return Objects.equals(this.key, dualKey.key) &&
-                    Objects.equals(this.uuid, dualKey.uuid);
+        }
+    }
+
+    private void updatePersisted(final UUID uuid, final Consumer<Map<String, Instant>> updater) {
+        this.storageManager.getUserService().getOrNew(uuid).thenAccept(userDataObject -> {
+            final Map<String, Instant> persisted = new HashMap<>(userDataObject.get(CoreKeys.COOLDOWNS).orElseGet(HashMap::new));
+            final Instant now = Instant.now();
+            persisted.values().removeIf(x -> x.isBefore(now));
+            updater.accept(persisted);
+            this.storageManager.getUserService().setAndSave(uuid, CoreKeys.COOLDOWNS, persisted);
+        });
+    }
+
+    private static final class PlayerCooldowns {
+
+        private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+        private final Set<String> persisted = ConcurrentHashMap.newKeySet();
+
+    }
+
+    private static final class Deadline implements Comparable<Deadline> {
+
+        private final UUID uuid;
+        private final String key;
+        private final long expiry;
+
+        private Deadline(final UUID uuid, final String key, final long expiry) {
+            this.uuid = uuid;
+            this.key = key;
+            this.expiry = expiry;
         }
 
-        @Override public int hashCode() {
-            return Objects.hash(this.key, this.uuid.getLeastSignificantBits(), this.uuid.getMostSignificantBits());
+        @Override public int compareTo(final Deadline o) {
+            return Long.compare(this.expiry, o.expiry);
         }
     }
 }
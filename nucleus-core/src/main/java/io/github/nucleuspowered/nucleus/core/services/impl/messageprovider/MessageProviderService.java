@@ -50,6 +50,7 @@ import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Singleton
@@ -90,7 +91,7 @@ public class MessageProviderService implements IMessageProviderService, IReloada
     private final PropertiesMessageRepository defaultMessagesResource;
     private final ConfigFileMessagesRepository configFileMessagesRepository;
 
-    private final Map<Locale, PropertiesMessageRepository> messagesMap = new HashMap<>();
+    private final Map<Locale, PropertiesMessageRepository> messagesMap = new ConcurrentHashMap<>();
     private final LoadingCache<UUID, Locale> localeCache = Caffeine.newBuilder()
             .build(new CacheLoader<UUID, Locale>() {
                 @Override
@@ -220,6 +221,10 @@ public class MessageProviderService implements IMessageProviderService, IReloada
         this.defaultLocale = Locale.forLanguageTag(coreConfig.getServerLocale().replace("_", "-"));
         this.serviceCollection.logger().info(this.getMessageString("language.set", this.defaultLocale.toLanguageTag()));
         this.reloadMessageFile();
+        if (!this.useMessagesFile) {
+            final PropertiesMessageRepository repository = this.getPropertiesMessagesRepository(this.defaultLocale);
+            Sponge.asyncScheduler().executor(serviceCollection.pluginContainer()).submit(repository::warmCache);
+        }
     }
 
     @Override
@@ -16,20 +16,22 @@ import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 abstract class AbstractMessageRepository implements IMessageRepository {
 
     private final static Pattern STRING_REPLACER = Pattern.compile("\\{+\\D+}+");
     private final static Pattern STRING_LOCALISER = Pattern.compile("loc:([a-z\\-.]+)");
+    private final static Pattern ARGUMENT = Pattern.compile("\\{(\\d+)}");
 
-    final Map<String, String> cachedStringMessages = new HashMap<>();
-    final Map<String, Template> cachedMessages = new HashMap<>();
+    // Messages may be requested from any thread.
+    final Map<String, String> cachedStringMessages = new ConcurrentHashMap<>();
+    final Map<String, Template> cachedMessages = new ConcurrentHashMap<>();
     private final IPlayerDisplayNameService playerDisplayNameService;
     private final ITextStyleService textStyleService;
 
@@ -62,79 +64,84 @@ abstract class AbstractMessageRepository implements IMessageRepository {
         if (args == null) { // this can happen unfortunately, until I fix it everywhere, this'll do
             return this.getText(key);
         }
-        return this.getTextMessageWithTextFormat(key,
-                Arrays.stream(args).map(x -> {
-                    final Component component;
-                    if (x instanceof User) {
-                        component = this.playerDisplayNameService.getDisplayName(((User) x).uniqueId());
-                    } else if (x instanceof ServerPlayer) {
-                        component = this.playerDisplayNameService.getDisplayName(((ServerPlayer) x).uniqueId());
-                    } else if (x instanceof Component) {
-                        component = (Component) x;
-                    } else if (x instanceof String) {
-                        final String s = (String) x;
-                        final Matcher matcher = STRING_LOCALISER.matcher(s);
-                        if (matcher.matches()) {
-                             return this.getText(matcher.group(1));
-                        }
-
-                        component = Component.text(s);
-                    } else {
-                        component = Component.text(x.toString());
-                    }
-                    return component;
-                }).collect(Collectors.toList()));
-    }
-
-    @Override
-    public String getString(final String key) {
-        return this.cachedStringMessages.computeIfAbsent(key, this::getStringEntry);
-    }
 
-    @Override
-    public String getString(final String key, final Object[] args) {
-        return MessageFormat.format(this.getString(key), args);
-    }
-
-    private Component getTextMessageWithTextFormat(final String key, final List<? extends Component> textList) {
         final Template template = this.getTextTemplate(key);
-        if (textList.isEmpty()) {
+        if (args.length == 0) {
             return template.create();
         }
 
-        final Map<String, Component> objs = new HashMap<>();
-        for (int i = 0; i < textList.size(); i++) {
-            objs.put(String.valueOf(i), textList.get(i));
+        final Component[] components = new Component[args.length];
+        for (int i = 0; i < args.length; i++) {
+            components[i] = this.toComponent(args[i]);
         }
+        return template.create(Arrays.asList(components));
+    }
 
-        return template.create(objs);
+    /**
+     * Compiles the templates for the supplied keys ahead of their first use.
+     *
+     * @param keys The keys to compile
+     */
+    void warmCache(final Collection<String> keys) {
+        for (final String key : keys) {
+            try {
+                this.getTextTemplate(key);
+            } catch (final Exception e) {
+                // the message will fail again when it is used, leave it until then.
+            }
+        }
     }
 
-    final Template templateCreator(final String string) {
-        // regex!
-        final Matcher mat = Pattern.compile("\\{(\\d+)}").matcher(string);
-        final List<Integer> map = new ArrayList<>();
+    private Component toComponent(final Object x) {
+        if (x instanceof User) {
+            return this.playerDisplayNameService.getDisplayName(((User) x).uniqueId());
+        } else if (x instanceof ServerPlayer) {
+            return this.playerDisplayNameService.getDisplayName(((ServerPlayer) x).uniqueId());
+        } else if (x instanceof Component) {
+            return (Component) x;
+        } else if (x instanceof String) {
+            final String s = (String) x;
+            if (s.startsWith("loc:")) {
+                final Matcher matcher = STRING_LOCALISER.matcher(s);
+                if (matcher.matches()) {
+                    return this.getText(matcher.group(1));
+                }
+            }
 
-        while (mat.find()) {
-            map.add(Integer.parseInt(mat.group(1)));
+            return Component.text(s);
         }
 
-        final String[] s = string.split("\\{(\\d+)}");
+        return Component.text(x.toString());
+    }
+
+    @Override
+    public String getString(final String key) {
+        return this.cachedStringMessages.computeIfAbsent(key, this::getStringEntry);
+    }
 
+    @Override
+    public String getString(final String key, final Object[] args) {
+        return MessageFormat.format(this.getString(key), args);
+    }
+
+    final Template templateCreator(final String string) {
+        final Matcher matcher = ARGUMENT.matcher(string);
         final List<TextElement> objects = new ArrayList<>();
-        final Component t = this.textStyleService.oldLegacy(s[0]);
+
+        boolean found = matcher.find();
+        final Component t = this.textStyleService.oldLegacy(found ? string.substring(0, matcher.start()) : string);
         ITextStyleService.TextFormat tuple = this.textStyleService.getLastColourAndStyle(t, null);
         objects.add(input -> t);
-        int count = 1;
-        for (final Integer x : map) {
-            objects.add(new ArgumentElement(tuple, String.valueOf(x)));
-            if (s.length > count) {
-                final Component r = tuple.apply(this.textStyleService.oldLegacy(s[count])).build();
-                tuple = this.textStyleService.getLastColourAndStyle(t, null);
+        while (found) {
+            objects.add(new ArgumentElement(tuple, Integer.parseInt(matcher.group(1))));
+            final int start = matcher.end();
+            found = matcher.find();
+            final String segment = string.substring(start, found ? matcher.start() : string.length());
+            if (!segment.isEmpty()) {
+                final Component r = tuple.apply(this.textStyleService.oldLegacy(segment)).build();
+                tuple = this.textStyleService.getLastColourAndStyle(r, tuple);
                 objects.add(element -> r);
             }
-
-            count++;
         }
 
         return new Template(objects);
@@ -25,6 +25,13 @@ public class PropertiesMessageRepository extends AbstractMessageRepository imple
         return this.resource.keySet();
     }
 
+    /**
+     * Compiles the templates for every message in this bundle.
+     */
+    public void warmCache() {
+        this.warmCache(this.getKeys());
+    }
+
     @Override
     public boolean hasEntry(final String key) {
         return this.resource.containsKey(key);
@@ -7,25 +7,27 @@ package io.github.nucleuspowered.nucleus.core.services.impl.messageprovider.temp
 import io.github.nucleuspowered.nucleus.core.services.interfaces.ITextStyleService;
 import net.kyori.adventure.text.Component;
 
-import java.util.Map;
+import java.util.List;
 
 public final class ArgumentElement implements TextElement {
 
     final ITextStyleService.TextFormat format;
-    final String key;
+    final int index;
 
-    public ArgumentElement(final ITextStyleService.TextFormat format, final String key) {
+    public ArgumentElement(final ITextStyleService.TextFormat format, final int index) {
         this.format = format;
-        this.key = key;
+        this.index = index;
     }
 
     @Override
-    public Component retrieve(final Map<String, Component> args) {
-        final Component component = args.get(this.key);
-        if (component == null) {
-            return Component.empty();
+    public Component retrieve(final List<? extends Component> args) {
+        if (this.index < args.size()) {
+            final Component component = args.get(this.index);
+            if (component != null) {
+                return component;
+            }
         }
 
-        return component;
+        return Component.empty();
     }
 }
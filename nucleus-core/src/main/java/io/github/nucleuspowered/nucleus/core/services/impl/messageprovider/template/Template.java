@@ -8,28 +8,45 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
 import net.kyori.adventure.text.TextComponent;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 public final class Template implements ComponentLike {
 
-    private final List<TextElement> elements;
+    private final TextElement[] elements;
+
+    // Components are immutable, so a template without arguments only needs building once.
+    @Nullable private final Component constant;
 
     public Template(final List<TextElement> elements) {
-        this.elements = elements;
+        this.elements = elements.toArray(new TextElement[0]);
+        boolean hasArguments = false;
+        for (final TextElement element : this.elements) {
+            if (element instanceof ArgumentElement) {
+                hasArguments = true;
+                break;
+            }
+        }
+        this.constant = hasArguments ? null : this.build(Collections.emptyList());
     }
 
     public Component create() {
-        return this.create(Collections.emptyMap());
+        return this.create(Collections.emptyList());
+    }
+
+    public Component create(final List<? extends Component> arguments) {
+        if (this.constant != null) {
+            return this.constant;
+        }
+        return this.build(arguments);
     }
 
-    public Component create(final Map<String, Component> replacements) {
+    private Component build(final List<? extends Component> arguments) {
         final TextComponent.Builder builder = Component.text();
         for (final TextElement element : this.elements) {
-            builder.append(element.retrieve(replacements));
+            builder.append(element.retrieve(arguments));
         }
         return builder.build();
     }
@@ -4,6 +4,8 @@
  */
 package io.github.nucleuspowered.nucleus.core.services.impl.permission;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.github.nucleuspowered.nucleus.api.util.NoExceptionAutoClosable;
@@ -49,6 +51,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 @Singleton
@@ -62,9 +65,16 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
     private final Set<String> failedChecks = new HashSet<>();
     private final Map<String, IPermissionService.Metadata> metadataMap = new HashMap<>();
     private final Map<String, IPermissionService.Metadata> prefixMetadataMap = new HashMap<>();
+    private final Map<String, Optional<IPermissionService.Metadata>> resolvedMetadata = new ConcurrentHashMap<>();
+    @Nullable private volatile PermissionTrie permissionTrie;
 
     private final Map<UUID, Map<String, Context>> standardContexts = new ConcurrentHashMap<>();
 
+    // Results of permission and option lookups, per online player, then per set of active contexts.
+    private final Cache<UUID, SubjectCaches> subjectCaches = Caffeine.newBuilder()
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
     @Inject
     public NucleusPermissionService(
             final INucleusServiceCollection serviceCollection,
@@ -106,7 +116,11 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
 
     @Override
     public boolean hasPermission(final Subject permissionSubject, final String permission) {
-        return this.hasPermission(permissionSubject, permission, this.useRole);
+        final SubjectCache cache = this.getCache(permissionSubject);
+        if (cache == null) {
+            return this.hasPermission(permissionSubject, permission, this.useRole);
+        }
+        return cache.permissions.computeIfAbsent(permission, x -> this.hasPermission(permissionSubject, x, this.useRole));
     }
 
     @Override
@@ -131,6 +145,7 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
         final CoreConfig coreConfig = serviceCollection.configProvider().getModuleConfig(CoreConfig.class);
         this.useRole = coreConfig.isUseParentPerms();
         this.consoleOverride = coreConfig.isConsoleOverride();
+        this.subjectCaches.invalidateAll();
     }
 
     @Override public void registerDescriptions() {
@@ -138,6 +153,7 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
             throw new IllegalStateException("Init has already started");
         }
         this.init = true;
+        this.getPermissionTrie();
         final PermissionService ps = Sponge.server().serviceProvider().permissionService();
         for (final Map.Entry<String, IPermissionService.Metadata> entry : this.metadataMap.entrySet()) {
             final SuggestedLevel level = entry.getValue().getSuggestedLevel();
@@ -157,6 +173,22 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
         } else {
             this.metadataMap.put(permission.toLowerCase(), m);
         }
+
+        this.permissionTrie = null;
+        this.resolvedMetadata.clear();
+    }
+
+    private PermissionTrie getPermissionTrie() {
+        PermissionTrie trie = this.permissionTrie;
+        if (trie == null) {
+            trie = new PermissionTrie(this.metadataMap, this.prefixMetadataMap);
+            this.permissionTrie = trie;
+        }
+        return trie;
+    }
+
+    private IPermissionService.@Nullable Metadata resolveMetadata(final String permission) {
+        return this.resolvedMetadata.computeIfAbsent(permission, x -> Optional.ofNullable(this.getPermissionTrie().resolve(x))).orElse(null);
     }
 
     @Override public OptionalDouble getDoubleOptionFromSubject(final Subject player, final String... options) {
@@ -205,25 +237,85 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
     }
 
     @Override public Optional<String> getOptionFromSubject(final Subject player, final String... options) {
+        final SubjectCache cache = this.getCache(player);
         for (final String option : options) {
             final String o = option.toLowerCase();
-
-            // Option for context.
-            Optional<String> os = player.option(o, player.contextCause());
-            if (os.isPresent()) {
-                return os.map(r -> r.isEmpty() ? null : r);
+            final Optional<String> result;
+            if (cache == null) {
+                result = this.getOptionFromSubject(player, o);
+            } else {
+                result = cache.options.computeIfAbsent(o, x -> this.getOptionFromSubject(player, x));
             }
 
-            // General option
-            os = player.option(o);
-            if (os.isPresent()) {
-                return os.map(r -> r.isEmpty() ? null : r);
+            if (result.isPresent()) {
+                return result;
             }
         }
 
         return Optional.empty();
     }
 
+    private Optional<String> getOptionFromSubject(final Subject player, final String o) {
+        // Option for context.
+        Optional<String> os = player.option(o, player.contextCause());
+        if (os.isPresent()) {
+            return os.map(r -> r.isEmpty() ? null : r);
+        }
+
+        // General option
+        os = player.option(o);
+        if (os.isPresent()) {
+            return os.map(r -> r.isEmpty() ? null : r);
+        }
+
+        return Optional.empty();
+    }
+
+    @Override public void invalidateCache(final Subject subject) {
+        if (PermissionService.SUBJECTS_USER.equals(subject.containingCollection().identifier())) {
+            try {
+                this.subjectCaches.invalidate(UUID.fromString(subject.identifier()));
+                return;
+            } catch (final IllegalArgumentException e) {
+                // not a player, fall through
+            }
+        }
+
+        // Groups and defaults can be inherited by anyone.
+        this.subjectCaches.invalidateAll();
+    }
+
+    @Override public void invalidateCache(final UUID uuid) {
+        this.subjectCaches.invalidate(uuid);
+    }
+
+    @Override public void invalidateContexts(final UUID uuid) {
+        final SubjectCaches caches = this.subjectCaches.getIfPresent(uuid);
+        if (caches != null) {
+            caches.activeContexts = null;
+        }
+    }
+
+    @Nullable
+    private SubjectCache getCache(final Subject subject) {
+        // Only online players are cached, other subjects are rarely checked more than once.
+        if (!(subject instanceof ServerPlayer)) {
+            return null;
+        }
+
+        final SubjectCaches caches = this.subjectCaches.get(((ServerPlayer) subject).uniqueId(), x -> new SubjectCaches());
+        final long tick = Sponge.server().runningTimeTicks().ticks();
+        ActiveContexts contexts = caches.activeContexts;
+        if (contexts == null || contexts.tick != tick) {
+            // Context calculators from other plugins may give a different answer at any time,
+            // so the contexts are only kept for the rest of the tick.
+            contexts = new ActiveContexts(tick, Collections.unmodifiableSet(
+                    new HashSet<>(Sponge.server().serviceProvider().contextService().contextsFor(subject.contextCause()))));
+            caches.activeContexts = contexts;
+        }
+        return caches.byContexts.get(contexts.contexts, x -> new SubjectCache());
+    }
+
     @Override public PermissionMessageChannel permissionMessageChannel(final String permission) {
         return new PermissionMessageChannel(this, permission);
     }
@@ -245,7 +337,8 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
         if (checkRole && permission.startsWith("nucleus.")) {
             final Tristate tristate = subject.permissionValue(permission, subject.contextCause());
             if (tristate == Tristate.UNDEFINED) {
-                final IPermissionService.@Nullable Metadata result = this.metadataMap.get(permission);
+                // exact match, or the closest registered prefix
+                final IPermissionService.@Nullable Metadata result = this.resolveMetadata(permission);
                 if (result != null) { // check the "parent" perm
                     final String perm = result.getSuggestedLevel().getPermission();
                     if (perm == null) {
@@ -255,17 +348,6 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
                     }
                 }
 
-                for (final Map.Entry<String, IPermissionService.Metadata> entry : this.prefixMetadataMap.entrySet()) {
-                    if (permission.startsWith(entry.getKey())) {
-                        final String perm = entry.getValue().getSuggestedLevel().getPermission();
-                        if (perm == null) {
-                            return subject.permissionValue(permission, subject.contextCause());
-                        } else {
-                            return subject.permissionValue(perm, subject.contextCause());
-                        }
-                    }
-                }
-
                 // if we get here, no registered permissions were found
                 // therefore, warn
                 if (this.failedChecks.add(permission)) {
@@ -322,6 +404,7 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
 
     private void setContext(final UUID uuid, final Context context) {
         this.standardContexts.computeIfAbsent(uuid, k -> new HashMap<>()).put(context.getKey().toLowerCase(), context);
+        this.invalidateContexts(uuid);
     }
 
     @Override
@@ -329,6 +412,7 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
         if (subject instanceof Identifiable) {
             final UUID uuid = ((Identifiable) subject).uniqueId();
             final Context old = this.standardContexts.computeIfAbsent(uuid, k -> new HashMap<>()).put(context.getKey().toLowerCase(), context);
+            this.invalidateContexts(uuid);
             return () -> {
                 this.removeContext(uuid, context.getKey().toLowerCase());
                 if (old != null) {
@@ -344,12 +428,14 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
         final Map<String, Context> contexts = this.standardContexts.get(subject);
         if (contexts != null && !contexts.isEmpty()) {
             contexts.remove(key.toLowerCase());
+            this.invalidateContexts(subject);
         }
     }
 
     @Override
     public void removePlayerContexts(final UUID uuid) {
         this.standardContexts.remove(uuid);
+        this.subjectCaches.invalidate(uuid);
     }
 
     @Override
@@ -385,6 +471,32 @@ public class NucleusPermissionService implements IPermissionService, IReloadable
         }
     }
 
+    private static final class SubjectCaches {
+
+        private final Cache<Set<Context>, SubjectCache> byContexts = Caffeine.newBuilder().maximumSize(8).build();
+        @Nullable private volatile ActiveContexts activeContexts;
+
+    }
+
+    private static final class ActiveContexts {
+
+        private final long tick;
+        private final Set<Context> contexts;
+
+        private ActiveContexts(final long tick, final Set<Context> contexts) {
+            this.tick = tick;
+            this.contexts = contexts;
+        }
+
+    }
+
+    private static final class SubjectCache {
+
+        private final Map<String, Boolean> permissions = new ConcurrentHashMap<>();
+        private final Map<String, Optional<String>> options = new ConcurrentHashMap<>();
+
+    }
+
     public static class Metadata implements IPermissionService.Metadata {
 
         private final String description;
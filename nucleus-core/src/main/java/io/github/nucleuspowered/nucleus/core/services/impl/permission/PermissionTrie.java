@@ -0,0 +1,73 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.permission;
+
+import io.github.nucleuspowered.nucleus.core.services.interfaces.IPermissionService;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves a permission to the {@link IPermissionService.Metadata} it was registered
+ * under, walking the permission one dot separated segment at a time.
+ *
+ * <p>An exact registration takes precedence. Otherwise, the longest registered prefix
+ * of the permission is used.</p>
+ */
+final class PermissionTrie {
+
+    private final Node root = new Node();
+
+    PermissionTrie(final Map<String, IPermissionService.Metadata> exact, final Map<String, IPermissionService.Metadata> prefixes) {
+        for (final Map.Entry<String, IPermissionService.Metadata> entry : exact.entrySet()) {
+            this.nodeFor(entry.getKey()).exact = entry.getValue();
+        }
+        for (final Map.Entry<String, IPermissionService.Metadata> entry : prefixes.entrySet()) {
+            this.nodeFor(entry.getKey()).prefix = entry.getValue();
+        }
+    }
+
+    IPermissionService.@Nullable Metadata resolve(final String permission) {
+        Node node = this.root;
+        IPermissionService.@Nullable Metadata longestPrefix = null;
+        int start = 0;
+        while (node != null) {
+            final int end = permission.indexOf('.', start);
+            node = node.children.get(end == -1 ? permission.substring(start) : permission.substring(start, end));
+            if (node == null) {
+                break;
+            }
+
+            if (end == -1) {
+                return node.exact != null ? node.exact : (node.prefix != null ? node.prefix : longestPrefix);
+            }
+
+            if (node.prefix != null) {
+                longestPrefix = node.prefix;
+            }
+            start = end + 1;
+        }
+
+        return longestPrefix;
+    }
+
+    private Node nodeFor(final String permission) {
+        Node node = this.root;
+        for (final String segment : permission.split("\\.")) {
+            node = node.children.computeIfAbsent(segment, x -> new Node());
+        }
+        return node;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private IPermissionService.@Nullable Metadata exact;
+        private IPermissionService.@Nullable Metadata prefix;
+
+    }
+
+}
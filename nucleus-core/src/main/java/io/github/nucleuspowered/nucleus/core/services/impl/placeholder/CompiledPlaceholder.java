@@ -0,0 +1,103 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.placeholder;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.placeholder.PlaceholderContext;
+import org.spongepowered.api.placeholder.PlaceholderParser;
+import org.spongepowered.api.service.permission.Subject;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A placeholder token that has been parsed ahead of time into the parser to use, the
+ * argument to give it and the modifiers to apply to its result.
+ *
+ * <p>The parser is looked up the first time it is needed, and again if more tokens have
+ * been registered since, as templates may well be compiled before every module has
+ * registered its tokens.</p>
+ */
+public final class CompiledPlaceholder {
+
+    private final PlaceholderService placeholderService;
+    private final String token;
+    private final boolean isOption;
+    @Nullable private final String argument;
+    private final List<Function<Component, Component>> modifiers;
+
+    @Nullable private volatile Binding binding;
+
+    CompiledPlaceholder(
+            final PlaceholderService placeholderService,
+            final String token,
+            final boolean isOption,
+            @Nullable final String argument,
+            final List<Function<Component, Component>> modifiers) {
+        this.placeholderService = placeholderService;
+        this.token = token;
+        this.isOption = isOption;
+        this.argument = argument;
+        this.modifiers = modifiers;
+    }
+
+    /**
+     * Creates the placeholder component for the given source.
+     *
+     * @param source The object the placeholder is for
+     * @return The component
+     */
+    public ComponentLike toComponent(@Nullable final Object source) {
+        if (this.isOption) {
+            if (source instanceof Subject) {
+                return new NucleusPlaceholderText(
+                        PlaceholderContext.builder().argumentString(this.argument).associatedObject(source).build(),
+                        this.placeholderService.optionParser(),
+                        this.modifiers);
+            }
+            return Component.empty();
+        }
+
+        final PlaceholderContext context = PlaceholderContext.builder()
+                .associatedObject(source)
+                .argumentString(this.argument)
+                .build();
+        return new NucleusPlaceholderText(context, this.parser(), this.modifiers);
+    }
+
+    /**
+     * Gets whether this placeholder gives the same result whatever it is rendered for.
+     *
+     * @return Whether this is global
+     */
+    public boolean isGlobal() {
+        return !this.isOption && this.placeholderService.isGlobal(this.parser());
+    }
+
+    private PlaceholderParser parser() {
+        Binding current = this.binding;
+        final int generation = this.placeholderService.generation();
+        if (current == null || current.generation != generation) {
+            current = new Binding(generation, this.placeholderService.getParser(this.token).orElse(null));
+            this.binding = current;
+        }
+
+        return current.parser == null ? this.placeholderService.emptyParser() : current.parser;
+    }
+
+    private static final class Binding {
+
+        private final int generation;
+        @Nullable private final PlaceholderParser parser;
+
+        private Binding(final int generation, @Nullable final PlaceholderParser parser) {
+            this.generation = generation;
+            this.parser = parser;
+        }
+    }
+
+}
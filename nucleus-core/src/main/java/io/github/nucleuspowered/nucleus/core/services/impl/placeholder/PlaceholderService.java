@@ -4,6 +4,8 @@
  */
 package io.github.nucleuspowered.nucleus.core.services.impl.placeholder;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.github.nucleuspowered.nucleus.core.Util;
@@ -40,6 +42,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -54,6 +58,11 @@ public class PlaceholderService implements IPlaceholderService, IInitService {
     private final PlaceholderParser emptyParser;
     private final Map<String, PlaceholderMetadata> parsers = new HashMap<>();
 
+    // Compiled tokens only hold on to the parser for as long as no new tokens are registered.
+    private final AtomicInteger generation = new AtomicInteger();
+    private final Set<PlaceholderParser> globalParsers = ConcurrentHashMap.newKeySet();
+    private final Cache<String, CompiledPlaceholder> compiled = Caffeine.newBuilder().maximumSize(1000).build();
+
     static {
         SEPARATOR = buildModifiers();
     }
@@ -72,6 +81,7 @@ public class PlaceholderService implements IPlaceholderService, IInitService {
         this.optionParser = new OptionPlaceholder(serviceCollection.permissionService());
         this.emptyParser =
                 PlaceholderParser.builder().parser(p -> Component.empty()).build();
+        this.globalParsers.add(this.emptyParser);
     }
 
     @Override
@@ -108,10 +118,10 @@ public class PlaceholderService implements IPlaceholderService, IInitService {
         this.registerToken("prefix", new NamedOptionPlaceholder(permissionService, "prefix"));
         this.registerToken("suffix", new NamedOptionPlaceholder(permissionService, "suffix"));
 
-        this.registerToken("maxplayers", PlaceholderParser.builder()
+        this.registerGlobalToken("maxplayers", PlaceholderParser.builder()
                 .parser(p -> Component.text(Sponge.server().maxPlayers()))
                 .build());
-        this.registerToken("onlineplayers", PlaceholderParser.builder()
+        this.registerGlobalToken("onlineplayers", PlaceholderParser.builder()
                         .parser(p -> Component.text(Sponge.server().onlinePlayers().size()))
                         .build());
         this.registerToken("currentworld", PlaceholderParser.builder()
@@ -125,7 +135,7 @@ public class PlaceholderService implements IPlaceholderService, IInitService {
                                                 PlaceholderService.getWorld(placeholder).dayTime())))
                         .build());
 
-        this.registerToken("uniquevisitor",
+        this.registerGlobalToken("uniquevisitor",
                 PlaceholderParser.builder()
                         .parser(placeholder -> Component.text(serviceCollection.getServiceUnchecked(UniqueUserService.class).getUniqueUserCount()))
                         .build());
@@ -144,45 +154,51 @@ public class PlaceholderService implements IPlaceholderService, IInitService {
 
     @Override
     public ComponentLike parse(@Nullable final Object commandSource, final String input) {
+        return this.compile(input).toComponent(commandSource);
+    }
+
+    @Override
+    public CompiledPlaceholder compile(final String input) {
+        return this.compiled.get(input, this::compileToken);
+    }
+
+    private CompiledPlaceholder compileToken(final String input) {
         String token = input.toLowerCase().trim().replace("{{", "").replace("}}", "");
         final Matcher m = SUFFIX_PATTERN.matcher(token);
         final List<Function<Component, Component>> modifiersCollection;
         if (m.find(0)) {
             final String match = m.group(1).toLowerCase();
-            modifiersCollection = new ArrayList<>();
+            final List<Function<Component, Component>> modifiers = new ArrayList<>();
             for (final TextModifiers modifier : TextModifiers.values()) {
                 if (match.contains(modifier.getKey())) {
-                    modifiersCollection.add(modifier);
+                    modifiers.add(modifier);
                 }
             }
 
-            token = token.replaceAll(SUFFIX_PATTERN.pattern(), "");
+            modifiersCollection = Collections.unmodifiableList(modifiers);
+            token = token.substring(0, m.start());
         } else {
             modifiersCollection = Collections.emptyList();
         }
 
-        final PlaceholderParser parser;
-        final PlaceholderContext context;
         if (token.startsWith("o:")) {
-            if (commandSource instanceof Subject) {
-                // option
-                parser = this.optionParser;
-                context = this.contextForSubjectAndOption((Subject) commandSource, token.substring(2));
-            } else {
-                return Component.empty();
-            }
-        } else {
-            final String[] s = token.split("\\|", 2);
-            final String tokenIn = s[0].toLowerCase();
-            final String arg = s.length == 2 ? s[1] : null;
-            context = PlaceholderContext.builder()
-                    .associatedObject(commandSource)
-                    .argumentString(arg)
-                    .build();
-            parser = this.getParser(tokenIn).orElse(this.emptyParser);
+            return new CompiledPlaceholder(this, token, true, token.substring(2), modifiersCollection);
         }
 
-        return new NucleusPlaceholderText(context, parser, modifiersCollection);
+        final String[] s = token.split("\\|", 2);
+        return new CompiledPlaceholder(this, s[0], false, s.length == 2 ? s[1] : null, modifiersCollection);
+    }
+
+    int generation() {
+        return this.generation.get();
+    }
+
+    PlaceholderParser emptyParser() {
+        return this.emptyParser;
+    }
+
+    boolean isGlobal(final PlaceholderParser parser) {
+        return this.globalParsers.contains(parser);
     }
 
     @Override
@@ -195,6 +211,12 @@ public class PlaceholderService implements IPlaceholderService, IInitService {
         this.registerToken(tokenName, parser, document, false);
     }
 
+    @Override
+    public void registerGlobalToken(final String tokenName, final PlaceholderParser parser) {
+        this.registerToken(tokenName, parser);
+        this.globalParsers.add(parser);
+    }
+
     private void registerToken(final String tokenName, final PlaceholderParser parser, final boolean document, final boolean isDuplicate) {
         if (SEPARATOR.asPredicate().test(tokenName)) {
             // can't be registered.
@@ -203,6 +225,7 @@ public class PlaceholderService implements IPlaceholderService, IInitService {
         final String token = tokenName.toLowerCase();
         if (!this.parsers.containsKey(token)) {
             this.parsers.put(token, new PlaceholderMetadata(token, parser, document, isDuplicate));
+            this.generation.incrementAndGet();
         } else {
             throw new IllegalStateException("Token " + tokenName.toLowerCase() + " has already been registered.");
         }
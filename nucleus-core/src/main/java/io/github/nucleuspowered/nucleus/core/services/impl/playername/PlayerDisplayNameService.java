@@ -4,6 +4,8 @@
  */
 package io.github.nucleuspowered.nucleus.core.services.impl.playername;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.github.nucleuspowered.nucleus.core.Constants;
@@ -22,21 +24,22 @@ import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextColor;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.Server;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.SystemSubject;
 import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
+import org.spongepowered.api.service.permission.PermissionService;
 import org.spongepowered.api.service.permission.Subject;
 import org.spongepowered.api.util.Nameable;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Singleton
@@ -44,11 +47,19 @@ public class PlayerDisplayNameService implements IPlayerDisplayNameService, IRel
 
     private final LinkedHashSet<DisplayNameResolver> resolvers = new LinkedHashSet<>();
     private final LinkedHashSet<DisplayNameQuery> queries = new LinkedHashSet<>();
+    private final PlayerNameIndex nameIndex = new PlayerNameIndex();
 
     private final IMessageProviderService messageProviderService;
     private final IPermissionService permissionService;
     private final ITextStyleService textStyleService;
 
+    // Display names are built from resolvers, permission options and config, so this is cleared
+    // whenever any of those change. Entries also expire shortly after they are built, in case
+    // a change is made without telling us.
+    private final Cache<UUID, Component> displayNameCache = Caffeine.newBuilder()
+            .expireAfterWrite(30, TimeUnit.SECONDS)
+            .build();
+
     private String commandNameOnClick = null;
 
     private Function<Subject, String> colourFromTemplateSupplier = subject -> "";
@@ -64,16 +75,19 @@ public class PlayerDisplayNameService implements IPlayerDisplayNameService, IRel
     @Override
     public void supplyColourFromTemplateSupplier(final Function<Subject, String> colourFromTemplateSupplier) {
         this.colourFromTemplateSupplier = colourFromTemplateSupplier;
+        this.invalidateCache();
     }
 
     @Override
     public void supplyStyleFromTemplateSupplier(final Function<Subject, String> styleFromTemplateSupplier) {
         this.styleFromTemplateSupplier = styleFromTemplateSupplier;
+        this.invalidateCache();
     }
 
     @Override
     public void provideDisplayNameResolver(final DisplayNameResolver resolver) {
         this.resolvers.add(resolver);
+        this.invalidateCache();
     }
 
     @Override
@@ -83,11 +97,22 @@ public class PlayerDisplayNameService implements IPlayerDisplayNameService, IRel
 
     @Override
     public Optional<User> getUser(final String displayName) {
+        // Real names always take priority over nicknames.
+        final Optional<User> indexedRealName = this.loadIndexed(this.nameIndex.getByRealName(displayName));
+        if (indexedRealName.isPresent()) {
+            return indexedRealName;
+        }
+
         final Optional<User> withRealName = Sponge.server().userManager().load(displayName).join();
         if (withRealName.isPresent()) {
             return withRealName;
         }
 
+        final Optional<User> indexedNickname = this.loadIndexed(this.nameIndex.getByNickname(displayName));
+        if (indexedNickname.isPresent()) {
+            return indexedNickname;
+        }
+
         for (final DisplayNameQuery query : this.queries) {
             final Optional<User> user = query.resolve(displayName);
             if (user.isPresent()) {
@@ -98,24 +123,36 @@ public class PlayerDisplayNameService implements IPlayerDisplayNameService, IRel
         return Optional.empty();
     }
 
+    private Optional<User> loadIndexed(@Nullable final UUID uuid) {
+        if (uuid == null) {
+            return Optional.empty();
+        }
+
+        final Optional<ServerPlayer> player = Sponge.server().player(uuid);
+        if (player.isPresent()) {
+            return Optional.of(player.get().user());
+        }
+        return Sponge.server().userManager().load(uuid).join();
+    }
+
     @Override
     public Map<UUID, List<String>> startsWith(final String displayName) {
-        final Map<UUID, List<String>> uuids = new HashMap<>();
-        Sponge.server().onlinePlayers().stream()
-            .filter(x -> x.name().toLowerCase().startsWith(displayName.toLowerCase()))
-            .forEach(x -> {
-                final List<String> names = new ArrayList<>();
-                names.add(x.name());
-                uuids.put(x.uniqueId(), names);
-            });
+        return this.nameIndex.startsWith(displayName);
+    }
 
-        for (final DisplayNameQuery query : this.queries) {
-            query.startsWith(displayName).forEach(
-                    (uuid, name) -> uuids.computeIfAbsent(uuid, x -> new ArrayList<>()).add(name)
-            );
-        }
+    @Override
+    public void indexOnlinePlayer(final UUID uuid, final String name) {
+        this.nameIndex.online(uuid, name);
+    }
 
-        return uuids;
+    @Override
+    public void markOffline(final UUID uuid) {
+        this.nameIndex.offline(uuid);
+    }
+
+    @Override
+    public void indexNickname(final UUID uuid, @Nullable final String nickname) {
+        this.nameIndex.setNickname(uuid, nickname);
     }
 
     @Override
@@ -125,15 +162,55 @@ public class PlayerDisplayNameService implements IPlayerDisplayNameService, IRel
 
     @Override
     public Component getDisplayName(final UUID playerUUID) {
-        final TextComponent.Builder builder;
         if (playerUUID.equals(Util.CONSOLE_FAKE_UUID)) {
             return this.getName(Sponge.systemSubject());
         }
-       final User user = Sponge.server()
-                .userManager()
-                .load(playerUUID)
-               .join()
-                .orElseThrow(() -> new IllegalArgumentException("UUID does not map to a player"));
+        return this.displayNameCache.get(playerUUID, this::createDisplayName);
+    }
+
+    @Override
+    public void invalidateCache(final UUID uuid) {
+        this.displayNameCache.invalidate(uuid);
+    }
+
+    @Override
+    public void invalidateCache(final Subject subject) {
+        if (PermissionService.SUBJECTS_USER.equals(subject.containingCollection().identifier())) {
+            try {
+                this.invalidateCache(UUID.fromString(subject.identifier()));
+                return;
+            } catch (final IllegalArgumentException e) {
+                // not a player, fall through
+            }
+        }
+
+        // Groups and defaults can be inherited by anyone.
+        this.invalidateCache();
+    }
+
+    @Override
+    public void invalidateCache() {
+        this.displayNameCache.invalidateAll();
+    }
+
+    private Component createDisplayName(final UUID playerUUID) {
+        // Online players are used directly so that we never wait on the user manager for them.
+        final Subject subject;
+        final String name;
+        final ServerPlayer player = Sponge.server().player(playerUUID).orElse(null);
+        if (player == null) {
+            final User user = Sponge.server()
+                    .userManager()
+                    .load(playerUUID)
+                    .join()
+                    .orElseThrow(() -> new IllegalArgumentException("UUID does not map to a player"));
+            subject = user;
+            name = user.name();
+        } else {
+            subject = player;
+            name = player.name();
+        }
+
         Component userName = null;
         for (final DisplayNameResolver resolver : this.resolvers) {
             final Optional<Component> optionalUserName = resolver.resolve(playerUUID);
@@ -143,15 +220,16 @@ public class PlayerDisplayNameService implements IPlayerDisplayNameService, IRel
             }
         }
 
+        final TextComponent.Builder builder;
         if (userName == null) {
-            builder = Component.text().content(user.name());
+            builder = Component.text().content(name);
         } else {
             builder = Component.text().append(userName);
         }
 
         // Set name colours
-        this.addCommandToNameInternal(builder, user.name());
-        this.applyStyle(user, builder);
+        this.addCommandToNameInternal(builder, name);
+        this.applyStyle(subject, builder);
         return builder.build();
     }
 
@@ -220,6 +298,10 @@ public class PlayerDisplayNameService implements IPlayerDisplayNameService, IRel
         if (uuid == Util.CONSOLE_FAKE_UUID) {
             return Component.text("Server");
         }
+        final Optional<ServerPlayer> player = Sponge.server().player(uuid);
+        if (player.isPresent()) {
+            return Component.text(player.get().name());
+        }
         return Component.text(Sponge.server().userManager().load(uuid)
                         .join()
                         .map(User::name).orElse("unknown"));
@@ -278,6 +360,7 @@ public class PlayerDisplayNameService implements IPlayerDisplayNameService, IRel
 
     @Override
     public void onReload(final INucleusServiceCollection serviceCollection) {
+        this.invalidateCache();
         this.commandNameOnClick = serviceCollection.configProvider().getModuleConfig(CoreConfig.class).getCommandOnNameClick();
         if (this.commandNameOnClick == null || this.commandNameOnClick.isEmpty()) {
             return;
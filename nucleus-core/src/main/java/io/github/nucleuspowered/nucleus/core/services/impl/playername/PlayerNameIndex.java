@@ -0,0 +1,170 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.playername;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Indexes the real names and nicknames of online and recently seen players by their
+ * lower case form.
+ *
+ * <p>Names are kept in sorted maps, so all names with a given prefix sit next to each
+ * other and a prefix lookup is a single range view. Lookups do not lock, updates are
+ * serialised. Once a player leaves, their names are kept until more than
+ * {@link #MAX_RECENTLY_SEEN} other players have left after them.</p>
+ */
+final class PlayerNameIndex {
+
+    private static final int MAX_RECENTLY_SEEN = 1000;
+
+    private final ConcurrentNavigableMap<String, Map<UUID, String>> realNames = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<String, Map<UUID, String>> nicknames = new ConcurrentSkipListMap<>();
+
+    // Guarded by this.
+    private final Map<UUID, String> realNameOf = new HashMap<>();
+    private final Map<UUID, String> nicknameOf = new HashMap<>();
+    private final Set<UUID> online = new HashSet<>();
+    private final LinkedHashSet<UUID> recentlySeen = new LinkedHashSet<>();
+
+    private static String normalise(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static void put(final Map<String, Map<UUID, String>> index, final Map<UUID, String> namesOf, final UUID uuid,
+            final String name) {
+        final String previous = namesOf.put(uuid, name);
+        if (previous != null) {
+            PlayerNameIndex.removeName(index, previous, uuid);
+        }
+        index.computeIfAbsent(PlayerNameIndex.normalise(name), x -> new ConcurrentHashMap<>()).put(uuid, name);
+    }
+
+    private static void remove(final Map<String, Map<UUID, String>> index, final Map<UUID, String> namesOf, final UUID uuid) {
+        final String previous = namesOf.remove(uuid);
+        if (previous != null) {
+            PlayerNameIndex.removeName(index, previous, uuid);
+        }
+    }
+
+    private static void removeName(final Map<String, Map<UUID, String>> index, final String name, final UUID uuid) {
+        index.computeIfPresent(PlayerNameIndex.normalise(name), (k, v) -> {
+            v.remove(uuid);
+            return v.isEmpty() ? null : v;
+        });
+    }
+
+    private static void addWithPrefix(final ConcurrentNavigableMap<String, Map<UUID, String>> index, final String prefix,
+            final Map<UUID, List<String>> into) {
+        final Map<String, Map<UUID, String>> view;
+        if (prefix.isEmpty()) {
+            view = index;
+        } else {
+            final String from = PlayerNameIndex.normalise(prefix);
+            view = index.subMap(from, true, from + Character.MAX_VALUE, false);
+        }
+
+        for (final Map<UUID, String> names : view.values()) {
+            names.forEach((uuid, name) -> into.computeIfAbsent(uuid, x -> new ArrayList<>()).add(name));
+        }
+    }
+
+    synchronized void online(final UUID uuid, final String name) {
+        this.recentlySeen.remove(uuid);
+        this.online.add(uuid);
+        PlayerNameIndex.put(this.realNames, this.realNameOf, uuid, name);
+    }
+
+    synchronized void offline(final UUID uuid) {
+        if (this.online.remove(uuid)) {
+            this.seen(uuid);
+        }
+    }
+
+    synchronized void setNickname(final UUID uuid, @Nullable final String nickname) {
+        if (nickname == null) {
+            PlayerNameIndex.remove(this.nicknames, this.nicknameOf, uuid);
+        } else {
+            PlayerNameIndex.put(this.nicknames, this.nicknameOf, uuid, nickname);
+        }
+
+        if (!this.online.contains(uuid)) {
+            this.seen(uuid);
+        }
+    }
+
+    /**
+     * Gets the player with the given real name.
+     *
+     * @param name The name
+     * @return The {@link UUID} of the player, if they are in the index
+     */
+    @Nullable
+    UUID getByRealName(final String name) {
+        return PlayerNameIndex.first(this.realNames.get(PlayerNameIndex.normalise(name)));
+    }
+
+    /**
+     * Gets the player with the given nickname.
+     *
+     * @param name The nickname
+     * @return The {@link UUID} of the player, if they are in the index
+     */
+    @Nullable
+    UUID getByNickname(final String name) {
+        return PlayerNameIndex.first(this.nicknames.get(PlayerNameIndex.normalise(name)));
+    }
+
+    @Nullable
+    private static UUID first(@Nullable final Map<UUID, String> found) {
+        if (found != null) {
+            final Iterator<UUID> iterator = found.keySet().iterator();
+            if (iterator.hasNext()) {
+                return iterator.next();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the real names and nicknames that start with the given prefix.
+     *
+     * @param prefix The prefix
+     * @return The names that match, by player
+     */
+    Map<UUID, List<String>> startsWith(final String prefix) {
+        final Map<UUID, List<String>> result = new HashMap<>();
+        PlayerNameIndex.addWithPrefix(this.realNames, prefix, result);
+        PlayerNameIndex.addWithPrefix(this.nicknames, prefix, result);
+        return result;
+    }
+
+    private void seen(final UUID uuid) {
+        // Move to the back of the queue
+        this.recentlySeen.remove(uuid);
+        this.recentlySeen.add(uuid);
+        if (this.recentlySeen.size() > MAX_RECENTLY_SEEN) {
+            final Iterator<UUID> iterator = this.recentlySeen.iterator();
+            final UUID eldest = iterator.next();
+            iterator.remove();
+            PlayerNameIndex.remove(this.realNames, this.realNameOf, eldest);
+            PlayerNameIndex.remove(this.nicknames, this.nicknameOf, eldest);
+        }
+    }
+
+}
@@ -24,11 +24,13 @@ import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.I
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.UserDataObject;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.WorldDataObject;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.persistence.FlatFileStorageRepositoryFactory;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.persistence.SingleFileStorageRepositoryFactory;
 import io.github.nucleuspowered.storage.query.IUserQueryObject;
 import io.github.nucleuspowered.storage.query.IWorldQueryObject;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.services.SingleCachedService;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.services.UserService;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.services.WorldService;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.services.WriteBehindQueue;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IConfigProvider;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IConfigurateHelper;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IDataVersioning;
@@ -49,6 +51,8 @@ import org.spongepowered.plugin.PluginContainer;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -63,6 +67,7 @@ import java.util.function.Supplier;
 public final class StorageManager implements IStorageManager {
 
     private final FlatFileStorageRepositoryFactory flatFileStorageRepositoryFactory;
+    private final SingleFileStorageRepositoryFactory singleFileStorageRepositoryFactory;
     private final IConfigProvider configProvider;
     private final IStorageService.SingleCached<IGeneralDataObject> generalService;
     private final UserService userService;
@@ -82,6 +87,8 @@ public final class StorageManager implements IStorageManager {
             final Game game) {
         this.logger = logger;
         this.flatFileStorageRepositoryFactory = new FlatFileStorageRepositoryFactory(dataDirectory, logger);
+        this.singleFileStorageRepositoryFactory =
+                new SingleFileStorageRepositoryFactory(dataDirectory, logger, this.flatFileStorageRepositoryFactory);
         this.configProvider = configProvider;
         this.userService = new UserService(this, pluginContainer, dataVersioning);
         this.worldService = new WorldService(this, pluginContainer, dataVersioning);
@@ -99,6 +106,11 @@ public final class StorageManager implements IStorageManager {
         return this.flatFileStorageRepositoryFactory;
     }
 
+    @Override
+    public IStorageRepositoryFactory getSingleFileRepositoryFactory() {
+        return this.singleFileStorageRepositoryFactory;
+    }
+
     // ugh
     @Override
     @SuppressWarnings("unchecked")
@@ -162,17 +174,15 @@ public final class StorageManager implements IStorageManager {
     @Override
     public IStorageRepository.Keyed<UUID, IUserQueryObject, DataContainer> getUserRepository() {
         if (this.userRepository == null) {
-            // fallback to flat file
-            this.userRepository = this.flatFileStorageRepositoryFactory.userRepository();
+            this.userRepository = this.getOrDefault("user", this.getStorageConfig().getUserData(), IStorageRepositoryFactory::userRepository);
         }
         return this.userRepository;
     }
 
     @Override
     public IStorageRepository.Keyed<ResourceKey, IWorldQueryObject, DataContainer> getWorldRepository() {
-        if (this.worldRepository== null) {
-            // fallback to flat file
-            this.worldRepository = this.flatFileStorageRepositoryFactory.worldRepository();
+        if (this.worldRepository == null) {
+            this.worldRepository = this.getOrDefault("world", this.getStorageConfig().getWorldData(), IStorageRepositoryFactory::worldRepository);
         }
         return this.worldRepository;
     }
@@ -180,12 +190,21 @@ public final class StorageManager implements IStorageManager {
     @Override
     public IStorageRepository.Single<DataContainer> getGeneralRepository() {
         if (this.generalRepository == null) {
-            // fallback to flat file
-            this.generalRepository = this.flatFileStorageRepositoryFactory.generalRepository();
+            this.generalRepository = this.getOrDefault("general", this.getStorageConfig().getGeneralData(), IStorageRepositoryFactory::generalRepository);
         }
         return this.generalRepository;
     }
 
+    @Override
+    public long getWriteBehindWindow() {
+        return this.getStorageConfig().getWriteBehindWindow();
+    }
+
+    @Override
+    public Collection<WriteBehindQueue.Statistics> getWriteBehindStatistics() {
+        return Arrays.asList(this.userService.getWriteBehindStatistics(), this.worldService.getWriteBehindStatistics());
+    }
+
     @Override
     public CompletableFuture<Void> saveAndInvalidateAllCaches() {
         final List<CompletableFuture<Void>> futures = new ArrayList<>();
@@ -209,10 +228,19 @@ public final class StorageManager implements IStorageManager {
     @Override
     public void attachAll() {
         this.detachAll();
-        final StorageConfig storageConfig = this.configProvider.getCoreConfig().getStorageConfig();
+        final StorageConfig storageConfig = this.getStorageConfig();
         this.userRepository = this.getOrDefault("user", storageConfig.getUserData(), IStorageRepositoryFactory::userRepository);
-        this.worldRepository = this.getOrDefault("world", storageConfig.getUserData(), IStorageRepositoryFactory::worldRepository);
-        this.generalRepository = this.getOrDefault("general", storageConfig.getUserData(), IStorageRepositoryFactory::generalRepository);
+        this.worldRepository = this.getOrDefault("world", storageConfig.getWorldData(), IStorageRepositoryFactory::worldRepository);
+        this.generalRepository = this.getOrDefault("general", storageConfig.getGeneralData(), IStorageRepositoryFactory::generalRepository);
+    }
+
+    private StorageConfig getStorageConfig() {
+        final CoreConfig coreConfig = this.configProvider.getCoreConfig();
+        if (coreConfig == null) {
+            // config not loaded yet, use the defaults.
+            return new StorageConfig();
+        }
+        return coreConfig.getStorageConfig();
     }
 
     private <T extends IStorageRepository> T getOrDefault(final String type, final @Nullable String key, final Function<IStorageRepositoryFactory, T> factoryToType) {
@@ -226,6 +254,16 @@ public final class StorageManager implements IStorageManager {
             return factoryToType.apply(this.flatFileStorageRepositoryFactory);
         }
 
+        if (key.equalsIgnoreCase(Registry.Keys.SINGLE_FILE_STORAGE_KEY.asString())) {
+            final T repo = factoryToType.apply(this.singleFileStorageRepositoryFactory);
+            if (repo.startup()) {
+                this.logger.info("Using single file storage for {} data.", type);
+                return repo;
+            }
+            this.logger.error("Single file storage failed to start for {} data. Falling back to default flat file storage.", type);
+            return factoryToType.apply(this.flatFileStorageRepositoryFactory);
+        }
+
         if (key.contains(":")) {
             final Optional<IStorageRepositoryFactory> factory = game.registry(Registry.Types.STORAGE_REPOSITORY)
                     .findValue(ResourceKey.resolve(key));
@@ -251,6 +289,10 @@ public final class StorageManager implements IStorageManager {
 
     @Override
     public void detachAll() {
+        // Queued saves must be written before the repositories are shut down.
+        this.userService.shutdownWriteBehind();
+        this.worldService.shutdownWriteBehind();
+
         if (this.generalRepository != null) {
             this.generalRepository.shutdown();
         }
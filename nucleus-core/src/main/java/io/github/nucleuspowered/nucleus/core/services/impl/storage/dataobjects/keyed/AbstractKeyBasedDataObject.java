@@ -93,6 +93,19 @@ public abstract class AbstractKeyBasedDataObject<T extends IKeyedDataObject<T>>
 
     public void remove(final DataKey<?, ? extends T> dataKey) {
         this.dataHolder.remove(dataKey);
+        this.data.remove(dataKey.getDataQuery());
+        this.markDirty();
+    }
+
+    public <V> void setMapEntry(final DataKey.StringKeyedMapKey<V, ? extends T> dataKey, final String key, @Nullable final V data) {
+        // The map will be read from the container again the next time it is requested.
+        this.dataHolder.remove(dataKey);
+        final DataQuery query = dataKey.getDataQuery().then(key);
+        if (data == null) {
+            this.data.remove(query);
+        } else {
+            this.data.set(query, data);
+        }
         this.markDirty();
     }
 
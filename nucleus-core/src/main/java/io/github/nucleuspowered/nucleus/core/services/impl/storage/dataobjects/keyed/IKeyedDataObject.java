@@ -27,6 +27,16 @@ public interface IKeyedDataObject<T extends IKeyedDataObject<T>> extends IDataOb
 
     void remove(DataKey<?, ? extends T> dataKey);
 
+    /**
+     * Sets or removes a single entry in a map, without touching the rest of the map.
+     *
+     * @param dataKey The key for the map
+     * @param key The key of the entry
+     * @param data The value, or null to remove the entry
+     * @param <T2> The type of value
+     */
+    <T2> void setMapEntry(DataKey.StringKeyedMapKey<T2, ? extends T> dataKey, String key, @Nullable T2 data);
+
     boolean isDirty();
 
     default void markDirty() {
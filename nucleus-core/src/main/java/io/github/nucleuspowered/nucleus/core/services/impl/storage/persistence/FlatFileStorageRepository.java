@@ -62,7 +62,8 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
         } else {
             Files.createDirectories(path.getParent());
         }
-        try (final BufferedWriter bufferedWriter = Files.newBufferedWriter(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+        try (final BufferedWriter bufferedWriter = Files.newBufferedWriter(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
             DataFormats.JSON.get().writeTo(bufferedWriter, container);
         }
     }
@@ -202,11 +203,15 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
 
         @Override
         public Collection<K> getAllKeys(final Q query) throws DataLoadException, DataQueryException {
-            if (query.restrictedToKeys()) {
-                this.getAllKeysInternal().retainAll(query.keys());
+            if (!query.queries().isEmpty()) {
+                throw new DataQueryException("There must only be keys", query);
             }
 
-            throw new DataQueryException("There must only a key", query);
+            final Set<K> keys = this.getAllKeysInternal();
+            if (query.restrictedToKeys()) {
+                keys.retainAll(query.keys());
+            }
+            return Collections.unmodifiableSet(keys);
         }
 
         protected abstract Set<K> getAllKeysInternal() throws DataLoadException;
@@ -268,9 +273,13 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
 
         @Override
         protected Set<ResourceKey> getAllKeysInternal() throws DataLoadException {
-            final FileWalker u = new FileWalker();
+            final Path basePath = this.BASE_PATH.get();
+            if (!Files.isDirectory(basePath)) {
+                return new HashSet<>();
+            }
+            final FileWalker u = new FileWalker(basePath);
             try {
-                Files.walkFileTree(this.BASE_PATH.get(), u);
+                Files.walkFileTree(basePath, u);
                 return u.keys;
             } catch (final IOException e) {
                 throw new DataLoadException("Could not walk the file tree", e);
@@ -285,36 +294,29 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
         private static class FileWalker extends SimpleFileVisitor<Path> {
 
             private final Set<ResourceKey> keys = new HashSet<>();
-            private Option<String> inDirectory;
+            private final Path basePath;
+
+            private FileWalker(final Path basePath) {
+                this.basePath = basePath;
+            }
 
             @Override
             public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
-                if (this.inDirectory.isEmpty()) {
-                    final FileVisitResult result = super.preVisitDirectory(dir, attrs);
-                    if (result == FileVisitResult.CONTINUE) {
-                        this.inDirectory = Option.some(dir.getFileName().toString());
-                    }
-                    return result;
+                // worlddata/<namespace>/<value>.json
+                if (dir.equals(this.basePath) || this.basePath.equals(dir.getParent())) {
+                    return super.preVisitDirectory(dir, attrs);
                 }
 
                 return FileVisitResult.SKIP_SUBTREE;
             }
 
-            @Override
-            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
-                this.inDirectory = null;
-                return super.postVisitDirectory(dir, exc);
-            }
-
-            // Print information about
-            // each type of file.
             @Override
             public FileVisitResult visitFile(final Path file, final BasicFileAttributes attr) {
-                if (attr.isRegularFile()) {
-                    if (file.endsWith(".json")) {
-                        final String f = file.getFileName().toString();
+                if (attr.isRegularFile() && !this.basePath.equals(file.getParent())) {
+                    final String f = file.getFileName().toString();
+                    if (f.endsWith(".json")) {
                         try {
-                            this.keys.add(ResourceKey.of(this.inDirectory.getOrElseThrow(RuntimeException::new), f.replace(".json", "")));
+                            this.keys.add(ResourceKey.of(file.getParent().getFileName().toString(), f.substring(0, f.length() - 5)));
                         } catch (final Exception e) {
                             // ignored
                         }
@@ -339,9 +341,13 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
 
         @Override
         protected Set<UUID> getAllKeysInternal() throws DataLoadException {
-            final UUIDFileWalker u = new UUIDFileWalker();
+            final Path basePath = this.BASE_PATH.get();
+            if (!Files.isDirectory(basePath)) {
+                return new HashSet<>();
+            }
+            final UUIDFileWalker u = new UUIDFileWalker(basePath);
             try {
-                Files.walkFileTree(this.BASE_PATH.get(), u);
+                Files.walkFileTree(basePath, u);
                 return u.uuidSet;
             } catch (final IOException e) {
                 throw new DataLoadException("Could not walk the file tree", e);
@@ -356,10 +362,16 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
         private static class UUIDFileWalker extends SimpleFileVisitor<Path> {
 
             private final Set<UUID> uuidSet = new HashSet<>();
+            private final Path basePath;
+
+            private UUIDFileWalker(final Path basePath) {
+                this.basePath = basePath;
+            }
 
             @Override
             public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
-                if (dir.getFileName().toString().length() == 2) {
+                // userdata/<first two characters>/<uuid>.json
+                if (dir.equals(this.basePath) || (this.basePath.equals(dir.getParent()) && dir.getFileName().toString().length() == 2)) {
                     return super.preVisitDirectory(dir, attrs);
                 }
 
@@ -371,9 +383,9 @@ abstract class FlatFileStorageRepository implements IStorageRepository {
             @Override
             public FileVisitResult visitFile(final Path file, final BasicFileAttributes attr) {
                 if (attr.isRegularFile()) {
-                    if (file.endsWith(".json")) {
-                        final String f = file.getFileName().toString();
-                        if (f.length() == 41 && f.startsWith(file.getParent().toString().toLowerCase())) {
+                    final String f = file.getFileName().toString();
+                    if (f.endsWith(".json")) {
+                        if (f.length() == 41 && f.startsWith(file.getParent().getFileName().toString().toLowerCase())) {
                             try {
                                 this.uuidSet.add(UUID.fromString(f.substring(0, 36)));
                             } catch (final Exception e) {
@@ -0,0 +1,347 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.storage.persistence;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * An append only, single file key-value store.
+ *
+ * <p>Every write appends a record to the end of the file, and an in memory index of
+ * key to record location is maintained so that lookups never need to touch the file
+ * system other than to read the record itself. Deletions are recorded as tombstones.
+ * The file is compacted when the amount of superseded data outweighs the live data.</p>
+ *
+ * <p>Record layout: {@code [int keyLength][int valueLength][int crc][key][value]}, where
+ * a {@code valueLength} of {@code -1} marks a tombstone. A torn record at the end of the
+ * file (for example, after a crash) is discarded on open.</p>
+ */
+final class LogStructuredStore {
+
+    private static final int MAGIC = 0x4E55434C; // NUCL
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final int TOMBSTONE = -1;
+    private static final long MIN_COMPACTION_WASTE = 4 * 1024 * 1024;
+
+    private final Path path;
+    private final Map<String, Pointer> index = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock channelLock = new ReentrantReadWriteLock();
+
+    @Nullable private FileChannel channel;
+    private long end;
+    private long liveBytes;
+    private long wastedBytes;
+
+    LogStructuredStore(final Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Opens the store, creating it if it does not exist, and rebuilds the index.
+     *
+     * @return {@code true} if the file was newly created
+     * @throws IOException if the file could not be opened
+     */
+    boolean open() throws IOException {
+        this.channelLock.writeLock().lock();
+        try {
+            if (this.channel != null) {
+                return false;
+            }
+            final boolean created = !Files.exists(this.path);
+            if (created) {
+                Files.createDirectories(this.path.toAbsolutePath().getParent());
+            }
+            this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (this.channel.size() < FILE_HEADER_SIZE) {
+                this.writeFileHeader(this.channel);
+                this.end = FILE_HEADER_SIZE;
+                this.index.clear();
+                this.liveBytes = 0;
+                this.wastedBytes = 0;
+            } else {
+                this.rebuildIndex();
+            }
+            return created;
+        } finally {
+            this.channelLock.writeLock().unlock();
+        }
+    }
+
+    void close() throws IOException {
+        this.channelLock.writeLock().lock();
+        try {
+            if (this.channel != null) {
+                if (this.shouldCompact()) {
+                    this.compactInternal();
+                }
+                this.channel.force(true);
+                this.channel.close();
+            }
+        } finally {
+            this.channel = null;
+            this.index.clear();
+            this.channelLock.writeLock().unlock();
+        }
+    }
+
+    boolean contains(final String key) {
+        return this.index.containsKey(key);
+    }
+
+    Set<String> keys() {
+        return Collections.unmodifiableSet(new HashSet<>(this.index.keySet()));
+    }
+
+    int size() {
+        return this.index.size();
+    }
+
+    Optional<byte[]> read(final String key) throws IOException {
+        this.channelLock.readLock().lock();
+        try {
+            final Pointer pointer = this.index.get(key);
+            if (pointer == null) {
+                return Optional.empty();
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate(pointer.length);
+            this.readFully(this.requireOpen(), buffer, pointer.offset);
+            return Optional.of(buffer.array());
+        } finally {
+            this.channelLock.readLock().unlock();
+        }
+    }
+
+    void write(final String key, final byte[] value) throws IOException {
+        this.append(key, value);
+    }
+
+    void delete(final String key) throws IOException {
+        if (this.index.containsKey(key)) {
+            this.append(key, null);
+        }
+    }
+
+    void compact() throws IOException {
+        this.channelLock.writeLock().lock();
+        try {
+            this.compactInternal();
+        } finally {
+            this.channelLock.writeLock().unlock();
+        }
+    }
+
+    private void append(final String key, final byte @Nullable [] value) throws IOException {
+        final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer record = LogStructuredStore.createRecord(keyBytes, value);
+        this.channelLock.writeLock().lock();
+        try {
+            final FileChannel fileChannel = this.requireOpen();
+            final long recordStart = this.end;
+            this.writeFully(fileChannel, record, recordStart);
+            this.end = recordStart + record.capacity();
+
+            final Pointer old;
+            if (value == null) {
+                old = this.index.remove(key);
+                this.wastedBytes += record.capacity();
+            } else {
+                final Pointer pointer = new Pointer(recordStart + RECORD_HEADER_SIZE + keyBytes.length, value.length, record.capacity());
+                old = this.index.put(key, pointer);
+                this.liveBytes += pointer.recordLength;
+            }
+            if (old != null) {
+                this.liveBytes -= old.recordLength;
+                this.wastedBytes += old.recordLength;
+            }
+
+            if (this.shouldCompact()) {
+                this.compactInternal();
+            }
+        } finally {
+            this.channelLock.writeLock().unlock();
+        }
+    }
+
+    private boolean shouldCompact() {
+        return this.wastedBytes > MIN_COMPACTION_WASTE && this.wastedBytes > this.liveBytes;
+    }
+
+    // Must hold the write lock.
+    private void compactInternal() throws IOException {
+        final FileChannel source = this.requireOpen();
+        final Path temp = this.path.resolveSibling(this.path.getFileName() + ".compact");
+        final Map<String, Pointer> newIndex = new ConcurrentHashMap<>();
+        long position = FILE_HEADER_SIZE;
+        try (final FileChannel target = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            this.writeFileHeader(target);
+            for (final Map.Entry<String, Pointer> entry : this.index.entrySet()) {
+                final Pointer pointer = entry.getValue();
+                final ByteBuffer value = ByteBuffer.allocate(pointer.length);
+                this.readFully(source, value, pointer.offset);
+                final byte[] keyBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                final ByteBuffer record = LogStructuredStore.createRecord(keyBytes, value.array());
+                this.writeFully(target, record, position);
+                newIndex.put(entry.getKey(), new Pointer(position + RECORD_HEADER_SIZE + keyBytes.length, pointer.length, record.capacity()));
+                position += record.capacity();
+            }
+            target.force(true);
+        }
+
+        source.close();
+        Files.move(temp, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.channel = FileChannel.open(this.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.index.clear();
+        this.index.putAll(newIndex);
+        this.end = position;
+        this.liveBytes = position - FILE_HEADER_SIZE;
+        this.wastedBytes = 0;
+    }
+
+    // Must hold the write lock.
+    private void rebuildIndex() throws IOException {
+        final FileChannel fileChannel = this.requireOpen();
+        final ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        this.readFully(fileChannel, fileHeader, 0);
+        fileHeader.flip();
+        if (fileHeader.getInt() != MAGIC) {
+            throw new IOException(this.path + " is not a Nucleus data store");
+        }
+        final int version = fileHeader.getInt();
+        if (version != VERSION) {
+            throw new IOException(this.path + " has an unsupported store version: " + version);
+        }
+
+        this.index.clear();
+        this.liveBytes = 0;
+        this.wastedBytes = 0;
+        final long size = fileChannel.size();
+        final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        long position = FILE_HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            this.readFully(fileChannel, header, position);
+            header.flip();
+            final int keyLength = header.getInt();
+            final int valueLength = header.getInt();
+            final int crc = header.getInt();
+            final int bodyLength = keyLength + Math.max(valueLength, 0);
+            if (keyLength <= 0 || valueLength < TOMBSTONE || position + RECORD_HEADER_SIZE + bodyLength > size) {
+                break; // torn write
+            }
+
+            final ByteBuffer body = ByteBuffer.allocate(bodyLength);
+            this.readFully(fileChannel, body, position + RECORD_HEADER_SIZE);
+            final CRC32 crc32 = new CRC32();
+            crc32.update(body.array(), 0, bodyLength);
+            if ((int) crc32.getValue() != crc) {
+                break; // torn write
+            }
+
+            final int recordLength = RECORD_HEADER_SIZE + bodyLength;
+            final String key = new String(body.array(), 0, keyLength, StandardCharsets.UTF_8);
+            final Pointer old;
+            if (valueLength == TOMBSTONE) {
+                old = this.index.remove(key);
+                this.wastedBytes += recordLength;
+            } else {
+                old = this.index.put(key, new Pointer(position + RECORD_HEADER_SIZE + keyLength, valueLength, recordLength));
+                this.liveBytes += recordLength;
+            }
+            if (old != null) {
+                this.liveBytes -= old.recordLength;
+                this.wastedBytes += old.recordLength;
+            }
+            position += recordLength;
+        }
+
+        if (position < size) {
+            // Discard anything we couldn't read so that new records are not appended after garbage.
+            fileChannel.truncate(position);
+        }
+        this.end = position;
+    }
+
+    private FileChannel requireOpen() throws IOException {
+        if (this.channel == null) {
+            throw new IOException("The data store at " + this.path + " is not open");
+        }
+        return this.channel;
+    }
+
+    private void writeFileHeader(final FileChannel fileChannel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        this.writeFully(fileChannel, header, 0);
+    }
+
+    private void readFully(final FileChannel fileChannel, final ByteBuffer buffer, final long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            final int read = fileChannel.read(buffer, current);
+            if (read < 0) {
+                throw new IOException("Unexpected end of data store " + this.path);
+            }
+            current += read;
+        }
+    }
+
+    private void writeFully(final FileChannel fileChannel, final ByteBuffer buffer, final long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            current += fileChannel.write(buffer, current);
+        }
+    }
+
+    private static ByteBuffer createRecord(final byte[] keyBytes, final byte @Nullable [] value) {
+        final int valueLength = value == null ? TOMBSTONE : value.length;
+        final CRC32 crc32 = new CRC32();
+        crc32.update(keyBytes);
+        if (value != null) {
+            crc32.update(value);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyBytes.length + Math.max(valueLength, 0));
+        buffer.putInt(keyBytes.length).putInt(valueLength).putInt((int) crc32.getValue()).put(keyBytes);
+        if (value != null) {
+            buffer.put(value);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static final class Pointer {
+
+        private final long offset;
+        private final int length;
+        private final int recordLength;
+
+        private Pointer(final long offset, final int length, final int recordLength) {
+            this.offset = offset;
+            this.length = length;
+            this.recordLength = recordLength;
+        }
+    }
+
+}
@@ -0,0 +1,368 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.storage.persistence;
+
+import io.github.nucleuspowered.storage.exceptions.DataDeleteException;
+import io.github.nucleuspowered.storage.exceptions.DataLoadException;
+import io.github.nucleuspowered.storage.exceptions.DataQueryException;
+import io.github.nucleuspowered.storage.exceptions.DataSaveException;
+import io.github.nucleuspowered.storage.persistence.IStorageRepository;
+import io.github.nucleuspowered.storage.query.IQueryObject;
+import io.github.nucleuspowered.storage.util.KeyedObject;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.data.persistence.DataContainer;
+import org.spongepowered.api.data.persistence.DataFormats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A repository that stores all of its documents in a single {@link LogStructuredStore}.
+ *
+ * <p>Unlike the {@link FlatFileStorageRepository}, lookups are resolved against an in-memory
+ * index, so do not need to stat the file system, and saves append to the end of the store
+ * rather than rewriting and backing up a whole file.</p>
+ */
+abstract class SingleFileStorageRepository implements IStorageRepository {
+
+    private final Logger logger;
+    private final Supplier<Path> storePath;
+    @Nullable private final Supplier<? extends IStorageRepository> importFrom;
+    @Nullable private volatile LogStructuredStore store;
+    private volatile boolean isShutdown = false;
+
+    private static byte[] toBytes(final DataContainer container) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+            DataFormats.JSON.get().writeTo(writer, container);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static DataContainer fromBytes(final byte[] bytes) throws IOException {
+        try (final Reader reader = new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)) {
+            return DataFormats.JSON.get().readFrom(reader);
+        }
+    }
+
+    protected SingleFileStorageRepository(
+            final Logger logger,
+            final Supplier<Path> storePath,
+            @Nullable final Supplier<? extends IStorageRepository> importFrom) {
+        this.logger = logger;
+        this.storePath = storePath;
+        this.importFrom = importFrom;
+    }
+
+    @Override
+    public synchronized boolean startup() {
+        if (this.store != null) {
+            return true;
+        }
+
+        this.isShutdown = false;
+        final Path path = this.storePath.get();
+        final LogStructuredStore logStructuredStore = new LogStructuredStore(path);
+        try {
+            if (this.importFrom != null && !Files.exists(path)) {
+                this.importInto(path, this.importFrom.get());
+            }
+            logStructuredStore.open();
+            this.store = logStructuredStore;
+            return true;
+        } catch (final Exception e) {
+            this.logger.error("Could not open the data store at {}", path.toAbsolutePath(), e);
+            SingleFileStorageRepository.closeQuietly(logStructuredStore);
+            this.store = null;
+            return false;
+        }
+    }
+
+    /**
+     * Imports the data from the given repository into a new store at the given path.
+     *
+     * <p>The data is imported into a temporary file which is only moved to the path once
+     * the import is complete, so that a failed import will be tried again from the start
+     * next time, rather than leaving a partial store behind. The temporary store is never
+     * made visible through {@link #store()}.</p>
+     */
+    private void importInto(final Path path, final IStorageRepository repository) throws Exception {
+        final Path temp = path.resolveSibling(path.getFileName() + ".importing");
+        Files.deleteIfExists(temp);
+        this.logger.info("Creating data store {}, importing existing data.", path.toAbsolutePath());
+        final LogStructuredStore importStore = new LogStructuredStore(temp);
+        try {
+            importStore.open();
+            final int imported = this.importData(repository, importStore);
+            importStore.close();
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            this.logger.info("Imported {} record(s) into {}.", imported, path.toAbsolutePath());
+        } catch (final Exception e) {
+            SingleFileStorageRepository.closeQuietly(importStore);
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(final LogStructuredStore store) {
+        try {
+            store.close();
+        } catch (final IOException e) {
+            // ignored, we're already failing.
+        }
+    }
+
+    /**
+     * Copies the data from an existing repository into the given store.
+     *
+     * @param repository The repository to import from
+     * @param into The store to import into
+     * @return The number of records imported
+     * @throws Exception if the import failed
+     */
+    abstract int importData(IStorageRepository repository, LogStructuredStore into) throws Exception;
+
+    @Override
+    public synchronized void shutdown() {
+        if (this.store != null) {
+            try {
+                this.store.close();
+            } catch (final IOException e) {
+                this.logger.error("Could not cleanly close the data store at {}", this.storePath.get().toAbsolutePath(), e);
+            }
+            this.store = null;
+        }
+        this.isShutdown = true;
+    }
+
+    @Override
+    public void clearCache() {
+        // noop
+    }
+
+    @Override
+    public boolean hasCache() {
+        return false;
+    }
+
+    LogStructuredStore store() {
+        LogStructuredStore logStructuredStore = this.store;
+        if (logStructuredStore == null) {
+            if (this.isShutdown) {
+                throw new IllegalStateException("The data store at " + this.storePath.get().toAbsolutePath() + " has been shut down");
+            }
+
+            // The repository may be requested before it has been attached, so open it lazily.
+            this.startup();
+            logStructuredStore = this.store;
+            if (logStructuredStore == null) {
+                throw new IllegalStateException("The data store at " + this.storePath.get().toAbsolutePath() + " could not be opened");
+            }
+        }
+        return logStructuredStore;
+    }
+
+    Optional<DataContainer> get(final String key) throws DataLoadException {
+        try {
+            final Optional<byte[]> bytes = this.store().read(key);
+            if (bytes.isPresent() && bytes.get().length > 0) {
+                return Optional.of(SingleFileStorageRepository.fromBytes(bytes.get()));
+            }
+            return Optional.empty();
+        } catch (final Exception e) {
+            throw new DataLoadException("Could not load " + key + " from " + this.storePath.get().toAbsolutePath(), e);
+        }
+    }
+
+    void save(final String key, final DataContainer object) throws DataSaveException {
+        try {
+            this.store().write(key, SingleFileStorageRepository.toBytes(object));
+        } catch (final Exception ex) {
+            this.logger.error("Could not save {} to {}", key, this.storePath.get().toAbsolutePath(), ex);
+            throw new DataSaveException("Could not save " + key, ex);
+        }
+    }
+
+    static final class Single extends SingleFileStorageRepository implements IStorageRepository.Single<DataContainer> {
+
+        private static final String KEY = "data";
+
+        Single(final Logger logger, final Supplier<Path> storePath, @Nullable final Supplier<IStorageRepository.Single<DataContainer>> importFrom) {
+            super(logger, storePath, importFrom);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int importData(final IStorageRepository repository, final LogStructuredStore into) throws Exception {
+            final Optional<DataContainer> container = ((IStorageRepository.Single<DataContainer>) repository).get();
+            if (container.isPresent()) {
+                into.write(KEY, SingleFileStorageRepository.toBytes(container.get()));
+                return 1;
+            }
+            return 0;
+        }
+
+        @Override
+        public Optional<DataContainer> get() throws DataLoadException {
+            return this.get(KEY);
+        }
+
+        @Override
+        public void save(final DataContainer object) throws DataSaveException {
+            this.save(KEY, object);
+        }
+    }
+
+    static final class Keyed<K, Q extends IQueryObject<K, Q>> extends SingleFileStorageRepository
+            implements IStorageRepository.Keyed<K, Q, DataContainer> {
+
+        private final Function<K, String> keyToString;
+        private final Function<String, K> stringToKey;
+
+        Keyed(
+                final Logger logger,
+                final Supplier<Path> storePath,
+                @Nullable final Supplier<IStorageRepository.Keyed<K, Q, DataContainer>> importFrom,
+                final Function<K, String> keyToString,
+                final Function<String, K> stringToKey) {
+            super(logger, storePath, importFrom);
+            this.keyToString = keyToString;
+            this.stringToKey = stringToKey;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int importData(final IStorageRepository repository, final LogStructuredStore into) throws Exception {
+            final IStorageRepository.Keyed<K, Q, DataContainer> keyed = (IStorageRepository.Keyed<K, Q, DataContainer>) repository;
+            int count = 0;
+            for (final K key : keyed.getAllKeys()) {
+                final Optional<DataContainer> container = keyed.get(key);
+                if (container.isPresent()) {
+                    into.write(this.keyToString.apply(key), SingleFileStorageRepository.toBytes(container.get()));
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public void clearCache(final Iterable<K> keys) {
+            // noop
+        }
+
+        @Override
+        public boolean exists(final Q query) {
+            return query.queries().isEmpty() && query.keys().size() == 1 && this.exists(query.keys().iterator().next());
+        }
+
+        @Override
+        public Optional<KeyedObject<K, DataContainer>> get(final Q query) throws DataLoadException, DataQueryException {
+            final K key = this.singleKey(query);
+            return this.get(key).map(x -> new KeyedObject<>(key, x));
+        }
+
+        @Override
+        public int count(final Q query) {
+            try {
+                return this.getAllKeys(query).size();
+            } catch (final DataLoadException | DataQueryException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public void save(final K key, final DataContainer object) throws DataSaveException {
+            this.save(this.keyToString.apply(key), object);
+        }
+
+        @Override
+        public void delete(final K key) throws DataDeleteException {
+            try {
+                this.store().delete(this.keyToString.apply(key));
+            } catch (final Exception e) {
+                throw new DataDeleteException("Could not delete " + key, e);
+            }
+        }
+
+        @Override
+        public boolean exists(final K key) {
+            return this.store().contains(this.keyToString.apply(key));
+        }
+
+        @Override
+        public Optional<DataContainer> get(final K key) throws DataLoadException {
+            return this.get(this.keyToString.apply(key));
+        }
+
+        @Override
+        public Collection<K> getAllKeys() throws DataLoadException {
+            final Set<K> keys = new HashSet<>();
+            for (final String key : this.store().keys()) {
+                try {
+                    keys.add(this.stringToKey.apply(key));
+                } catch (final Exception e) {
+                    // ignored
+                }
+            }
+            return Collections.unmodifiableSet(keys);
+        }
+
+        @Override
+        public Map<K, DataContainer> getAll(final Q query) throws DataLoadException, DataQueryException {
+            final Map<K, DataContainer> result = new HashMap<>();
+            for (final K key : this.getAllKeys(query)) {
+                this.get(key).ifPresent(x -> result.put(key, x));
+            }
+            return Collections.unmodifiableMap(result);
+        }
+
+        @Override
+        public Collection<K> getAllKeys(final Q query) throws DataLoadException, DataQueryException {
+            if (!query.queries().isEmpty()) {
+                throw new DataQueryException("There must only be keys", query);
+            }
+
+            if (!query.restrictedToKeys()) {
+                return this.getAllKeys();
+            }
+
+            final Set<K> keys = new HashSet<>();
+            for (final K key : query.keys()) {
+                if (this.exists(key)) {
+                    keys.add(key);
+                }
+            }
+            return Collections.unmodifiableSet(keys);
+        }
+
+        private K singleKey(final Q query) throws DataQueryException {
+            if (query.queries().isEmpty() && query.keys().size() == 1) {
+                return query.keys().iterator().next();
+            }
+
+            throw new DataQueryException("There must only a key", query);
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.storage.persistence;
+
+import io.github.nucleuspowered.storage.persistence.IStorageRepository;
+import io.github.nucleuspowered.storage.persistence.IStorageRepositoryFactory;
+import io.github.nucleuspowered.storage.query.IUserQueryObject;
+import io.github.nucleuspowered.storage.query.IWorldQueryObject;
+import org.apache.logging.log4j.Logger;
+import org.spongepowered.api.ResourceKey;
+import org.spongepowered.api.data.persistence.DataContainer;
+
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Creates repositories that store each type of data in a single, indexed file.
+ *
+ * <p>When a store is created for the first time, any data held by the
+ * {@link FlatFileStorageRepositoryFactory} repositories is imported into it.</p>
+ */
+public final class SingleFileStorageRepositoryFactory implements IStorageRepositoryFactory {
+
+    private static final String WORLD_DATA_FILE = "worlddata.store";
+    private static final String USER_DATA_FILE = "userdata.store";
+    private static final String GENERAL_FILE = "general.store";
+    private static final String KITS_FILE = "kits.store";
+    private final Supplier<Path> dataPath;
+    private final Logger logger;
+    private final FlatFileStorageRepositoryFactory flatFileStorageRepositoryFactory;
+
+    public SingleFileStorageRepositoryFactory(
+            final Supplier<Path> path,
+            final Logger logger,
+            final FlatFileStorageRepositoryFactory flatFileStorageRepositoryFactory) {
+        this.dataPath = path;
+        this.logger = logger;
+        this.flatFileStorageRepositoryFactory = flatFileStorageRepositoryFactory;
+    }
+
+    @Override
+    public IStorageRepository.Keyed<ResourceKey, IWorldQueryObject, DataContainer> worldRepository() {
+        return new SingleFileStorageRepository.Keyed<>(
+                this.logger,
+                () -> this.dataPath.get().resolve(WORLD_DATA_FILE),
+                this.flatFileStorageRepositoryFactory::worldRepository,
+                ResourceKey::asString,
+                ResourceKey::resolve);
+    }
+
+    @Override
+    public IStorageRepository.Keyed<UUID, IUserQueryObject, DataContainer> userRepository() {
+        return new SingleFileStorageRepository.Keyed<>(
+                this.logger,
+                () -> this.dataPath.get().resolve(USER_DATA_FILE),
+                this.flatFileStorageRepositoryFactory::userRepository,
+                UUID::toString,
+                UUID::fromString);
+    }
+
+    @Override
+    public IStorageRepository.Single<DataContainer> generalRepository() {
+        return new SingleFileStorageRepository.Single(
+                this.logger,
+                () -> this.dataPath.get().resolve(GENERAL_FILE),
+                this.flatFileStorageRepositoryFactory::generalRepository);
+    }
+
+    @Override
+    public IStorageRepository.Single<DataContainer> kitsRepository() {
+        return new SingleFileStorageRepository.Single(
+                this.logger,
+                () -> this.dataPath.get().resolve(KITS_FILE),
+                this.flatFileStorageRepositoryFactory::kitsRepository);
+    }
+
+}
@@ -5,9 +5,7 @@
 package io.github.nucleuspowered.nucleus.core.services.impl.storage.services;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.RemovalCause;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataaccess.IDataTranslator;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.keyed.DataKey;
@@ -25,29 +23,48 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.plugin.PluginContainer;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D extends IKeyedDataObject<D>, O>
         implements IStorageService.Keyed.KeyedData<K, Q, D> {
 
-    private final LoadingCache<K, ReentrantReadWriteLock> dataLocks =
-            Caffeine.newBuilder().expireAfterAccess(5, TimeUnit.MINUTES).build(new CacheLoader<K, ReentrantReadWriteLock>() {
-                @NonNull
-                @Override
-                public ReentrantReadWriteLock load(@NonNull final K key) {
-                    return new ReentrantReadWriteLock();
-                }
-            });
+    // Shared between services so that a join storm cannot start more reads than the storage can sensibly serve.
+    private static final ExecutorService PRELOAD_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors())),
+            new PreloadThreadFactory());
+
+    // Must be a power of two.
+    private static final int LOCK_STRIPES = 64;
+
+    // Loads, saves and deletes of a key are serialised on that key's stripe. Readers never take these
+    // locks: individual cache entries are only written under the stripe lock, so a hit always sees the most recently
+    // loaded or saved object.
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Map<K, CompletableFuture<Optional<D>>> loading = new ConcurrentHashMap<>();
     private final Cache<K, D> cache = Caffeine.newBuilder()
             .removalListener(this::onRemoval)
             .expireAfterAccess(5, TimeUnit.MINUTES)
@@ -58,12 +75,17 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
     private final PluginContainer pluginContainer;
     private final Consumer<D> upgrader;
     private final Consumer<D> versionSetter;
+    private final WriteBehindQueue<K, D> writeBehindQueue;
+    private final List<BiConsumer<K, D>> saveListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<K>> deleteListeners = new CopyOnWriteArrayList<>();
 
     public AbstractKeyedService(
+            final String name,
             final Supplier<IDataTranslator<D, O>> dts,
             final Supplier<IStorageRepository.Keyed<K, Q, O>> storageRepositorySupplier,
             final Consumer<D> upgrader,
             final Consumer<D> versionSetter,
+            final LongSupplier writeBehindWindowMillis,
             final PluginContainer pluginContainer
     ) {
         this.pluginContainer = pluginContainer;
@@ -71,6 +93,26 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
         this.upgrader = upgrader;
         this.versionSetter = versionSetter;
         this.storageRepositorySupplier = storageRepositorySupplier;
+        this.writeBehindQueue = new WriteBehindQueue<>(name, writeBehindWindowMillis, this::saveQueued);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            this.locks[i] = new ReentrantLock();
+        }
+    }
+
+    private ReentrantLock lockFor(final K key) {
+        final int hash = key.hashCode();
+        return this.locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    public WriteBehindQueue.Statistics getWriteBehindStatistics() {
+        return this.writeBehindQueue.getStatistics();
+    }
+
+    /**
+     * Writes any queued saves and stops the write behind thread.
+     */
+    public void shutdownWriteBehind() {
+        this.writeBehindQueue.shutdown();
     }
 
     protected D createNewDataObject() {
@@ -115,6 +157,11 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
         return data;
     }
 
+    @Override
+    public boolean supportsNonPrimaryKeyQueries() {
+        return this.storageRepositorySupplier.get().supportsNonKeyQueries();
+    }
+
     @Override
     public CompletableFuture<Void> clearCache() {
         this.cache.invalidateAll();
@@ -136,17 +183,15 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
 
     @Override
     public CompletableFuture<Optional<D>> get(@NonNull final K key) {
-        final ReentrantReadWriteLock.ReadLock lock = this.dataLocks.get(key).readLock();
-        try {
-            lock.lock();
-            final D result = this.cache.getIfPresent(key);
-            if (result != null) {
-                return CompletableFuture.completedFuture(Optional.of(result));
-            }
-        } finally {
-            lock.unlock();
+        final D result = this.cache.getIfPresent(key);
+        if (result != null) {
+            return CompletableFuture.completedFuture(Optional.of(result));
         }
 
+        final CompletableFuture<Optional<D>> inProgress = this.loading.get(key);
+        if (inProgress != null) {
+            return inProgress.thenApply(x -> x);
+        }
         return ServicesUtil.run(() -> this.getFromRepo(key), this.pluginContainer);
     }
 
@@ -161,30 +206,83 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
 
     @Override
     public Optional<D> getOnThread(@NonNull final K key) {
-        // Read lock for the cache
-        final ReentrantReadWriteLock.ReadLock lock = this.dataLocks.get(key).readLock();
-        try {
-            lock.lock();
-            final D result = this.cache.getIfPresent(key);
-            if (result != null) {
-                return Optional.of(result);
-            }
-        } finally {
-            lock.unlock();
+        final D result = this.cache.getIfPresent(key);
+        if (result != null) {
+            return Optional.of(result);
         }
 
         try {
+            final CompletableFuture<Optional<D>> inProgress = this.loading.get(key);
+            if (inProgress != null) {
+                return inProgress.join();
+            }
             return this.getFromRepo(key);
+        } catch (final CompletionException e) {
+            throw new RuntimeException(e.getCause());
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    @Override
+    public CompletableFuture<Integer> preload(final Collection<K> keys) {
+        final List<CompletableFuture<Optional<D>>> futures = new ArrayList<>();
+        for (final K key : new LinkedHashSet<>(keys)) {
+            if (this.cache.getIfPresent(key) == null) {
+                futures.add(this.load(key));
+            }
+        }
+
+        if (futures.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        // A failure to load one object should not prevent the others from being cached.
+        final AtomicInteger loaded = new AtomicInteger();
+        final CompletableFuture<?>[] counted = futures.stream()
+                .map(x -> x.handle((result, ex) -> {
+                    if (result != null && result.isPresent()) {
+                        loaded.incrementAndGet();
+                    }
+                    return null;
+                }))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(counted).thenApply(x -> loaded.get());
+    }
+
+    private CompletableFuture<Optional<D>> load(final K key) {
+        final CompletableFuture<Optional<D>> future = new CompletableFuture<>();
+        final CompletableFuture<Optional<D>> existing = this.loading.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        final Runnable task = () -> {
+            try {
+                future.complete(this.getFromRepo(key));
+            } catch (final Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                this.loading.remove(key, future);
+            }
+        };
+        try {
+            AbstractKeyedService.PRELOAD_EXECUTOR.execute(task);
+        } catch (final RejectedExecutionException e) {
+            task.run();
+        }
+        return future;
+    }
+
     private Optional<D> getFromRepo(@NonNull final K key) throws Exception {
-        // Write lock because of the cache
-        final ReentrantReadWriteLock.WriteLock lock = this.dataLocks.get(key).writeLock();
+        final ReentrantLock lock = this.lockFor(key);
         try {
             lock.lock();
+            // Another thread may have loaded this while we were waiting for the lock.
+            final D cached = this.cache.getIfPresent(key);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
             final Optional<D> r = this.getFromKey(key);
             r.ifPresent(d -> {
                 this.upgrader.accept(d);
@@ -204,9 +302,9 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
             final Optional<KeyedObject<K, D>> r = this.getFromQuery(query);
             r.ifPresent(d -> {
                 if (d.getValue().isPresent()) {
-                    this.cache.put(d.getKey(), d.getValue().get());
+                    this.cacheValue(d.getKey(), d.getValue().get());
                 } else {
-                    this.cache.invalidate(d.getKey());
+                    this.cacheValue(d.getKey(), null);
                 }
             });
             return r;
@@ -217,7 +315,7 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
     public CompletableFuture<Map<K, D>> getAll(@NonNull final Q query) {
         return ServicesUtil.run(() -> {
             final Map<K, D> res = this.getAllFromQuery(query);//.apply(query);
-            res.forEach(this.cache::put);
+            res.forEach(this::cacheValue);
             return res;
         }, this.pluginContainer);
     }
@@ -236,12 +334,7 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
     public <T2> CompletableFuture<Void> setAndSave(@NonNull final K key, final DataKey<T2, ? extends D> dataKey, final T2 data) {
         return this.getOrNew(key).thenAccept(x -> {
             x.set(dataKey, data);
-            try {
-                this.saveOnThread(key, x);
-            } catch (final Exception e) {
-                e.printStackTrace();
-                throw new RuntimeException(e);
-            }
+            this.saveOrEnqueue(key, x);
         });
     }
 
@@ -249,33 +342,104 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
     public <T2> CompletableFuture<Void> removeAndSave(@NonNull final K key, final DataKey<T2, ? extends D> dataKey) {
         return this.getOrNew(key).handle((x, ex) -> {
             x.remove(dataKey);
+            this.saveOrEnqueue(key, x);
+            return null;
+        });
+    }
+
+    private void saveOrEnqueue(@NonNull final K key, @NonNull final D value) {
+        // Make sure the latest object is what other readers see while the save is pending.
+        this.cacheValue(key, value);
+        this.notifySaveListeners(key, value);
+        if (!this.writeBehindQueue.enqueue(key, value)) {
             try {
-                this.saveOnThread(key, x);
+                this.saveOnThread(key, value);
             } catch (final Exception e) {
                 e.printStackTrace();
                 throw new RuntimeException(e);
             }
-            return null;
-        });
+        }
     }
 
     @Override
     public CompletableFuture<Void> save(@NonNull final K key, @NonNull final D value) {
+        this.writeBehindQueue.discard(key);
+        this.notifySaveListeners(key, value);
         return ServicesUtil.run(() -> {
             this.saveOnThread(key, value);
             return null;
         }, this.pluginContainer);
     }
 
+    @Override
+    public void addSaveListener(final BiConsumer<K, D> listener) {
+        this.saveListeners.add(listener);
+    }
+
+    @Override
+    public void addDeleteListener(final Consumer<K> listener) {
+        this.deleteListeners.add(listener);
+    }
+
+    private void notifyDeleteListeners(final K key) {
+        for (final Consumer<K> listener : this.deleteListeners) {
+            try {
+                listener.accept(key);
+            } catch (final Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void notifySaveListeners(final K key, final D value) {
+        for (final BiConsumer<K, D> listener : this.saveListeners) {
+            try {
+                listener.accept(key, value);
+            } catch (final Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void cacheValue(@NonNull final K key, @Nullable final D value) {
+        final ReentrantLock lock = this.lockFor(key);
+        try {
+            lock.lock();
+            if (value == null) {
+                this.cache.invalidate(key);
+            } else {
+                this.cache.put(key, value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @SuppressWarnings("ConstantConditions")
     private void saveOnThread(@NonNull final K key, @NonNull final D value) throws Exception {
-        final ReentrantReadWriteLock reentrantReadWriteLock = this.dataLocks.get(key);
-        final ReentrantReadWriteLock.WriteLock lock = reentrantReadWriteLock.writeLock();
+        final ReentrantLock lock = this.lockFor(key);
+        try {
+            lock.lock();
+            this.cache.put(key, value);
+            this.saveObject(key, value);
+            value.markDirty(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean saveQueued(@NonNull final K key, @NonNull final D value, final BooleanSupplier claim) throws Exception {
+        final ReentrantLock lock = this.lockFor(key);
         try {
             lock.lock();
+            // Claimed under the lock, so that a delete either discards this first or waits for us.
+            if (!claim.getAsBoolean()) {
+                return false;
+            }
             this.cache.put(key, value);
             this.saveObject(key, value);
             value.markDirty(false);
+            return true;
         } finally {
             lock.unlock();
         }
@@ -284,33 +448,36 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
     @Override
     public CompletableFuture<Void> delete(@NonNull final K key) {
         return ServicesUtil.run(() -> {
-            final ReentrantReadWriteLock reentrantReadWriteLock = this.dataLocks.get(key);
-            final ReentrantReadWriteLock.WriteLock lock = reentrantReadWriteLock.writeLock();
+            final ReentrantLock lock = this.lockFor(key);
             try {
                 lock.lock();
+                this.writeBehindQueue.discard(key);
                 this.storageRepositorySupplier.get().delete(key);
                 final D o = this.cache.getIfPresent(key);
                 if (o != null) {
                     o.markDirty(false); // don't want to save it
                 }
                 this.cache.invalidate(key);
-                return null;
             } finally {
                 lock.unlock();
             }
+
+            this.notifyDeleteListeners(key);
+            return null;
         }, this.pluginContainer);
     }
 
     @Override
     public CompletableFuture<Void> ensureSaved() {
-        return ServicesUtil.run(() -> {
+        return this.writeBehindQueue.flush().thenCompose(v -> {
+            final List<CompletableFuture<Void>> futures = new ArrayList<>();
             for (final Map.Entry<K, D> objectToSave : new HashMap<>(this.cache.asMap()).entrySet()) {
                 if (objectToSave.getValue() != null && objectToSave.getValue().isDirty()) {
-                    this.save(objectToSave.getKey(), objectToSave.getValue());
+                    futures.add(this.save(objectToSave.getKey(), objectToSave.getValue()));
                 }
             }
-            return null;
-        }, this.pluginContainer);
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        });
     }
 
     private void onRemoval(@Nullable final K key, @Nullable final D dataObject, @NonNull final RemovalCause removalCause) {
@@ -321,4 +488,16 @@ public abstract class AbstractKeyedService<K, Q extends IQueryObject<K, Q>, D ex
     }
 
     protected abstract void onEviction(final K key, final D dataObject, final BiConsumer<K, D> reAdd);
+
+    private static final class PreloadThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "Nucleus Storage Preloader - " + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -11,10 +11,13 @@ import io.github.nucleuspowered.storage.query.IQueryObject;
 import io.github.nucleuspowered.storage.util.KeyedObject;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * The entry point into the storage system. All storage checks are not dependent on the main thread,
@@ -272,6 +275,41 @@ public interface IStorageService<D extends IDataObject> {
          */
         CompletableFuture<Void> clearCacheUnless(Set<K> keysToKeep);
 
+        /**
+         * Loads the objects associated with the provided keys into the cache, if
+         * they are not already there.
+         *
+         * <p>Objects are read and decoded in parallel, so this should be preferred
+         * over multiple calls to {@link #get(Object)} when many objects are
+         * going to be required in a short space of time.</p>
+         *
+         * @param keys The keys to load
+         * @return A {@link CompletableFuture} containing the number of objects that were loaded
+         */
+        CompletableFuture<Integer> preload(Collection<K> keys);
+
+        /**
+         * Registers a listener that is told about every object that is saved, or
+         * queued to be saved, against its key.
+         *
+         * <p>Listeners are called on the thread that requested the save, so must
+         * be quick and must not block.</p>
+         *
+         * @param listener The listener
+         */
+        void addSaveListener(BiConsumer<K, D> listener);
+
+        /**
+         * Registers a listener that is told about the key of every object that is
+         * deleted.
+         *
+         * <p>Listeners are called on the thread that deletes the object, once it
+         * has been deleted, so must be quick and must not block.</p>
+         *
+         * @param listener The listener
+         */
+        void addDeleteListener(Consumer<K> listener);
+
         /**
          * Indicates the data is also keyed.
          *
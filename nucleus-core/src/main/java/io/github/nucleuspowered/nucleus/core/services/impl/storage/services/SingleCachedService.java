@@ -49,12 +49,11 @@ public class SingleCachedService<O extends IDataObject> implements IStorageServi
 
     @Override
     public CompletableFuture<Void> ensureSaved() {
-        return ServicesUtil.run(() -> {
-            if (this.cached != null) {
-                this.save(this.cached);
-            }
-            return null;
-        }, this.pluginContainer);
+        final O toSave = this.cached;
+        if (toSave == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return this.save(toSave);
     }
 
     @Override
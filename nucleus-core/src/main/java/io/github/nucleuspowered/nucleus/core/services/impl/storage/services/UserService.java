@@ -18,7 +18,8 @@ import java.util.function.BiConsumer;
 public final class UserService extends AbstractKeyedService<UUID, IUserQueryObject, IUserDataObject, DataContainer> {
 
     public UserService(final IStorageManager repository, final PluginContainer pluginContainer, final IDataVersioning dataVersioning) {
-        super(repository::getUserDataAccess, repository::getUserRepository, dataVersioning::migrate, dataVersioning::setVersion, pluginContainer);
+        super("user", repository::getUserDataAccess, repository::getUserRepository, dataVersioning::migrate, dataVersioning::setVersion,
+                repository::getWriteBehindWindow, pluginContainer);
     }
 
     @Override
@@ -18,7 +18,8 @@ import java.util.function.BiConsumer;
 public class WorldService extends AbstractKeyedService<ResourceKey, IWorldQueryObject, IWorldDataObject, DataContainer> {
 
     public WorldService(final IStorageManager repository, final PluginContainer pluginContainer, final IDataVersioning dataVersioning) {
-        super(repository::getWorldDataAccess, repository::getWorldRepository, dataVersioning::migrate, dataVersioning::setVersion, pluginContainer);
+        super("world", repository::getWorldDataAccess, repository::getWorldRepository, dataVersioning::migrate, dataVersioning::setVersion,
+                repository::getWriteBehindWindow, pluginContainer);
     }
 
     @Override
@@ -0,0 +1,329 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.storage.services;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Defers and coalesces saves of keyed data.
+ *
+ * <p>Objects that are marked for saving are held for the configured window, during which any
+ * further saves for the same key replace the queued object rather than causing another write.
+ * Due objects are written in batches on a dedicated thread.</p>
+ *
+ * @param <K> The key type
+ * @param <D> The data type
+ */
+public final class WriteBehindQueue<K, D> {
+
+    private final String name;
+    private final LongSupplier windowMillis;
+    private final Saver<K, D> saver;
+    private final Map<K, Pending<D>> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalBatchNanos = new AtomicLong();
+    private final AtomicLong lastBatchNanos = new AtomicLong();
+    private final AtomicLong maxBatchNanos = new AtomicLong();
+
+    @Nullable private volatile ScheduledExecutorService executor;
+
+    public WriteBehindQueue(final String name, final LongSupplier windowMillis, final Saver<K, D> saver) {
+        this.name = name;
+        this.windowMillis = windowMillis;
+        this.saver = saver;
+    }
+
+    /**
+     * Queues the object for saving.
+     *
+     * @param key The key
+     * @param value The value to save
+     * @return {@code false} if write behind is disabled and the caller must save the object itself
+     */
+    public boolean enqueue(final K key, final D value) {
+        if (this.windowMillis.getAsLong() <= 0) {
+            return false;
+        }
+
+        final ScheduledExecutorService service = this.getExecutor();
+        if (service == null) {
+            return false;
+        }
+
+        this.enqueued.incrementAndGet();
+        final long now = System.nanoTime();
+        this.pending.merge(key, new Pending<>(value, now), (oldValue, newValue) -> {
+            this.coalesced.incrementAndGet();
+            return new Pending<>(newValue.value, oldValue.queuedAt);
+        });
+        return true;
+    }
+
+    /**
+     * Removes any queued save for the given key, typically because the object has
+     * just been saved or deleted directly.
+     *
+     * @param key The key
+     */
+    public void discard(final K key) {
+        this.pending.remove(key);
+    }
+
+    public int depth() {
+        return this.pending.size();
+    }
+
+    /**
+     * Writes everything that is currently queued, regardless of how long it has been queued.
+     *
+     * @return A future that completes when all queued objects have been written.
+     */
+    public CompletableFuture<Void> flush() {
+        final ScheduledExecutorService service = this.executor;
+        if (service == null || service.isShutdown()) {
+            this.flush(Long.MAX_VALUE);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            service.execute(() -> {
+                this.flush(Long.MAX_VALUE);
+                future.complete(null);
+            });
+        } catch (final RejectedExecutionException ex) {
+            this.flush(Long.MAX_VALUE);
+            future.complete(null);
+        }
+        return future;
+    }
+
+    /**
+     * Flushes the queue and stops the writer thread. The thread will be started again if
+     * anything else is queued.
+     */
+    public void shutdown() {
+        final ScheduledExecutorService service;
+        synchronized (this) {
+            service = this.executor;
+            this.executor = null;
+        }
+        if (service != null) {
+            service.shutdown();
+            try {
+                service.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.flush(Long.MAX_VALUE);
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(
+                this.name,
+                this.pending.size(),
+                this.enqueued.get(),
+                this.coalesced.get(),
+                this.written.get(),
+                this.failed.get(),
+                this.batches.get(),
+                this.totalBatchNanos.get(),
+                this.lastBatchNanos.get(),
+                this.maxBatchNanos.get());
+    }
+
+    @Nullable
+    private ScheduledExecutorService getExecutor() {
+        ScheduledExecutorService service = this.executor;
+        if (service == null) {
+            synchronized (this) {
+                service = this.executor;
+                if (service == null) {
+                    final ScheduledThreadPoolExecutor created = new ScheduledThreadPoolExecutor(1, runnable -> {
+                        final Thread thread = new Thread(runnable, "Nucleus Storage Writer - " + this.name);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    // Don't wait for the next scheduled flush when shutting down, shutdown() flushes anyway.
+                    created.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+                    service = created;
+                    this.executor = service;
+                    this.scheduleNext(service);
+                }
+            }
+        }
+        return service.isShutdown() ? null : service;
+    }
+
+    private void scheduleNext(final ScheduledExecutorService service) {
+        final long delay = Math.max(50L, this.windowMillis.getAsLong() / 2);
+        try {
+            service.schedule(() -> {
+                try {
+                    this.flush(TimeUnit.MILLISECONDS.toNanos(Math.max(0L, this.windowMillis.getAsLong())));
+                } finally {
+                    this.scheduleNext(service);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException ex) {
+            // shutting down
+        }
+    }
+
+    private void flush(final long olderThanNanos) {
+        final long start = System.nanoTime();
+        final List<Map.Entry<K, Pending<D>>> due = new ArrayList<>();
+        for (final Map.Entry<K, Pending<D>> entry : this.pending.entrySet()) {
+            if (olderThanNanos == Long.MAX_VALUE || start - entry.getValue().queuedAt >= olderThanNanos) {
+                due.add(entry);
+            }
+        }
+
+        if (due.isEmpty()) {
+            return;
+        }
+
+        for (final Map.Entry<K, Pending<D>> entry : due) {
+            final K key = entry.getKey();
+            final Pending<D> queued = entry.getValue();
+            try {
+                // Only write if nothing has superseded or discarded this entry since we looked at it.
+                if (this.saver.save(key, queued.value, () -> this.pending.remove(key, queued))) {
+                    this.written.incrementAndGet();
+                }
+            } catch (final Exception e) {
+                this.failed.incrementAndGet();
+                e.printStackTrace();
+            }
+        }
+
+        final long time = System.nanoTime() - start;
+        this.batches.incrementAndGet();
+        this.totalBatchNanos.addAndGet(time);
+        this.lastBatchNanos.set(time);
+        this.maxBatchNanos.accumulateAndGet(time, Math::max);
+    }
+
+    @FunctionalInterface
+    public interface Saver<K, D> {
+
+        /**
+         * Saves a queued object.
+         *
+         * <p>The claim removes the object from the queue, and returns {@code false} if it has
+         * since been replaced or discarded. It must be called while holding whatever lock
+         * serialises saves with deletes of the key, and the object only written if it
+         * returns {@code true}, otherwise a delete could happen between the two and the
+         * object would be written back.</p>
+         *
+         * @param key The key
+         * @param value The value to save
+         * @param claim Claims the object from the queue
+         * @return Whether the object was written
+         * @throws Exception if the object could not be written
+         */
+        boolean save(K key, D value, BooleanSupplier claim) throws Exception;
+
+    }
+
+    private static final class Pending<D> {
+
+        private final D value;
+        private final long queuedAt;
+
+        private Pending(final D value, final long queuedAt) {
+            this.value = value;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+    public static final class Statistics {
+
+        private final String name;
+        private final int depth;
+        private final long enqueued;
+        private final long coalesced;
+        private final long written;
+        private final long failed;
+        private final long batches;
+        private final long totalBatchNanos;
+        private final long lastBatchNanos;
+        private final long maxBatchNanos;
+
+        Statistics(final String name, final int depth, final long enqueued, final long coalesced, final long written, final long failed,
+                final long batches, final long totalBatchNanos, final long lastBatchNanos, final long maxBatchNanos) {
+            this.name = name;
+            this.depth = depth;
+            this.enqueued = enqueued;
+            this.coalesced = coalesced;
+            this.written = written;
+            this.failed = failed;
+            this.batches = batches;
+            this.totalBatchNanos = totalBatchNanos;
+            this.lastBatchNanos = lastBatchNanos;
+            this.maxBatchNanos = maxBatchNanos;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public int getDepth() {
+            return this.depth;
+        }
+
+        public long getEnqueued() {
+            return this.enqueued;
+        }
+
+        public long getCoalesced() {
+            return this.coalesced;
+        }
+
+        public long getWritten() {
+            return this.written;
+        }
+
+        public long getFailed() {
+            return this.failed;
+        }
+
+        public long getBatches() {
+            return this.batches;
+        }
+
+        public double getAverageBatchMillis() {
+            return this.batches == 0 ? 0 : (this.totalBatchNanos / (double) this.batches) / 1_000_000d;
+        }
+
+        public double getLastBatchMillis() {
+            return this.lastBatchNanos / 1_000_000d;
+        }
+
+        public double getMaxBatchMillis() {
+            return this.maxBatchNanos / 1_000_000d;
+        }
+    }
+
+}
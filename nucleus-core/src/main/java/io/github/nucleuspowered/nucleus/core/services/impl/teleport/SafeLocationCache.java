@@ -0,0 +1,283 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.teleport;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.github.nucleuspowered.nucleus.api.teleport.data.TeleportScanner;
+import io.github.nucleuspowered.nucleus.core.core.teleport.scanners.NoTeleportScanner;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.INucleusLocationService;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.ResourceKey;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.world.server.ServerLocation;
+import org.spongepowered.api.world.server.ServerWorld;
+import org.spongepowered.api.world.teleport.TeleportHelperFilter;
+import org.spongepowered.math.vector.Vector3d;
+import org.spongepowered.math.vector.Vector3i;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the results of safe location scans.
+ *
+ * <p>Each result records the volume that the scan could have looked at, and is indexed
+ * by the chunks that volume covers, so that a block change only needs to look at the
+ * results for its own chunk. Any result whose volume contains the changed block is
+ * removed. Results also expire after a while, in case a change is made without an
+ * event being fired.</p>
+ *
+ * <p>As a change may still be missed, the blocks at the feet and head of a cached
+ * location are checked again before it is returned.</p>
+ */
+final class SafeLocationCache {
+
+    private static final long EXPIRY_MINUTES = 10;
+
+    private final Cache<Key, Result> cache;
+    private final Map<ResourceKey, Map<Long, Set<Key>>> chunkIndex = new ConcurrentHashMap<>();
+    private final LongAdder invalidations = new LongAdder();
+
+    SafeLocationCache(final int maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(EXPIRY_MINUTES, TimeUnit.MINUTES)
+                .executor(Runnable::run)
+                .removalListener(this::onRemoval)
+                .recordStats()
+                .build();
+    }
+
+    private static long chunkKey(final int chunkX, final int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    Optional<ServerLocation> get(
+            final ServerWorld world,
+            final Vector3i position,
+            final TeleportScanner scanner,
+            final int height,
+            final int width,
+            final int floor,
+            final TeleportHelperFilter filter,
+            final TeleportHelperFilter[] filters) {
+        final Key key = new Key(world.key(), position, scanner, height, width, floor, filter, filters);
+
+        // Peeking through the map view does not count as a hit or miss.
+        final Result cached = this.cache.asMap().get(key);
+        if (cached != null && cached.position != null && !SafeLocationCache.isStillSafe(world, cached.position.floor().toInt(), filter, filters)) {
+            this.invalidations.increment();
+            this.cache.invalidate(key);
+        }
+
+        final Result result = this.cache.get(key, k -> {
+            final Optional<ServerLocation> location = scanner.scanFrom(world, position, height, width, floor, filter, filters);
+            final Result r = new Result(location.map(ServerLocation::position).orElse(null), world, position, scanner, height, width, floor);
+            this.index(k, r);
+            return r;
+        });
+
+        if (result == null || result.position == null) {
+            return Optional.empty();
+        }
+        return Optional.of(ServerLocation.of(world, result.position));
+    }
+
+    void invalidate(final ResourceKey world, final Vector3i position) {
+        final Map<Long, Set<Key>> chunks = this.chunkIndex.get(world);
+        if (chunks == null) {
+            return;
+        }
+
+        final Set<Key> keys = chunks.get(SafeLocationCache.chunkKey(position.x() >> 4, position.z() >> 4));
+        if (keys == null) {
+            return;
+        }
+
+        // Keys with no value are left alone, as the value may still be being computed. The
+        // removal listener removes keys from the index once their values are gone.
+        for (final Key key : keys) {
+            final Result result = this.cache.getIfPresent(key);
+            if (result != null && result.contains(position)) {
+                this.invalidations.increment();
+                this.cache.invalidate(key);
+            }
+        }
+    }
+
+    void invalidate(final ResourceKey world) {
+        final Map<Long, Set<Key>> chunks = this.chunkIndex.remove(world);
+        if (chunks != null) {
+            for (final Set<Key> keys : chunks.values()) {
+                this.cache.invalidateAll(keys);
+            }
+        }
+    }
+
+    void invalidateAll() {
+        this.cache.invalidateAll();
+        this.chunkIndex.clear();
+    }
+
+    INucleusLocationService.CacheStatistics getStatistics() {
+        final com.github.benmanes.caffeine.cache.stats.CacheStats stats = this.cache.stats();
+        return new INucleusLocationService.CacheStatistics(
+                stats.hitCount(),
+                stats.missCount(),
+                this.invalidations.sum(),
+                this.cache.estimatedSize());
+    }
+
+    private static boolean isStillSafe(final ServerWorld world, final Vector3i feet, final TeleportHelperFilter filter,
+            final TeleportHelperFilter[] filters) {
+        final BlockState feetBlock = world.block(feet);
+        final BlockState headBlock = world.block(feet.add(0, 1, 0));
+        if (!filter.isSafeBodyMaterial(feetBlock) || !filter.isSafeBodyMaterial(headBlock)) {
+            return false;
+        }
+
+        for (final TeleportHelperFilter f : filters) {
+            if (!f.isSafeBodyMaterial(feetBlock) || !f.isSafeBodyMaterial(headBlock)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void index(final Key key, final Result result) {
+        final Map<Long, Set<Key>> chunks = this.chunkIndex.computeIfAbsent(key.world, x -> new ConcurrentHashMap<>());
+        for (int x = result.minX >> 4; x <= result.maxX >> 4; x++) {
+            for (int z = result.minZ >> 4; z <= result.maxZ >> 4; z++) {
+                chunks.computeIfAbsent(SafeLocationCache.chunkKey(x, z), c -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        }
+    }
+
+    private void onRemoval(@Nullable final Key key, @Nullable final Result result, final RemovalCause cause) {
+        if (key == null || result == null || cause == RemovalCause.REPLACED) {
+            return;
+        }
+
+        final Map<Long, Set<Key>> chunks = this.chunkIndex.get(key.world);
+        if (chunks != null) {
+            for (int x = result.minX >> 4; x <= result.maxX >> 4; x++) {
+                for (int z = result.minZ >> 4; z <= result.maxZ >> 4; z++) {
+                    final Set<Key> keys = chunks.get(SafeLocationCache.chunkKey(x, z));
+                    if (keys != null) {
+                        keys.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Key {
+
+        private final ResourceKey world;
+        private final Vector3i position;
+        private final TeleportScanner scanner;
+        private final int height;
+        private final int width;
+        private final int floor;
+        private final TeleportHelperFilter filter;
+        private final List<TeleportHelperFilter> filters;
+        private final int hashCode;
+
+        private Key(final ResourceKey world,
+                final Vector3i position,
+                final TeleportScanner scanner,
+                final int height,
+                final int width,
+                final int floor,
+                final TeleportHelperFilter filter,
+                final TeleportHelperFilter[] filters) {
+            this.world = world;
+            this.position = position;
+            this.scanner = scanner;
+            this.height = height;
+            this.width = width;
+            this.floor = floor;
+            this.filter = filter;
+            this.filters = Arrays.asList(filters.clone());
+            this.hashCode = Objects.hash(world, position, scanner, height, width, floor, filter, this.filters);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || this.getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return this.hashCode == key.hashCode
+                    && this.height == key.height
+                    && this.width == key.width
+                    && this.floor == key.floor
+                    && this.world.equals(key.world)
+                    && this.position.equals(key.position)
+                    && this.scanner.equals(key.scanner)
+                    && this.filter.equals(key.filter)
+                    && this.filters.equals(key.filters);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+    private static final class Result {
+
+        @Nullable private final Vector3d position;
+        private final int minX;
+        private final int maxX;
+        private final int minY;
+        private final int maxY;
+        private final int minZ;
+        private final int maxZ;
+
+        private Result(@Nullable final Vector3d position,
+                final ServerWorld world,
+                final Vector3i origin,
+                final TeleportScanner scanner,
+                final int height,
+                final int width,
+                final int floor) {
+            this.position = position;
+            this.minX = origin.x() - width;
+            this.maxX = origin.x() + width;
+            this.minZ = origin.z() - width;
+            this.maxZ = origin.z() + width;
+            if (scanner instanceof NoTeleportScanner) {
+                // The floor check looks further down than the scan itself.
+                this.minY = origin.y() - height - floor;
+                this.maxY = origin.y() + height;
+            } else {
+                // Other scanners may walk the whole column, so any change in it counts.
+                this.minY = world.min().y();
+                this.maxY = world.max().y();
+            }
+        }
+
+        private boolean contains(final Vector3i position) {
+            return position.x() >= this.minX && position.x() <= this.maxX
+                    && position.y() >= this.minY && position.y() <= this.maxY
+                    && position.z() >= this.minZ && position.z() <= this.maxZ;
+        }
+    }
+
+}
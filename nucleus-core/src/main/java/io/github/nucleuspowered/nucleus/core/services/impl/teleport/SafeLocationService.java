@@ -16,6 +16,8 @@ import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.INucleusLocationService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
 import net.kyori.adventure.audience.Audience;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.ResourceKey;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.data.Keys;
 import org.spongepowered.api.entity.living.player.gamemode.GameModes;
@@ -29,6 +31,7 @@ import org.spongepowered.api.world.teleport.TeleportHelper;
 import org.spongepowered.api.world.teleport.TeleportHelperFilter;
 import org.spongepowered.api.world.teleport.TeleportHelperFilters;
 import org.spongepowered.math.vector.Vector3d;
+import org.spongepowered.math.vector.Vector3i;
 
 import java.lang.ref.WeakReference;
 import java.util.Optional;
@@ -38,6 +41,7 @@ public class SafeLocationService implements INucleusLocationService, IReloadable
 
     private static final BorderDisableSession DUMMY = new BorderDisableSession() {};
     private SafeTeleportConfig config = new SafeTeleportConfig();
+    @Nullable private volatile SafeLocationCache cache;
 
     @Inject
     public SafeLocationService(final IReloadableService reloadable) {
@@ -137,9 +141,23 @@ public class SafeLocationService implements INucleusLocationService, IReloadable
             final TeleportScanner scanner,
             final TeleportHelperFilter filter,
             final TeleportHelperFilter... filters) {
-        return scanner.scanFrom(
+        final SafeLocationCache cache = this.cache;
+        if (cache == null || (filter == NucleusTeleportHelperFilters.NO_CHECK.get() && filters.length == 0)) {
+            return scanner.scanFrom(
+                    location.world(),
+                    location.blockPosition(),
+                    this.config.getHeight(),
+                    this.config.getWidth(),
+                    TeleportHelper.DEFAULT_FLOOR_CHECK_DISTANCE,
+                    filter,
+                    filters
+            );
+        }
+
+        return cache.get(
                 location.world(),
                 location.blockPosition(),
+                scanner,
                 this.config.getHeight(),
                 this.config.getWidth(),
                 TeleportHelper.DEFAULT_FLOOR_CHECK_DISTANCE,
@@ -148,6 +166,31 @@ public class SafeLocationService implements INucleusLocationService, IReloadable
         );
     }
 
+    @Override
+    public void invalidateSafeLocations(final ResourceKey world, final Vector3i position) {
+        final SafeLocationCache cache = this.cache;
+        if (cache != null) {
+            cache.invalidate(world, position);
+        }
+    }
+
+    @Override
+    public void invalidateSafeLocations(final ResourceKey world) {
+        final SafeLocationCache cache = this.cache;
+        if (cache != null) {
+            cache.invalidate(world);
+        }
+    }
+
+    @Override
+    public CacheStatistics getSafeLocationCacheStatistics() {
+        final SafeLocationCache cache = this.cache;
+        if (cache == null) {
+            return new CacheStatistics(0, 0, 0, 0);
+        }
+        return cache.getStatistics();
+    }
+
     @Override
     public TeleportHelperFilter getAppropriateFilter(final ServerPlayer src, final boolean safeTeleport) {
         if (safeTeleport && !src.get(Keys.GAME_MODE).filter(x -> x == GameModes.SPECTATOR.get()).isPresent()) {
@@ -164,6 +207,11 @@ public class SafeLocationService implements INucleusLocationService, IReloadable
     @Override
     public void onReload(final INucleusServiceCollection serviceCollection) {
         this.config = serviceCollection.configProvider().getCoreConfig().getSafeTeleportConfig();
+        // The scan size may have changed, so start again.
+        if (this.cache != null) {
+            this.cache.invalidateAll();
+        }
+        this.cache = this.config.getCacheSize() > 0 ? new SafeLocationCache(this.config.getCacheSize()) : null;
     }
 
     @Override
@@ -0,0 +1,119 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.textstyle;
+
+import java.util.Arrays;
+
+/**
+ * Works with the {@code &} formatting codes for colours and styles in a string, given a
+ * bitmask of the codes that may be used.
+ *
+ * <p>Each colour and style code has its own bit, see {@link #bit(char)}. Codes are case
+ * insensitive. Codes that are not colours or styles, such as {@code &r}, are always
+ * allowed.</p>
+ */
+public final class FormattingCodes {
+
+    /**
+     * The colour codes, then the style codes, in the order of their bits.
+     */
+    public static final String CODES = "0123456789abcdefklmno";
+
+    /**
+     * The mask that allows every code.
+     */
+    public static final int ALL = (1 << CODES.length()) - 1;
+
+    private static final int[] BITS = new int[128];
+
+    static {
+        Arrays.fill(BITS, -1);
+        for (int i = 0; i < CODES.length(); i++) {
+            final char code = CODES.charAt(i);
+            BITS[code] = i;
+            BITS[Character.toUpperCase(code)] = i;
+        }
+    }
+
+    private FormattingCodes() {
+    }
+
+    /**
+     * Gets the bit that represents the given code.
+     *
+     * @param code The code
+     * @return The bit, or {@code -1} if the code is not a colour or style code
+     */
+    public static int bit(final char code) {
+        return code < 128 ? BITS[code] : -1;
+    }
+
+    /**
+     * Gets whether the given code is a colour or style code that is not in the mask.
+     *
+     * @param code The code
+     * @param allowed The mask of allowed codes
+     * @return Whether the code is not allowed
+     */
+    public static boolean isDisallowed(final char code, final int allowed) {
+        final int bit = FormattingCodes.bit(code);
+        return bit != -1 && (allowed & (1 << bit)) == 0;
+    }
+
+    /**
+     * Removes the codes that are not allowed from the message.
+     *
+     * <p>This is done in a single pass. Removing a code may join up an {@code &} before it
+     * with the character after it, such as in {@code &&aa}, so the output is treated as a
+     * stack: an {@code &} at the top of it is removed along with the code that follows.</p>
+     *
+     * @param message The message
+     * @param allowed The mask of allowed codes
+     * @return The message without the codes that are not allowed
+     */
+    public static String strip(final String message, final int allowed) {
+        if (allowed == ALL || message.indexOf('&') == -1) {
+            return message;
+        }
+
+        final StringBuilder builder = new StringBuilder(message.length());
+        for (int i = 0; i < message.length(); i++) {
+            final char c = message.charAt(i);
+            final int length = builder.length();
+            if (length > 0 && builder.charAt(length - 1) == '&' && FormattingCodes.isDisallowed(c, allowed)) {
+                builder.setLength(length - 1);
+            } else {
+                builder.append(c);
+            }
+        }
+
+        return builder.length() == message.length() ? message : builder.toString();
+    }
+
+    /**
+     * Gets whether the message contains any codes that are not allowed.
+     *
+     * @param message The message
+     * @param allowed The mask of allowed codes
+     * @return Whether {@link #strip(String, int)} would change the message
+     */
+    public static boolean containsDisallowed(final String message, final int allowed) {
+        if (allowed == ALL) {
+            return false;
+        }
+
+        // Stripping can only expose a code if it removed one, so one look is enough.
+        int index = message.indexOf('&');
+        while (index != -1 && index < message.length() - 1) {
+            if (FormattingCodes.isDisallowed(message.charAt(index + 1), allowed)) {
+                return true;
+            }
+            index = message.indexOf('&', index + 1);
+        }
+
+        return false;
+    }
+
+}
@@ -4,6 +4,8 @@
  */
 package io.github.nucleuspowered.nucleus.core.services.impl.textstyle;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.google.inject.Inject;
@@ -23,6 +25,7 @@ import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.service.permission.PermissionService;
 import org.spongepowered.api.service.permission.Subject;
 
 import java.net.MalformedURLException;
@@ -36,6 +39,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -62,6 +67,13 @@ public class TextStyleService implements ITextStyleService {
 
     private final Style resetStyle;
 
+    // Masks of the formatting codes each subject may use, see FormattingCodes, by the
+    // collection and identifier of the subject, see cacheKey, and then by the permission
+    // prefixes checked.
+    private final Cache<String, Map<PermissionPrefixes, Integer>> allowedCodes = Caffeine.newBuilder()
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
     @Inject
     public TextStyleService(
             final IPermissionService permissionService,
@@ -187,20 +199,11 @@ public class TextStyleService implements ITextStyleService {
     }
 
     private String stripPermissionless(final List<String> permissionPrefixColour, final String permissionPrefixStyle, final Subject source, final String oldMessage) {
-        String message = oldMessage;
-        if (message.contains("&")) {
-            // Find the next
-            final String p = this.getRegexForPermissionless(source, permissionPrefixColour, permissionPrefixStyle);
-            if (p != null) {
-                int oldlength;
-                do {
-                    oldlength = message.length();
-                    message = Pattern.compile(p, Pattern.CASE_INSENSITIVE).matcher(p).replaceAll("");
-                } while (oldlength != message.length());
-            }
+        if (oldMessage.indexOf('&') == -1) {
+            return oldMessage;
         }
 
-        return message;
+        return FormattingCodes.strip(oldMessage, this.getAllowedCodes(source, permissionPrefixColour, permissionPrefixStyle));
     }
 
     @Override
@@ -217,85 +220,86 @@ public class TextStyleService implements ITextStyleService {
     private Collection<String> wouldStrip(final List<String> permissionPrefixColour,
             final String permissionPrefixStyle,
             final Subject source,
-    final String oldMessage) {
-        if (oldMessage.contains("&")) {
-            // Find the next
-            final String p = this.getRegexForPermissionless(source, permissionPrefixColour, permissionPrefixStyle);
-            if (p != null) {
-                // Scan the message for any of these tokens.
-                final Pattern pattern = Pattern.compile(p);
-                if (pattern.matcher(oldMessage).find()) {
-                    final List<String> name = new ArrayList<>();
-                    // We don't support these.
-                    for (final char a : p.toCharArray()) {
-                        if (a == '&' || a == '[' || a == ']') {
-                            continue;
-                        }
-                        final TextColor textColor = this.idToColour.get(a);
-                        if (textColor != null) {
-                            name.add(textColor.toString());
-                        } else {
-                            final String nullableName = this.styleToPerms.get(this.idToStyle.get(a));
-                            if (nullableName != null) {
-                                name.add(nullableName);
-                            }
-                        }
+            final String oldMessage) {
+        if (oldMessage.indexOf('&') == -1) {
+            return Collections.emptyList();
+        }
+
+        final int allowed = this.getAllowedCodes(source, permissionPrefixColour, permissionPrefixStyle);
+        if (!FormattingCodes.containsDisallowed(oldMessage, allowed)) {
+            return Collections.emptyList();
+        }
+
+        // Lists every code the subject can't use, not just those in the message.
+        final List<String> name = new ArrayList<>();
+        for (final char code : FormattingCodes.CODES.toCharArray()) {
+            if (FormattingCodes.isDisallowed(code, allowed)) {
+                final TextColor textColor = this.idToColour.get(code);
+                if (textColor != null) {
+                    name.add(textColor.toString());
+                } else {
+                    final String nullableName = this.styleToPerms.get(this.idToStyle.get(code));
+                    if (nullableName != null) {
+                        name.add(nullableName);
                     }
-
-                    return Collections.unmodifiableList(name);
                 }
             }
         }
 
-        return Collections.emptyList();
+        return Collections.unmodifiableList(name);
     }
 
-    @Nullable
-    private String getRegexForPermissionless(final Subject subject, final List<String> permissionPrefixColour, final String stylePrefix) {
-        final String keys = this.getKeys(subject, permissionPrefixColour, stylePrefix);
-        if (keys != null) {
-            return "&[" + keys + "]";
+    @Override
+    public void invalidateCache(final Subject subject) {
+        if (PermissionService.SUBJECTS_USER.equals(subject.containingCollection().identifier())) {
+            this.allowedCodes.invalidate(TextStyleService.cacheKey(subject));
+        } else {
+            // Groups and defaults can be inherited by anyone.
+            this.invalidateCache();
         }
+    }
+
+    @Override
+    public void invalidateCache() {
+        this.allowedCodes.invalidateAll();
+    }
+
+    // Subjects in different collections may share an identifier.
+    private static String cacheKey(final Subject subject) {
+        return subject.containingCollection().identifier() + "/" + subject.identifier();
+    }
 
-        return null;
+    private int getAllowedCodes(final Subject subject, final List<String> permissionPrefixColour, final String stylePrefix) {
+        return this.allowedCodes.get(TextStyleService.cacheKey(subject), x -> new ConcurrentHashMap<>())
+                .computeIfAbsent(new PermissionPrefixes(permissionPrefixColour, stylePrefix), x -> this.computeAllowedCodes(subject, x));
     }
 
-    @Nullable
-    private String getKeys(final Subject subject, final List<String> permissionPrefixColour, final String stylePrefix) {
-        final StringBuilder stringBuilder = new StringBuilder();
-        for (final Map.Entry<TextColor, String> suffix : this.colourToPermissionSuffix.entrySet()) {
-            if (permissionPrefixColour.stream().noneMatch(prefix -> {
+    private int computeAllowedCodes(final Subject subject, final PermissionPrefixes prefixes) {
+        int allowed = 0;
+        for (final Map.Entry<Character, TextColor> entry : this.idToColour.entrySet()) {
+            final String suffix = this.colourToPermissionSuffix.get(entry.getValue());
+            if (prefixes.colour.stream().anyMatch(prefix -> {
                 final String p = prefix.endsWith(".") ? prefix : prefix + ".";
-                return this.permissionService.hasPermission(subject, p + suffix.getValue());
+                return this.permissionService.hasPermission(subject, p + suffix);
             })) {
-                final Character c = this.idToColour.inverse().get(suffix.getKey());
-                if (c != null) {
-                    stringBuilder.append(c);
-                }
+                allowed |= 1 << FormattingCodes.bit(entry.getKey());
             }
         }
 
         final String p;
-        if (stylePrefix.endsWith(".")) {
-            p = stylePrefix;
+        if (prefixes.style.endsWith(".")) {
+            p = prefixes.style;
         } else {
-            p = stylePrefix + ".";
+            p = prefixes.style + ".";
         }
 
-        for (final Map.Entry<TextDecoration, String> suffix : this.styleToPerms.entrySet()) {
-            if (!this.permissionService.hasPermission(subject, p + suffix.getValue())) {
-                final Character c = this.idToStyle.inverse().get(suffix.getKey());
-                if (c != null) {
-                    stringBuilder.append(c);
-                }
+        for (final Map.Entry<Character, TextDecoration> entry : this.idToStyle.entrySet()) {
+            if (this.permissionService.hasPermission(subject, p + this.styleToPerms.get(entry.getValue()))) {
+                allowed |= 1 << FormattingCodes.bit(entry.getKey());
             }
         }
 
-        if (stringBuilder.length() > 0) {
-            return stringBuilder.toString();
-        }
-
-        return null;
+        return allowed;
     }
 
     @Override
@@ -543,6 +547,34 @@ public class TextStyleService implements ITextStyleService {
         return builder;
     }
 
+    private static final class PermissionPrefixes {
+
+        private final List<String> colour;
+        private final String style;
+
+        private PermissionPrefixes(final List<String> colour, final String style) {
+            this.colour = colour;
+            this.style = style;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || this.getClass() != o.getClass()) {
+                return false;
+            }
+            final PermissionPrefixes that = (PermissionPrefixes) o;
+            return this.colour.equals(that.colour) && this.style.equals(that.style);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.colour.hashCode() + this.style.hashCode();
+        }
+    }
+
     public static class TextFormatImpl implements TextFormat {
 
         @Nullable private final TextColor colour;
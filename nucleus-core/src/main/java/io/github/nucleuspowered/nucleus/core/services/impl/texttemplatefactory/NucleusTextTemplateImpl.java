@@ -6,6 +6,7 @@ package io.github.nucleuspowered.nucleus.core.services.impl.texttemplatefactory;
 
 import io.github.nucleuspowered.nucleus.api.text.NucleusTextTemplate;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.impl.placeholder.CompiledPlaceholder;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
 import net.kyori.adventure.text.TextComponent;
@@ -13,6 +14,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.Sponge;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -31,13 +33,16 @@ public class NucleusTextTemplateImpl implements NucleusTextTemplate {
     @Nullable private final Component prefix;
     @Nullable private final Component suffix;
     @Nullable private final INucleusServiceCollection serviceCollection;
+    @Nullable private CompiledPlaceholder displayName;
+    @Nullable private volatile TickFragments tickFragments;
 
     public NucleusTextTemplateImpl(
             @Nullable final INucleusServiceCollection serviceCollection,
             final List<BiFunction<Object, Map<String, Function<Object, Optional<ComponentLike>>>, Component>> texts,
             @Nullable final Component prefix,
             @Nullable final Component suffix) {
-        this.texts = texts;
+        // Elements are looked up by index when rendering.
+        this.texts = new ArrayList<>(texts);
         this.prefix = prefix;
         this.suffix = suffix;
         this.serviceCollection = serviceCollection;
@@ -71,8 +76,7 @@ public class NucleusTextTemplateImpl implements NucleusTextTemplate {
         if (this.serviceCollection == null) {
             return Component.empty();
         }
-        final Optional<ComponentLike> s =
-                Optional.of(this.serviceCollection.placeholderService().parse(sender, "displayname"));
+        final Optional<ComponentLike> s = Optional.of(this.senderDisplayName(sender));
         return this.get(source, false, Collections.singletonMap("sender", se -> s));
     }
 
@@ -102,13 +106,36 @@ public class NucleusTextTemplateImpl implements NucleusTextTemplate {
         return this.get(source, true, null);
     }
 
+    /**
+     * Creates a renderer for sending this template to many recipients, where each
+     * recipient is the source of the placeholders in the template and the
+     * {@code {{sender}}} token is the display name of the given sender.
+     *
+     * <p>Text, links, global placeholders and the sender are rendered once for every
+     * recipient, so only placeholders that depend on the recipient are rendered for each
+     * of them. Text, links and global placeholders are also kept for the rest of the
+     * tick, so that other broadcasts of this template in the same tick reuse them.</p>
+     *
+     * @param sender The sender
+     * @return The renderer, which takes the recipient
+     */
+    public Function<Object, Component> createBroadcastRenderer(final Object sender) {
+        if (this.serviceCollection == null) {
+            return x -> Component.empty();
+        }
+
+        final Optional<ComponentLike> s = Optional.of(this.senderDisplayName(sender).asComponent());
+        final Map<String, Function<Object, Optional<ComponentLike>>> tokens = Collections.singletonMap("sender", se -> s);
+        final Component[] shared = this.renderShared(tokens, this.currentFragments());
+        return recipient -> this.get(recipient, true, tokens, shared);
+    }
+
     @Override
     public Component getForObjectWithSenderToken(final Object source, final Object sender) {
         if (this.serviceCollection == null) {
             return Component.empty();
         }
-        final Optional<ComponentLike> s =
-                Optional.of(this.serviceCollection.placeholderService().parse(sender, "displayname"));
+        final Optional<ComponentLike> s = Optional.of(this.senderDisplayName(sender));
         return this.get(source, true, Collections.singletonMap("sender", se -> s));
     }
 
@@ -117,8 +144,79 @@ public class NucleusTextTemplateImpl implements NucleusTextTemplate {
         return this.get(source, true, tokensArray);
     }
 
+    private ComponentLike senderDisplayName(final Object sender) {
+        CompiledPlaceholder displayName = this.displayName;
+        if (displayName == null) {
+            displayName = this.serviceCollection.placeholderService().compile("displayname");
+            this.displayName = displayName;
+        }
+        return displayName.toComponent(sender);
+    }
+
+    /**
+     * Gets the fragments of this template that depend on neither the source nor any
+     * supplied tokens, rendering them if they have not been rendered this tick.
+     *
+     * <p>Only components are kept, never the source, so nothing is held on to for any
+     * longer than it takes for the template to be rendered in a later tick.</p>
+     *
+     * @return The fragments, or {@code null} if there is no server to count ticks with
+     */
+    private Component @Nullable [] currentFragments() {
+        if (!Sponge.isServerAvailable()) {
+            return null;
+        }
+
+        final long tick = Sponge.server().runningTimeTicks().ticks();
+        TickFragments fragments = this.tickFragments;
+        if (fragments == null || fragments.tick != tick) {
+            fragments = new TickFragments(tick, this.renderShared(null, null));
+            this.tickFragments = fragments;
+        }
+        return fragments.fragments;
+    }
+
+    /**
+     * Renders the fragments of this template that will be the same whatever the source.
+     *
+     * @param tokens The supplied tokens, which must not depend on the source
+     * @param rendered Fragments that have already been rendered, which are reused
+     * @return The fragments, with {@code null} for any that depend on the source
+     */
+    private Component[] renderShared(@Nullable final Map<String, Function<Object, Optional<ComponentLike>>> tokens,
+            final Component @Nullable [] rendered) {
+        final Component[] shared = new Component[this.texts.size()];
+        for (int i = 0; i < shared.length; i++) {
+            if (rendered != null && rendered[i] != null) {
+                shared[i] = rendered[i];
+                continue;
+            }
+
+            final BiFunction<Object, Map<String, Function<Object, Optional<ComponentLike>>>, Component> element = this.texts.get(i);
+            final boolean isShared;
+            if (element instanceof TemplateParser.PlaceholderElement) {
+                final TemplateParser.PlaceholderElement placeholder = (TemplateParser.PlaceholderElement) element;
+                isShared = (tokens != null && tokens.containsKey(placeholder.getKey())) || placeholder.isGlobal();
+            } else {
+                // Everything other than placeholders and commands containing {{subject}} is fixed text.
+                isShared = !(element instanceof TemplateParser.SubjectCommand);
+            }
+
+            if (isShared) {
+                shared[i] = element.apply(null, tokens);
+            }
+        }
+        return shared;
+    }
+
     private Component get(final Object source, final boolean prefix,
             @Nullable final Map<String, Function<Object, Optional<ComponentLike>>> tokensArray) {
+        return this.get(source, prefix, tokensArray, null);
+    }
+
+    private Component get(final Object source, final boolean prefix,
+            @Nullable final Map<String, Function<Object, Optional<ComponentLike>>> tokensArray,
+            final Component @Nullable [] shared) {
         if (this.serviceCollection == null) {
             return Component.empty();
         }
@@ -128,8 +226,12 @@ public class NucleusTextTemplateImpl implements NucleusTextTemplate {
             builder.append(this.prefix);
         }
 
-        for (final BiFunction<Object, Map<String, Function<Object, Optional<ComponentLike>>>, Component> textComponent : this.texts) {
-            builder.append(textComponent.apply(source, tokensArray));
+        for (int i = 0; i < this.texts.size(); i++) {
+            if (shared != null && shared[i] != null) {
+                builder.append(shared[i]);
+            } else {
+                builder.append(this.texts.get(i).apply(source, tokensArray));
+            }
         }
 
         if (prefix && this.suffix != null) {
@@ -143,4 +245,15 @@ public class NucleusTextTemplateImpl implements NucleusTextTemplate {
     public @NonNull Component asComponent() {
         return this.getForObject(Sponge.systemSubject());
     }
+
+    private static final class TickFragments {
+
+        private final long tick;
+        private final Component[] fragments;
+
+        private TickFragments(final long tick, final Component[] fragments) {
+            this.tick = tick;
+            this.fragments = fragments;
+        }
+    }
 }
@@ -14,6 +14,8 @@ import org.spongepowered.api.Sponge;
 import org.spongepowered.api.event.Cause;
 import org.spongepowered.api.event.CauseStackManager;
 
+import java.util.function.Function;
+
 public class NucleusTextTemplateMessageSender {
 
     private final INucleusTextTemplateFactory textTemplateFactory;
@@ -63,12 +65,19 @@ public class NucleusTextTemplateMessageSender {
             }
 
             final NucleusTextTemplate template = event.getMessage();
-            if (!template.containsTokens() || event.getAudience() instanceof ForwardingAudience) {
-                final Component text = this.textTemplate.getForObjectWithSenderToken(event.getAudience(), this.sender);
+            if (!template.containsTokens() || !(event.getAudience() instanceof ForwardingAudience)) {
+                final Component text = template.getForObjectWithSenderToken(event.getAudience(), this.sender);
                 event.getAudience().sendMessage(text);
             } else {
                 final ForwardingAudience forwardingAudience = (ForwardingAudience) event.getAudience();
-                forwardingAudience.audiences().forEach(x -> x.sendMessage(this.textTemplate.getForObjectWithSenderToken(event.getAudience(), this.sender)));
+                final Function<Object, Component> renderer;
+                if (template instanceof NucleusTextTemplateImpl) {
+                    // Only renders the parts that differ between recipients for each of them.
+                    renderer = ((NucleusTextTemplateImpl) template).createBroadcastRenderer(this.sender);
+                } else {
+                    renderer = x -> template.getForObjectWithSenderToken(x, this.sender);
+                }
+                forwardingAudience.audiences().forEach(x -> x.sendMessage(renderer.apply(x)));
             }
             return true;
         }
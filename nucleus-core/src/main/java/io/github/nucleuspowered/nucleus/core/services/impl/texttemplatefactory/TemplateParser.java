@@ -6,6 +6,7 @@ package io.github.nucleuspowered.nucleus.core.services.impl.texttemplatefactory;
 
 import com.google.inject.Inject;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.core.services.impl.placeholder.CompiledPlaceholder;
 import io.github.nucleuspowered.nucleus.core.services.impl.textstyle.TextStyleService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IMessageProviderService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.INucleusTextTemplateFactory;
@@ -322,7 +323,7 @@ public final class TemplateParser implements INucleusTextTemplateFactory {
         return HoverEvent.showText(this.serviceCollection.messageProvider().getMessage("chat.command.click", cmd));
     }
 
-    private final class SubjectCommand implements BiFunction<Object, Map<String, Function<Object, Optional<ComponentLike>>>, Component> {
+    final class SubjectCommand implements BiFunction<Object, Map<String, Function<Object, Optional<ComponentLike>>>, Component> {
 
         @Nullable private final TextColor colour;
         private final Style style;
@@ -360,11 +361,21 @@ public final class TemplateParser implements INucleusTextTemplateFactory {
         @Nullable private final TextColor colour;
         private final Style style;
         private final String key;
+        private final CompiledPlaceholder placeholder;
 
         private PlaceholderElement(@Nullable final TextColor colour, final Style style, final String key) {
             this.colour = colour;
             this.style = style;
             this.key = key.toLowerCase();
+            this.placeholder = TemplateParser.this.serviceCollection.placeholderService().compile(this.key);
+        }
+
+        String getKey() {
+            return this.key;
+        }
+
+        boolean isGlobal() {
+            return this.placeholder.isGlobal();
         }
 
         @Override
@@ -373,7 +384,7 @@ public final class TemplateParser implements INucleusTextTemplateFactory {
             if (tokens != null && tokens.containsKey(this.key)) {
                 t = tokens.get(this.key).apply(cs).orElse(Component.empty());
             } else {
-                t = TemplateParser.this.serviceCollection.placeholderService().parse(cs, this.key);
+                t = this.placeholder.toComponent(cs);
             }
 
             return Component.text().color(this.colour).style(this.style).append(t).build();
@@ -4,6 +4,9 @@
  */
 package io.github.nucleuspowered.nucleus.core.services.impl.usercache;
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.github.nucleuspowered.nucleus.core.configurate.datatypes.UserCacheDataNode;
@@ -17,176 +20,459 @@ import io.github.nucleuspowered.nucleus.core.services.interfaces.IStorageManager
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IUserCacheService;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.services.IStorageService;
 import io.leangen.geantyref.TypeToken;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.Sponge;
+import org.spongepowered.api.scheduler.Task;
 import org.spongepowered.api.util.Identifiable;
-import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.gson.GsonConfigurationLoader;
+import org.spongepowered.plugin.PluginContainer;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Keeps the IP address, jail and mute state of every known user, so that they can be
+ * looked up without loading every user's data.
+ *
+ * <p>Each of these is indexed, and the indexes are kept up to date as user data is
+ * saved. Rebuilding the cache walks through every known user in the background, loading
+ * their data in parallel batches. Progress is checkpointed, so a walk that is
+ * interrupted, such as by a restart, carries on from where it left off.</p>
+ */
 @Singleton
 public class UserCacheService implements IUserCacheService, IReloadableService.DataLocationReloadable {
 
     private static final int expectedVersion = new UserCacheVersionNode().getVersion();
-    private boolean isWalking = false;
+
+    private static final String FILE_NAME = "usercache.json";
+    private static final String CHECKPOINT_FILE_NAME = "usercache-walk.txt";
+    private static final String VERSION = "version";
+    private static final String USERS = "users";
+    private static final String IP = "ip";
+    private static final String JAIL = "jail";
+    private static final String MUTED = "muted";
+
+    private static final int BATCH_SIZE = 50;
+    private static final int CHECKPOINT_INTERVAL = 1000;
+    private static final long SAVE_DELAY_SECONDS = 30;
+
+    private final AtomicBoolean isWalking = new AtomicBoolean(false);
+    private final AtomicBoolean saveScheduled = new AtomicBoolean(false);
 
     private final Supplier<Path> dataDirectory;
-    private final Object lockingObject = new Object();
     private final IStorageManager storageManager;
+    private final PluginContainer pluginContainer;
 
-    private Function<IUserDataObject, String> jailProcessor = x -> null;
-    private Predicate<IUserDataObject> mutedProcessor = x -> false;
+    private volatile Function<IUserDataObject, String> jailProcessor = x -> null;
+    private volatile Predicate<IUserDataObject> mutedProcessor = x -> false;
 
-    private UserCacheVersionNode data;
+    // All writes to the entries and indexes are made while holding this lock, readers do not need it.
+    private final Object indexLock = new Object();
+    private final Object saveLock = new Object();
+    private final Map<UUID, UserCacheDataNode> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> byIp = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> byJail = new ConcurrentHashMap<>();
+    private final Set<UUID> muted = ConcurrentHashMap.newKeySet();
+    private volatile int version = expectedVersion;
 
     @Inject
     public UserCacheService(final INucleusServiceCollection serviceCollection) {
         this.dataDirectory = serviceCollection.dataDir();
         this.storageManager = serviceCollection.storageManager();
+        this.pluginContainer = serviceCollection.pluginContainer();
+        this.storageManager.getUserService().addSaveListener(this::updateCacheForPlayer);
+        this.storageManager.getUserService().addDeleteListener(this::removeFromCache);
         serviceCollection.reloadableService().registerDataFileReloadable(this);
     }
 
+    private static void addTo(final Map<String, Set<UUID>> index, final String key, final UUID uuid) {
+        index.computeIfAbsent(key, x -> ConcurrentHashMap.newKeySet()).add(uuid);
+    }
+
+    private static void removeFrom(final Map<String, Set<UUID>> index, final String key, final UUID uuid) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(uuid);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static List<UUID> copyOf(@Nullable final Collection<UUID> uuids) {
+        return uuids == null ? new ArrayList<>() : new ArrayList<>(uuids);
+    }
+
     @Override
     public void load() {
-        try {
-            this.data = this.configurationLoader()
-                    .load()
-                    .get(TypeToken.get(UserCacheVersionNode.class), (Supplier<UserCacheVersionNode>) UserCacheVersionNode::new);
-        } catch (final IOException e) {
-            e.printStackTrace();
-            this.data = new UserCacheVersionNode();
+        final Map<UUID, UserCacheDataNode> loaded = new HashMap<>();
+        int loadedVersion = expectedVersion;
+        final Path file = this.file();
+        if (Files.exists(file)) {
+            try {
+                loadedVersion = this.readCompact(file, loaded);
+                if (loadedVersion < 0) {
+                    // Written before the compact format was used.
+                    final UserCacheVersionNode node = this.configurationLoader()
+                            .load()
+                            .get(TypeToken.get(UserCacheVersionNode.class), (Supplier<UserCacheVersionNode>) UserCacheVersionNode::new);
+                    loadedVersion = node.getVersion();
+                    loaded.putAll(node.getNode());
+                }
+            } catch (final IOException | RuntimeException e) {
+                e.printStackTrace();
+                loaded.clear();
+                loadedVersion = expectedVersion;
+            }
+        }
+
+        synchronized (this.indexLock) {
+            this.entries.clear();
+            this.byIp.clear();
+            this.byJail.clear();
+            this.muted.clear();
+            loaded.forEach((uuid, node) -> {
+                this.entries.put(uuid, node);
+                this.index(uuid, node);
+            });
+            this.version = loadedVersion;
         }
     }
 
     @Override
     public void save() {
-        try {
-            final GsonConfigurationLoader gsonConfigurationLoader = this.configurationLoader();
-            final ConfigurationNode node = gsonConfigurationLoader.createNode();
-            node.set(TypeToken.get(UserCacheVersionNode.class), this.data);
-            gsonConfigurationLoader.save(node);
-        } catch (final IOException e) {
-            e.printStackTrace();
+        synchronized (this.saveLock) {
+            final Path file = this.file();
+            final Path temporaryFile = file.resolveSibling(FILE_NAME + ".tmp");
+            try {
+                Files.createDirectories(file.getParent());
+                try (final Writer w = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8);
+                        final JsonWriter writer = new JsonWriter(w)) {
+                    writer.beginObject();
+                    writer.name(VERSION).value(this.version);
+                    writer.name(USERS).beginObject();
+                    for (final Map.Entry<UUID, UserCacheDataNode> entry : this.entries.entrySet()) {
+                        final UserCacheDataNode node = entry.getValue();
+                        writer.name(entry.getKey().toString()).beginObject();
+                        final String ip = node.getIpAddress().orElse(null);
+                        if (ip != null) {
+                            writer.name(IP).value(ip);
+                        }
+                        final String jail = node.getJailName().orElse(null);
+                        if (jail != null) {
+                            writer.name(JAIL).value(jail);
+                        }
+                        if (node.isMuted()) {
+                            writer.name(MUTED).value(true);
+                        }
+                        writer.endObject();
+                    }
+                    writer.endObject();
+                    writer.endObject();
+                }
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final IOException e) {
+                e.printStackTrace();
+            }
         }
-
     }
 
     @Override
     public List<UUID> getForIp(final String ip) {
-        this.updateCacheForOnlinePlayers();
-        final String ipToCheck = ip.replace("/", "");
-        return this.data.getNode().entrySet().stream().filter(x -> x.getValue()
-                .getIpAddress().map(y -> y.equals(ipToCheck)).orElse(false))
-                .map(Map.Entry::getKey).collect(Collectors.toList());
+        return UserCacheService.copyOf(this.byIp.get(ip.replace("/", "")));
     }
 
     @Override
     public List<UUID> getJailed() {
-        this.updateCacheForOnlinePlayers();
-        return this.data.getNode().entrySet().stream().filter(x -> x.getValue().isJailed())
-                .map(Map.Entry::getKey).collect(Collectors.toList());
+        return this.byJail.values().stream().flatMap(Collection::stream).collect(Collectors.toList());
     }
 
     @Override
     public List<UUID> getJailedIn(final String name) {
-        this.updateCacheForOnlinePlayers();
-        return this.data.getNode().entrySet().stream()
-                .filter(x -> x.getValue().getJailName().map(y -> y.equalsIgnoreCase(name)).orElse(false))
-                .map(Map.Entry::getKey).collect(Collectors.toList());
+        return UserCacheService.copyOf(this.byJail.get(name.toLowerCase()));
     }
 
     @Override
     public List<UUID> getMuted() {
-        this.updateCacheForOnlinePlayers();
-        return this.data.getNode().entrySet().stream().filter(x -> x.getValue().isMuted())
-                .map(Map.Entry::getKey).collect(Collectors.toList());
+        return UserCacheService.copyOf(this.muted);
     }
 
     @Override
     public void updateCacheForOnlinePlayers() {
         final IUserQueryObject iuq = new UserQueryObject();
         iuq.addAllKeys(Sponge.server().onlinePlayers().stream().map(Identifiable::uniqueId).collect(Collectors.toList()));
-        this.storageManager.getUserService().getAll(iuq).thenAccept(result ->
-                result.forEach((uuid, obj) -> this.data.getNode().computeIfAbsent(uuid, x -> new UserCacheDataNode()).set(obj, this.mutedProcessor,
-                        this.jailProcessor)));
+        this.storageManager.getUserService().getAll(iuq).thenAccept(result -> result.forEach(this::updateCacheForPlayer));
     }
 
     @Override public void updateCacheForPlayer(final UUID uuid, final IUserDataObject u) {
-        this.data.getNode().computeIfAbsent(uuid, x -> new UserCacheDataNode()).set(u, this.mutedProcessor, this.jailProcessor);
+        final UserCacheDataNode updated = new UserCacheDataNode().set(u, this.mutedProcessor, this.jailProcessor);
+        synchronized (this.indexLock) {
+            final UserCacheDataNode previous = this.entries.put(uuid, updated);
+            if (updated.equals(previous)) {
+                return;
+            }
+
+            if (previous != null) {
+                this.unindex(uuid, previous);
+            }
+            this.index(uuid, updated);
+        }
+        this.scheduleSave();
     }
 
     @Override public void updateCacheForPlayer(final UUID uuid) {
         this.storageManager.getUser(uuid).thenAccept(x -> x.ifPresent(u -> this.updateCacheForPlayer(uuid, u)));
     }
 
+    @Override public void removeFromCache(final UUID uuid) {
+        synchronized (this.indexLock) {
+            final UserCacheDataNode previous = this.entries.remove(uuid);
+            if (previous == null) {
+                return;
+            }
+
+            this.unindex(uuid, previous);
+        }
+        this.scheduleSave();
+    }
+
     @Override public void startFilewalkIfNeeded() {
-        if (!this.isWalking && (!this.isCorrectVersion() || this.data.getNode().isEmpty())) {
-            this.fileWalk();
+        if (Files.exists(this.checkpointFile()) || !this.isCorrectVersion() || this.entries.isEmpty()) {
+            this.startFileWalk(true);
         }
     }
 
     @Override public boolean isCorrectVersion() {
-        return expectedVersion == this.data.getVersion();
+        return expectedVersion == this.version;
+    }
+
+    @Override public CompletableFuture<Boolean> fileWalk() {
+        return this.startFileWalk(false);
+    }
+
+    @Override
+    public void setJailProcessor(final Function<IUserDataObject, String> func) {
+        this.jailProcessor = func;
+    }
+
+    @Override
+    public void setMutedProcessor(final Predicate<IUserDataObject> func) {
+        this.mutedProcessor = func;
     }
 
-    @Override public boolean fileWalk() {
-        synchronized (this.lockingObject) {
-            if (this.isWalking) {
-                return false;
+    private void index(final UUID uuid, final UserCacheDataNode node) {
+        node.getIpAddress().ifPresent(ip -> UserCacheService.addTo(this.byIp, ip, uuid));
+        node.getJailName().ifPresent(jail -> UserCacheService.addTo(this.byJail, jail.toLowerCase(), uuid));
+        if (node.isMuted()) {
+            this.muted.add(uuid);
+        }
+    }
+
+    private void unindex(final UUID uuid, final UserCacheDataNode node) {
+        node.getIpAddress().ifPresent(ip -> UserCacheService.removeFrom(this.byIp, ip, uuid));
+        node.getJailName().ifPresent(jail -> UserCacheService.removeFrom(this.byJail, jail.toLowerCase(), uuid));
+        this.muted.remove(uuid);
+    }
+
+    private void scheduleSave() {
+        if (this.saveScheduled.compareAndSet(false, true)) {
+            Sponge.asyncScheduler().submit(Task.builder()
+                    .delay(SAVE_DELAY_SECONDS, TimeUnit.SECONDS)
+                    .execute(() -> {
+                        this.saveScheduled.set(false);
+                        this.save();
+                    })
+                    .plugin(this.pluginContainer)
+                    .build());
+        }
+    }
+
+    private CompletableFuture<Boolean> startFileWalk(final boolean resume) {
+        if (!this.isWalking.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        Sponge.asyncScheduler().executor(this.pluginContainer).execute(() -> {
+            try {
+                this.walk(resume);
+                future.complete(true);
+            } catch (final Exception e) {
+                e.printStackTrace();
+                future.completeExceptionally(e);
+            } finally {
+                this.isWalking.set(false);
+            }
+        });
+        return future;
+    }
+
+    private void walk(final boolean resume) throws IOException {
+        final Path checkpointFile = this.checkpointFile();
+        final Set<UUID> done = resume ? this.readCheckpoint(checkpointFile) : new HashSet<>();
+        if (!resume) {
+            Files.deleteIfExists(checkpointFile);
+        }
+
+        final Set<UUID> knownUsers = Sponge.server().userManager().streamAll()
+                .map(Identifiable::uniqueId).collect(Collectors.toSet());
+        final List<UUID> remaining = knownUsers.stream().filter(x -> !done.contains(x)).collect(Collectors.toList());
+
+        final IStorageService.Keyed<UUID, IUserQueryObject, IUserDataObject> manager = this.storageManager.getUserService();
+        final List<UUID> sinceCheckpoint = new ArrayList<>();
+        for (int i = 0; i < remaining.size(); i += BATCH_SIZE) {
+            final List<UUID> batch = remaining.subList(i, Math.min(remaining.size(), i + BATCH_SIZE));
+
+            // Reads the whole batch in parallel, the loop below then only hits the cache.
+            manager.preload(batch).join();
+            for (final UUID user : batch) {
+                try {
+                    manager.getOnThread(user).ifPresent(x -> this.updateCacheForPlayer(user, x));
+                } catch (final RuntimeException e) {
+                    e.printStackTrace();
+                }
             }
 
-            this.isWalking = true;
+            sinceCheckpoint.addAll(batch);
+            if (sinceCheckpoint.size() >= CHECKPOINT_INTERVAL) {
+                this.checkpoint(checkpointFile, sinceCheckpoint);
+                sinceCheckpoint.clear();
+                manager.clearCacheUnless(Sponge.server().onlinePlayers().stream().map(Identifiable::uniqueId).collect(Collectors.toSet()));
+            }
+        }
+
+        // Anyone we no longer know about, and who has not joined since the walk started, is removed.
+        synchronized (this.indexLock) {
+            final Set<UUID> online = Sponge.server().onlinePlayers().stream().map(Identifiable::uniqueId).collect(Collectors.toSet());
+            for (final UUID uuid : new ArrayList<>(this.entries.keySet())) {
+                if (!knownUsers.contains(uuid) && !online.contains(uuid)) {
+                    this.unindex(uuid, this.entries.remove(uuid));
+                }
+            }
+            this.version = expectedVersion;
         }
 
-        try {
-            final Map<UUID, UserCacheDataNode> data = new HashMap<>();
-            final List<UUID> knownUsers = Sponge.server().userManager().streamAll()
-                    .map(Identifiable::uniqueId).collect(Collectors.toList());
-
-            int count = 0;
-            final IStorageService.Keyed<UUID, IUserQueryObject, IUserDataObject> manager = this.storageManager.getUserService();
-            for (final UUID user : knownUsers) {
-                if (manager.exists(user).join()) {
-                    manager.get(user).join().ifPresent(x -> data.put(user, new UserCacheDataNode().set(x, this.mutedProcessor, this.jailProcessor)));
-                    if (++count >= 10) {
-                        manager.clearCache();
-                        count = 0;
+        this.save();
+        Files.deleteIfExists(checkpointFile);
+    }
+
+    private void checkpoint(final Path checkpointFile, final List<UUID> walked) throws IOException {
+        // The entries must be written before we record that they have been walked.
+        this.save();
+        Files.write(checkpointFile,
+                walked.stream().map(UUID::toString).collect(Collectors.toList()),
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Set<UUID> readCheckpoint(final Path checkpointFile) {
+        final Set<UUID> walked = new HashSet<>();
+        if (Files.exists(checkpointFile)) {
+            try {
+                for (final String line : Files.readAllLines(checkpointFile, StandardCharsets.UTF_8)) {
+                    try {
+                        walked.add(UUID.fromString(line.trim()));
+                    } catch (final IllegalArgumentException e) {
+                        // A partially written line, that user will be walked again.
                     }
                 }
+            } catch (final IOException e) {
+                e.printStackTrace();
             }
+        }
+        return walked;
+    }
 
-            this.data = new UserCacheVersionNode();
-            this.data.getNode().putAll(data);
-            this.save();
-        } finally {
-            this.isWalking = false;
+    /**
+     * Reads the cache file in the compact format.
+     *
+     * @param file The file
+     * @param into The map to put the entries into
+     * @return The version of the file, or -1 if the file is not in the compact format
+     * @throws IOException if the file could not be read
+     */
+    private int readCompact(final Path file, final Map<UUID, UserCacheDataNode> into) throws IOException {
+        int fileVersion = 0;
+        boolean isCompact = false;
+        try (final Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                final JsonReader reader = new JsonReader(r)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                if (name.equals(VERSION)) {
+                    fileVersion = reader.nextInt();
+                } else if (name.equals(USERS)) {
+                    isCompact = true;
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        final UUID uuid = UUID.fromString(reader.nextName());
+                        into.put(uuid, this.readEntry(reader));
+                    }
+                    reader.endObject();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
         }
 
-        return true;
+        return isCompact ? fileVersion : -1;
     }
 
-    @Override
-    public void setJailProcessor(final Function<IUserDataObject, String> func) {
-        this.jailProcessor = func;
+    private UserCacheDataNode readEntry(final JsonReader reader) throws IOException {
+        String ip = null;
+        String jail = null;
+        boolean isMuted = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+            } else if (name.equals(IP)) {
+                ip = reader.nextString();
+            } else if (name.equals(JAIL)) {
+                jail = reader.nextString();
+            } else if (name.equals(MUTED)) {
+                isMuted = reader.nextBoolean();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new UserCacheDataNode(ip, jail, isMuted);
     }
 
-    @Override
-    public void setMutedProcessor(final Predicate<IUserDataObject> func) {
-        this.mutedProcessor = func;
+    private Path file() {
+        return this.dataDirectory.get().resolve(FILE_NAME);
+    }
+
+    private Path checkpointFile() {
+        return this.dataDirectory.get().resolve(CHECKPOINT_FILE_NAME);
     }
 
     private GsonConfigurationLoader configurationLoader() {
         return GsonConfigurationLoader.builder()
-                .path(this.dataDirectory.get().resolve("usercache.json"))
+                .path(this.file())
                 .build();
     }
 
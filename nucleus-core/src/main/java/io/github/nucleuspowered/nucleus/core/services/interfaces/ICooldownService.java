@@ -6,10 +6,12 @@ package io.github.nucleuspowered.nucleus.core.services.interfaces;
 
 import com.google.inject.ImplementedBy;
 import io.github.nucleuspowered.nucleus.core.services.impl.cooldown.CooldownService;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.IUserDataObject;
 import org.spongepowered.api.util.Identifiable;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * A service that contains information about cooldowns.
@@ -45,6 +47,17 @@ public interface ICooldownService {
      */
     void setCooldown(String key, Identifiable identifiable, Duration cooldownLength);
 
+    /**
+     * Sets a cooldown, optionally storing it against the player's data so that it
+     * survives a restart.
+     *
+     * @param key The key for the cooldown
+     * @param identifiable The {@link Identifiable} that the cooldown is against.
+     * @param cooldownLength The length of the cooldown.
+     * @param persist Whether to store the cooldown against the player's data.
+     */
+    void setCooldown(String key, Identifiable identifiable, Duration cooldownLength, boolean persist);
+
     /**
      * Clears a cooldown.
      *
@@ -53,4 +66,12 @@ public interface ICooldownService {
      */
     void clearCooldown(String key, Identifiable identifiable);
 
+    /**
+     * Restores any cooldowns that were stored against a player's data.
+     *
+     * @param uuid The {@link UUID} of the player
+     * @param userDataObject The player's data
+     */
+    void loadPersistedCooldowns(UUID uuid, IUserDataObject userDataObject);
+
 }
@@ -9,11 +9,13 @@ import io.github.nucleuspowered.nucleus.api.teleport.NucleusSafeLocationService;
 import io.github.nucleuspowered.nucleus.api.teleport.data.TeleportResult;
 import io.github.nucleuspowered.nucleus.api.teleport.data.TeleportScanner;
 import io.github.nucleuspowered.nucleus.core.services.impl.teleport.SafeLocationService;
+import org.spongepowered.api.ResourceKey;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.world.server.ServerLocation;
 import org.spongepowered.api.world.server.ServerWorld;
 import org.spongepowered.api.world.teleport.TeleportHelperFilter;
 import org.spongepowered.math.vector.Vector3d;
+import org.spongepowered.math.vector.Vector3i;
 
 @ImplementedBy(SafeLocationService.class)
 public interface INucleusLocationService extends NucleusSafeLocationService {
@@ -43,8 +45,61 @@ public interface INucleusLocationService extends NucleusSafeLocationService {
 
     BorderDisableSession temporarilyDisableBorder(boolean reset, ServerWorld world);
 
+    /**
+     * Removes any cached safe location whose scan covered the given block.
+     *
+     * @param world The world the block is in
+     * @param position The position of the block
+     */
+    void invalidateSafeLocations(ResourceKey world, Vector3i position);
+
+    /**
+     * Removes all cached safe locations for the given world.
+     *
+     * @param world The world
+     */
+    void invalidateSafeLocations(ResourceKey world);
+
+    CacheStatistics getSafeLocationCacheStatistics();
+
     interface BorderDisableSession extends AutoCloseable {
 
         @Override default void close() { }
     }
+
+    final class CacheStatistics {
+
+        private final long hits;
+        private final long misses;
+        private final long invalidations;
+        private final long size;
+
+        public CacheStatistics(final long hits, final long misses, final long invalidations, final long size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+
+        public long getHits() {
+            return this.hits;
+        }
+
+        public long getMisses() {
+            return this.misses;
+        }
+
+        public double getHitRate() {
+            final long requests = this.hits + this.misses;
+            return requests == 0 ? 0 : (double) this.hits / requests;
+        }
+
+        public long getInvalidations() {
+            return this.invalidations;
+        }
+
+        public long getSize() {
+            return this.size;
+        }
+    }
 }
@@ -57,6 +57,30 @@ public interface IPermissionService {
 
     Optional<String> getOptionFromSubject(Subject player, String... options);
 
+    /**
+     * Discards any cached permission and option results that may be affected by
+     * a change to the supplied {@link Subject}'s data.
+     *
+     * @param subject The {@link Subject} that changed
+     */
+    void invalidateCache(Subject subject);
+
+    /**
+     * Discards any cached permission and option results for the player with the
+     * given {@link UUID}.
+     *
+     * @param uuid The {@link UUID} of the player
+     */
+    void invalidateCache(UUID uuid);
+
+    /**
+     * Marks the active contexts of the player with the given {@link UUID} as changed,
+     * so that they are worked out again on the next permission or option check.
+     *
+     * @param uuid The {@link UUID} of the player
+     */
+    void invalidateContexts(UUID uuid);
+
     PermissionMessageChannel permissionMessageChannel(String permission);
 
     Collection<Metadata> getAllMetadata();
@@ -6,6 +6,7 @@ package io.github.nucleuspowered.nucleus.core.services.interfaces;
 
 import com.google.inject.ImplementedBy;
 import io.github.nucleuspowered.nucleus.api.placeholder.NucleusPlaceholderService;
+import io.github.nucleuspowered.nucleus.core.services.impl.placeholder.CompiledPlaceholder;
 import io.github.nucleuspowered.nucleus.core.services.impl.placeholder.PlaceholderMetadata;
 import io.github.nucleuspowered.nucleus.core.services.impl.placeholder.PlaceholderService;
 import org.spongepowered.api.placeholder.PlaceholderParser;
@@ -22,5 +23,23 @@ public interface IPlaceholderService extends NucleusPlaceholderService {
 
     void registerToken(String tokenName, PlaceholderParser parser, boolean document);
 
+    /**
+     * Registers a token whose result does not depend on the object it is parsed for. Such
+     * tokens are only rendered once when a template is sent to many recipients.
+     *
+     * @param tokenName The name of the token
+     * @param parser The parser
+     */
+    void registerGlobalToken(String tokenName, PlaceholderParser parser);
+
     Map<String, PlaceholderMetadata> getNucleusParsers();
+
+    /**
+     * Parses a placeholder token, such as {@code {{prefix:s}}}, so that it can be turned
+     * into a component for any number of sources without being parsed again.
+     *
+     * @param input The token
+     * @return The compiled token
+     */
+    CompiledPlaceholder compile(String input);
 }
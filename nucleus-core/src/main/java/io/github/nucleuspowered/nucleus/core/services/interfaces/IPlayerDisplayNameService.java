@@ -8,6 +8,7 @@ import com.google.inject.ImplementedBy;
 import io.github.nucleuspowered.nucleus.core.services.impl.playername.PlayerDisplayNameService;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.api.service.permission.Subject;
@@ -35,14 +36,37 @@ public interface IPlayerDisplayNameService {
     Optional<User> getUser(String displayName);
 
     /**
-     * Gets the {@link UUID} of the players that have a name or display name
-     * that starts with the given parameter.
+     * Gets the {@link UUID} of the online and recently seen players that have a
+     * name or nickname that starts with the given parameter.
      *
      * @param displayName The display name
      * @return The {@link UUID}
      */
     Map<UUID, List<String>> startsWith(String displayName);
 
+    /**
+     * Adds the name of a player who has just joined to the name index.
+     *
+     * @param uuid The {@link UUID} of the player
+     * @param name The name of the player
+     */
+    void indexOnlinePlayer(UUID uuid, String name);
+
+    /**
+     * Marks a player as having left. Their names stay in the name index for a while.
+     *
+     * @param uuid The {@link UUID} of the player
+     */
+    void markOffline(UUID uuid);
+
+    /**
+     * Sets the nickname of a player in the name index.
+     *
+     * @param uuid The {@link UUID} of the player
+     * @param nickname The plain text nickname, or {@code null} to remove it
+     */
+    void indexNickname(UUID uuid, @Nullable String nickname);
+
     Component getDisplayName(UUID playerUUID);
 
     default Component getDisplayName(final Player player) {
@@ -55,6 +79,26 @@ public interface IPlayerDisplayNameService {
 
     Component getDisplayName(Audience source);
 
+    /**
+     * Discards the cached display name for the player with the given {@link UUID}.
+     *
+     * @param uuid The {@link UUID} of the player
+     */
+    void invalidateCache(UUID uuid);
+
+    /**
+     * Discards any cached display names that may depend on the given subject. If the
+     * subject is not a user, this will be all of them.
+     *
+     * @param subject The subject
+     */
+    void invalidateCache(Subject subject);
+
+    /**
+     * Discards all cached display names.
+     */
+    void invalidateCache();
+
     Component getName(Audience user);
 
     Component getName(Nameable user);
@@ -71,6 +115,12 @@ public interface IPlayerDisplayNameService {
         return this.getName(cs, Component.empty());
     }
 
+    /**
+     * Resolves a display name for a player.
+     *
+     * <p>Display names are cached, so a resolver must call {@link #invalidateCache(UUID)}
+     * when the name it would resolve for a player changes.</p>
+     */
     @FunctionalInterface
     interface DisplayNameResolver {
 
@@ -82,8 +132,6 @@ public interface IPlayerDisplayNameService {
 
         Optional<User> resolve(String name);
 
-        Map<UUID, String> startsWith(String name);
-
     }
 
 }
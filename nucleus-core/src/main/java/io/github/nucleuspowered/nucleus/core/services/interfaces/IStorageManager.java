@@ -18,8 +18,10 @@ import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.I
 import io.github.nucleuspowered.storage.persistence.IStorageRepository;
 import io.github.nucleuspowered.storage.persistence.IStorageRepositoryFactory;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.services.IStorageService;
+import io.github.nucleuspowered.nucleus.core.services.impl.storage.services.WriteBehindQueue;
 import org.spongepowered.api.ResourceKey;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -29,6 +31,8 @@ public interface IStorageManager {
 
     IStorageRepositoryFactory getFlatFileRepositoryFactory();
 
+    IStorageRepositoryFactory getSingleFileRepositoryFactory();
+
     // ugh
     <T extends IDataObject, S extends IStorageService<T>> void register(
             final IStorageModule<T, S, ? extends IStorageRepository, ? extends IDataTranslator<T, DataContainer>> module);
@@ -54,6 +58,16 @@ public interface IStorageManager {
 
     IStorageRepository.Single<DataContainer> getGeneralRepository();
 
+    /**
+     * Gets how long, in milliseconds, saves of keyed data should be held so that
+     * repeated saves of the same object can be coalesced. Zero or less disables this.
+     *
+     * @return The window, in milliseconds.
+     */
+    long getWriteBehindWindow();
+
+    Collection<WriteBehindQueue.Statistics> getWriteBehindStatistics();
+
     CompletableFuture<Void> saveAndInvalidateAllCaches();
 
     default CompletableFuture<IUserDataObject> getOrCreateUser(final UUID uuid) {
@@ -68,6 +68,19 @@ public interface ITextStyleService {
 
     Collection<String> wouldStrip(Collection<String> permissionPrefixColour, String permissionPrefixStyle, Subject source, String text);
 
+    /**
+     * Discards the cached formatting permissions that may depend on the given subject. If
+     * the subject is not a user, this will be all of them.
+     *
+     * @param subject The subject
+     */
+    void invalidateCache(Subject subject);
+
+    /**
+     * Discards all cached formatting permissions.
+     */
+    void invalidateCache();
+
     default TextFormat getLastColourAndStyle(final Component text, @Nullable final TextFormat current) {
         return this.getLastColourAndStyle(text, current, null, Style.empty());
     }
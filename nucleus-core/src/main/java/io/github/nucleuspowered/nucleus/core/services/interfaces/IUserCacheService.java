@@ -10,6 +10,7 @@ import io.github.nucleuspowered.nucleus.core.services.impl.usercache.UserCacheSe
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -34,11 +35,19 @@ public interface IUserCacheService {
 
     void updateCacheForPlayer(UUID uuid);
 
+    void removeFromCache(UUID uuid);
+
     void startFilewalkIfNeeded();
 
     boolean isCorrectVersion();
 
-    boolean fileWalk();
+    /**
+     * Starts rebuilding the cache from the data of every known user, in the background.
+     *
+     * @return A future that completes with {@code true} when the rebuild is complete, or
+     *      with {@code false} straight away if a rebuild is already running
+     */
+    CompletableFuture<Boolean> fileWalk();
 
     void setJailProcessor(Function<IUserDataObject, String> func);
 
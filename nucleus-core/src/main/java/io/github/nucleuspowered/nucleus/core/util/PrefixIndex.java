@@ -0,0 +1,85 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.util;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Maps case insensitive names to values, and can list every entry whose name starts with
+ * a given prefix without looking at any other entry.
+ *
+ * <p>Names are kept in sorted order, so all names with a given prefix sit next to each
+ * other, and a prefix lookup is a single range view. This is not thread safe.</p>
+ *
+ * @param <V> The type of value
+ */
+public final class PrefixIndex<V> {
+
+    private final NavigableMap<String, V> entries = new TreeMap<>();
+
+    private static String normalise(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    @Nullable
+    public V get(final String name) {
+        return this.entries.get(PrefixIndex.normalise(name));
+    }
+
+    @Nullable
+    public V put(final String name, final V value) {
+        return this.entries.put(PrefixIndex.normalise(name), value);
+    }
+
+    @Nullable
+    public V remove(final String name) {
+        return this.entries.remove(PrefixIndex.normalise(name));
+    }
+
+    public void clear() {
+        this.entries.clear();
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Gets a view of the entries whose (lower case) names start with the given prefix.
+     *
+     * @param prefix The prefix
+     * @return The entries, in name order
+     */
+    public NavigableMap<String, V> withPrefix(final String prefix) {
+        if (prefix.isEmpty()) {
+            return Collections.unmodifiableNavigableMap(this.entries);
+        }
+
+        final String from = PrefixIndex.normalise(prefix);
+        return Collections.unmodifiableNavigableMap(this.entries.subMap(from, true, from + Character.MAX_VALUE, false));
+    }
+
+    /**
+     * Gets a view of the (lower case) names that start with the given prefix.
+     *
+     * @param prefix The prefix
+     * @return The names, in order
+     */
+    public Set<String> namesWithPrefix(final String prefix) {
+        return this.withPrefix(prefix).navigableKeySet();
+    }
+
+    public Collection<V> values() {
+        return Collections.unmodifiableCollection(this.entries.values());
+    }
+
+}
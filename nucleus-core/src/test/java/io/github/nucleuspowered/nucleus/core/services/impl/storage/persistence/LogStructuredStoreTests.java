@@ -0,0 +1,245 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.services.impl.storage.persistence;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+
+// In the same package as the store, which is package private.
+public class LogStructuredStoreTests {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path path;
+    private LogStructuredStore store;
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void assertValue(final LogStructuredStore store, final String key, final String expected) throws IOException {
+        final Optional<byte[]> value = store.read(key);
+        Assert.assertTrue("No value for " + key, value.isPresent());
+        Assert.assertEquals(expected, new String(value.get(), StandardCharsets.UTF_8));
+    }
+
+    @Before
+    public void open() throws IOException {
+        this.path = this.folder.getRoot().toPath().resolve("data").resolve("store.db");
+        this.store = new LogStructuredStore(this.path);
+        Assert.assertTrue(this.store.open());
+    }
+
+    @After
+    public void close() throws IOException {
+        this.store.close();
+    }
+
+    private void reopen() throws IOException {
+        this.store.close();
+        this.store = new LogStructuredStore(this.path);
+        Assert.assertFalse(this.store.open());
+    }
+
+    @Test
+    public void testWriteThenRead() throws IOException {
+        this.store.write("a", LogStructuredStoreTests.bytes("first"));
+        this.store.write("b", LogStructuredStoreTests.bytes("second"));
+
+        LogStructuredStoreTests.assertValue(this.store, "a", "first");
+        LogStructuredStoreTests.assertValue(this.store, "b", "second");
+        Assert.assertFalse(this.store.read("c").isPresent());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a", "b")), this.store.keys());
+    }
+
+    @Test
+    public void testOverwriteReturnsLatestValue() throws IOException {
+        this.store.write("a", LogStructuredStoreTests.bytes("first"));
+        this.store.write("a", LogStructuredStoreTests.bytes("a longer second value"));
+        this.store.write("a", LogStructuredStoreTests.bytes("3"));
+
+        LogStructuredStoreTests.assertValue(this.store, "a", "3");
+        Assert.assertEquals(1, this.store.size());
+    }
+
+    @Test
+    public void testEmptyValue() throws IOException {
+        this.store.write("a", new byte[0]);
+
+        Assert.assertTrue(this.store.contains("a"));
+        Assert.assertEquals(0, this.store.read("a").get().length);
+    }
+
+    @Test
+    public void testDelete() throws IOException {
+        this.store.write("a", LogStructuredStoreTests.bytes("first"));
+        this.store.write("b", LogStructuredStoreTests.bytes("second"));
+        this.store.delete("a");
+        this.store.delete("missing");
+
+        Assert.assertFalse(this.store.contains("a"));
+        Assert.assertFalse(this.store.read("a").isPresent());
+        LogStructuredStoreTests.assertValue(this.store, "b", "second");
+        Assert.assertEquals(1, this.store.size());
+    }
+
+    @Test
+    public void testReopenReplaysWritesAndDeletes() throws IOException {
+        this.store.write("a", LogStructuredStoreTests.bytes("first"));
+        this.store.write("b", LogStructuredStoreTests.bytes("second"));
+        this.store.write("a", LogStructuredStoreTests.bytes("replaced"));
+        this.store.write("c", LogStructuredStoreTests.bytes("third"));
+        this.store.delete("b");
+
+        this.reopen();
+
+        LogStructuredStoreTests.assertValue(this.store, "a", "replaced");
+        LogStructuredStoreTests.assertValue(this.store, "c", "third");
+        Assert.assertFalse(this.store.contains("b"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a", "c")), this.store.keys());
+    }
+
+    @Test
+    public void testDeletedKeyCanBeWrittenAgain() throws IOException {
+        this.store.write("a", LogStructuredStoreTests.bytes("first"));
+        this.store.delete("a");
+        this.store.write("a", LogStructuredStoreTests.bytes("again"));
+
+        this.reopen();
+
+        LogStructuredStoreTests.assertValue(this.store, "a", "again");
+    }
+
+    @Test
+    public void testTruncatedTailRecordIsDiscarded() throws IOException {
+        this.store.write("a", LogStructuredStoreTests.bytes("first"));
+        this.store.write("b", LogStructuredStoreTests.bytes("second"));
+        this.store.close();
+
+        // Cut the last record off part way through its value, as a crash during a write would.
+        final long size = Files.size(this.path);
+        try (final FileChannel channel = FileChannel.open(this.path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        this.store = new LogStructuredStore(this.path);
+        this.store.open();
+
+        LogStructuredStoreTests.assertValue(this.store, "a", "first");
+        Assert.assertFalse(this.store.contains("b"));
+        Assert.assertEquals(1, this.store.size());
+    }
+
+    @Test
+    public void testCorruptTailRecordIsDiscarded() throws IOException {
+        this.store.write("a", LogStructuredStoreTests.bytes("first"));
+        this.store.write("b", LogStructuredStoreTests.bytes("second"));
+        this.store.close();
+
+        // Same length, but the last byte of the value doesn't match the checksum.
+        final long size = Files.size(this.path);
+        try (final FileChannel channel = FileChannel.open(this.path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(LogStructuredStoreTests.bytes("X")), size - 1);
+        }
+
+        this.store = new LogStructuredStore(this.path);
+        this.store.open();
+
+        LogStructuredStoreTests.assertValue(this.store, "a", "first");
+        Assert.assertFalse(this.store.contains("b"));
+    }
+
+    @Test
+    public void testWritesAfterATornTailAreKept() throws IOException {
+        this.store.write("a", LogStructuredStoreTests.bytes("first"));
+        this.store.close();
+
+        // A partial record header.
+        try (final FileChannel channel = FileChannel.open(this.path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 5, 0, 0 }));
+        }
+
+        this.store = new LogStructuredStore(this.path);
+        this.store.open();
+        this.store.write("b", LogStructuredStoreTests.bytes("second"));
+
+        this.reopen();
+
+        LogStructuredStoreTests.assertValue(this.store, "a", "first");
+        LogStructuredStoreTests.assertValue(this.store, "b", "second");
+    }
+
+    @Test(expected = IOException.class)
+    public void testOtherFilesAreNotOpened() throws IOException {
+        this.store.close();
+        Files.write(this.path, LogStructuredStoreTests.bytes("{ \"not\": \"a store\" }"));
+
+        this.store = new LogStructuredStore(this.path);
+        this.store.open();
+    }
+
+    @Test
+    public void testCompactDropsSupersededRecords() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            this.store.write("a", LogStructuredStoreTests.bytes("value " + i));
+            this.store.write("b" + i, LogStructuredStoreTests.bytes("value " + i));
+        }
+        for (int i = 0; i < 50; i++) {
+            this.store.delete("b" + i);
+        }
+
+        final long before = Files.size(this.path);
+        this.store.compact();
+        Assert.assertTrue(Files.size(this.path) < before);
+
+        LogStructuredStoreTests.assertValue(this.store, "a", "value 99");
+        Assert.assertFalse(this.store.contains("b0"));
+        LogStructuredStoreTests.assertValue(this.store, "b50", "value 50");
+        Assert.assertEquals(51, this.store.size());
+
+        // The compacted file must replay to the same contents, and still be appendable.
+        this.store.write("c", LogStructuredStoreTests.bytes("after"));
+        this.reopen();
+
+        LogStructuredStoreTests.assertValue(this.store, "a", "value 99");
+        LogStructuredStoreTests.assertValue(this.store, "b99", "value 99");
+        LogStructuredStoreTests.assertValue(this.store, "c", "after");
+        Assert.assertFalse(this.store.contains("b49"));
+        Assert.assertEquals(52, this.store.size());
+    }
+
+    @Test
+    public void testWastedSpaceIsCompactedAutomatically() throws IOException {
+        final byte[] value = new byte[64 * 1024];
+        for (int i = 0; i < 128; i++) {
+            Arrays.fill(value, (byte) i);
+            this.store.write("a", value);
+        }
+
+        // 8 MiB has been written, but only one 64 KiB value is live.
+        Assert.assertTrue(Files.size(this.path) < 5 * 1024 * 1024);
+        final byte[] read = this.store.read("a").get();
+        Assert.assertEquals(value.length, read.length);
+        Assert.assertEquals((byte) 127, read[0]);
+        Assert.assertEquals((byte) 127, read[read.length - 1]);
+    }
+
+}
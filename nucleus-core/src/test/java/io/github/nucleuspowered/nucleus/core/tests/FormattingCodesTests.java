@@ -0,0 +1,152 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.tests;
+
+import io.github.nucleuspowered.nucleus.core.services.impl.textstyle.FormattingCodes;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class FormattingCodesTests {
+
+    private static int mask(final String allowedCodes) {
+        int mask = 0;
+        for (final char code : allowedCodes.toCharArray()) {
+            mask |= 1 << FormattingCodes.bit(code);
+        }
+        return mask;
+    }
+
+    // The regex based stripper that FormattingCodes replaces, which removes disallowed
+    // codes until there are none left.
+    private static String regexStrip(final String message, final int allowed) {
+        final StringBuilder keys = new StringBuilder();
+        for (final char code : FormattingCodes.CODES.toCharArray()) {
+            if (FormattingCodes.isDisallowed(code, allowed)) {
+                keys.append(code);
+            }
+        }
+
+        if (keys.length() == 0) {
+            return message;
+        }
+
+        final Pattern pattern = Pattern.compile("&[" + keys + "]", Pattern.CASE_INSENSITIVE);
+        String result = message;
+        int oldLength;
+        do {
+            oldLength = result.length();
+            result = pattern.matcher(result).replaceAll("");
+        } while (oldLength != result.length());
+        return result;
+    }
+
+    @RunWith(Parameterized.class)
+    public static class MatchesRegexTests {
+
+        private static final String[] MESSAGES = {
+                "",
+                "hello",
+                "&",
+                "&&",
+                "hello &",
+                "&ahello",
+                "&Ahello",
+                "&a&lhello &r&cworld",
+                "&&aa",
+                "&&&aaa",
+                "&&a&aa",
+                "&&la",
+                "&a&",
+                "& a",
+                "&rhello",
+                "&zhello",
+                "&xhello&ko",
+                "100 & 200 &&& &0&1&2&3&4&5&6&7&8&9&a&b&c&d&e&f&k&l&m&n&o",
+                "&é&a",
+                "&&&&&&llllll"
+        };
+
+        private static final String[] ALLOWED = {
+                "",
+                "0123456789abcdefklmno",
+                "a",
+                "l",
+                "abcdef",
+                "klmno",
+                "0123456789"
+        };
+
+        @Parameterized.Parameters(name = "{index}: message \"{0}\", allowed \"{1}\"")
+        public static Iterable<Object[]> data() {
+            final List<Object[]> data = new ArrayList<>();
+            for (final String message : MESSAGES) {
+                for (final String allowed : ALLOWED) {
+                    data.add(new Object[] { message, allowed });
+                }
+            }
+            return data;
+        }
+
+        @Parameterized.Parameter()
+        public String message;
+
+        @Parameterized.Parameter(1)
+        public String allowed;
+
+        @Test
+        public void testStripMatchesRegex() {
+            final int mask = FormattingCodesTests.mask(this.allowed);
+            Assert.assertEquals(FormattingCodesTests.regexStrip(this.message, mask), FormattingCodes.strip(this.message, mask));
+        }
+
+        @Test
+        public void testContainsDisallowedMatchesStrip() {
+            final int mask = FormattingCodesTests.mask(this.allowed);
+            Assert.assertEquals(
+                    !FormattingCodesTests.regexStrip(this.message, mask).equals(this.message),
+                    FormattingCodes.containsDisallowed(this.message, mask));
+        }
+    }
+
+    public static class StripTests {
+
+        @Test
+        public void testAllowedCodesAreKept() {
+            Assert.assertEquals("&ahello &lworld", FormattingCodes.strip("&ahello &lworld", FormattingCodesTests.mask("al")));
+        }
+
+        @Test
+        public void testDisallowedCodesAreRemoved() {
+            Assert.assertEquals("&ahello world", FormattingCodes.strip("&ahello &lworld", FormattingCodesTests.mask("a")));
+        }
+
+        @Test
+        public void testCodesExposedByStrippingAreRemoved() {
+            Assert.assertEquals("", FormattingCodes.strip("&&&aaa", 0));
+        }
+
+        @Test
+        public void testCodesAreCaseInsensitive() {
+            Assert.assertEquals("hello", FormattingCodes.strip("&Ahello", 0));
+        }
+
+        @Test
+        public void testResetIsNeverRemoved() {
+            Assert.assertEquals("&rhello", FormattingCodes.strip("&rhello", 0));
+        }
+
+        @Test
+        public void testUnchangedMessageIsSameInstance() {
+            final String message = "&ahello";
+            Assert.assertSame(message, FormattingCodes.strip(message, FormattingCodesTests.mask("a")));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.core.tests;
+
+import io.github.nucleuspowered.nucleus.core.util.PrefixIndex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class PrefixIndexTests {
+
+    private static final String[] NAMES = { "a", "aa", "ab", "abc", "abd", "ac", "b", "Shop", "spawn", "Spawn2", "sp", "z" };
+
+    private static PrefixIndex<String> create() {
+        final PrefixIndex<String> index = new PrefixIndex<>();
+        for (final String name : NAMES) {
+            index.put(name, name);
+        }
+        return index;
+    }
+
+    @RunWith(Parameterized.class)
+    public static class PrefixRangeTests {
+
+        @Parameterized.Parameters(name = "{index}: prefix \"{0}\", expecting {1}")
+        public static Iterable<Object[]> data() {
+            return Arrays.asList(new Object[][] {
+                    { "", Arrays.asList("a", "aa", "ab", "abc", "abd", "ac", "b", "shop", "sp", "spawn", "spawn2", "z") },
+                    { "a", Arrays.asList("a", "aa", "ab", "abc", "abd", "ac") },
+                    { "ab", Arrays.asList("ab", "abc", "abd") },
+                    { "abc", Arrays.asList("abc") },
+                    { "abcd", Arrays.asList() },
+                    { "b", Arrays.asList("b") },
+                    { "c", Arrays.asList() },
+                    { "s", Arrays.asList("shop", "sp", "spawn", "spawn2") },
+                    { "SP", Arrays.asList("sp", "spawn", "spawn2") },
+                    { "Spawn", Arrays.asList("spawn", "spawn2") },
+                    { "z", Arrays.asList("z") },
+                    { "zz", Arrays.asList() },
+                    { "0", Arrays.asList() }
+            });
+        }
+
+        @Parameterized.Parameter()
+        public String prefix;
+
+        @Parameterized.Parameter(1)
+        public List<String> expected;
+
+        @Test
+        public void testNamesWithPrefix() {
+            Assert.assertEquals(this.expected, new ArrayList<>(PrefixIndexTests.create().namesWithPrefix(this.prefix)));
+        }
+
+        @Test
+        public void testEntriesWithPrefixHaveMatchingValues() {
+            final List<String> values = new ArrayList<>();
+            PrefixIndexTests.create().withPrefix(this.prefix).values().forEach(x -> values.add(x.toLowerCase()));
+            Assert.assertEquals(this.expected, values);
+        }
+    }
+
+    public static class UpdateTests {
+
+        @Test
+        public void testNamesAreCaseInsensitive() {
+            final PrefixIndex<String> index = PrefixIndexTests.create();
+            Assert.assertEquals("Spawn2", index.get("SPAWN2"));
+            Assert.assertEquals("Spawn2", index.put("spawn2", "replaced"));
+            Assert.assertEquals(NAMES.length, index.size());
+        }
+
+        @Test
+        public void testRemovedNamesLeaveThePrefixRange() {
+            final PrefixIndex<String> index = PrefixIndexTests.create();
+            Assert.assertEquals("abc", index.remove("ABC"));
+            Assert.assertEquals(Arrays.asList("ab", "abd"), new ArrayList<>(index.namesWithPrefix("ab")));
+        }
+
+        @Test
+        public void testAddedNamesJoinThePrefixRange() {
+            final PrefixIndex<String> index = PrefixIndexTests.create();
+            index.put("Abb", "Abb");
+            Assert.assertEquals(Arrays.asList("ab", "abb", "abc", "abd"), new ArrayList<>(index.namesWithPrefix("ab")));
+        }
+
+        @Test(expected = UnsupportedOperationException.class)
+        public void testPrefixViewIsReadOnly() {
+            PrefixIndexTests.create().withPrefix("a").remove("aa");
+        }
+    }
+}
@@ -12,7 +12,6 @@ import io.github.nucleuspowered.nucleus.core.services.interfaces.IChatMessageFor
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IPermissionService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.ITextStyleService;
-import io.github.nucleuspowered.nucleus.core.util.AdventureUtils;
 import io.github.nucleuspowered.nucleus.modules.chat.ChatPermissions;
 import io.github.nucleuspowered.nucleus.modules.chat.config.ChatConfig;
 import io.github.nucleuspowered.nucleus.modules.chat.config.ChatTemplateConfig;
@@ -22,16 +21,31 @@ import net.kyori.adventure.audience.MessageType;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.LinearComponents;
 import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
-import org.spongepowered.api.Sponge;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.entity.ChangeEntityWorldEvent;
+import org.spongepowered.api.event.filter.Getter;
 import org.spongepowered.api.event.filter.cause.Root;
 import org.spongepowered.api.event.message.PlayerChatEvent;
+import org.spongepowered.api.event.network.ServerSideConnectionEvent;
+import org.spongepowered.api.event.permission.SubjectDataUpdateEvent;
+import org.spongepowered.api.service.permission.PermissionService;
+import org.spongepowered.api.service.permission.Subject;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A listener that modifies all chat messages. Uses the
@@ -47,6 +61,9 @@ public class ChatListener implements IReloadableService.Reloadable, ListenerBase
 
     private ChatConfig chatConfig;
 
+    // Cleared when permissions, options or contexts change, or the player leaves.
+    private final Map<UUID, PlayerFormat> formats = new ConcurrentHashMap<>();
+
     @Inject
     public ChatListener(final INucleusServiceCollection serviceCollection) {
         this.chatService = serviceCollection.getServiceUnchecked(ChatService.class);
@@ -71,6 +88,39 @@ public class ChatListener implements IReloadableService.Reloadable, ListenerBase
         }
     }
 
+    @Listener(order = Order.POST)
+    public void onSubjectDataUpdate(final SubjectDataUpdateEvent event) {
+        final Subject subject = event.updatedData().subject();
+        if (PermissionService.SUBJECTS_USER.equals(subject.containingCollection().identifier())) {
+            try {
+                this.invalidate(UUID.fromString(subject.identifier()));
+                return;
+            } catch (final IllegalArgumentException e) {
+                // not a player, fall through
+            }
+        }
+
+        // Groups and defaults can be inherited by anyone.
+        this.formats.clear();
+        this.chatService.invalidateTemplates();
+    }
+
+    // Options may depend on the world the player is in.
+    @Listener(order = Order.POST)
+    public void onPlayerChangeWorld(final ChangeEntityWorldEvent.Post event, @Getter("entity") final ServerPlayer player) {
+        this.invalidate(player.uniqueId());
+    }
+
+    @Listener
+    public void onPlayerQuit(final ServerSideConnectionEvent.Disconnect event, @Getter("player") final ServerPlayer player) {
+        this.invalidate(player.uniqueId());
+    }
+
+    private void invalidate(final UUID uuid) {
+        this.formats.remove(uuid);
+        this.chatService.invalidateTemplate(uuid);
+    }
+
     private void onPlayerChatEvent(final PlayerChatEvent event, @Root final ServerPlayer player) {
         if (this.chatMessageFormatterService.getNucleusChannel(player.uniqueId())
                 .map(IChatMessageFormatterService.Channel::willFormat).orElse(false)) {
@@ -84,28 +134,14 @@ public class ChatListener implements IReloadableService.Reloadable, ListenerBase
             baseMessage = event.message();
         }
 
+        final PlayerFormat format = this.formats.computeIfAbsent(player.uniqueId(), x -> this.createFormat(player));
         if (this.chatConfig.isTryRemoveMinecraftPrefix()) {
-            final Pattern removal = Pattern.compile("<" + player.name() + ">");
-            baseMessage = baseMessage.replaceText(function -> function.match(removal).replacement(Component.empty()));
+            baseMessage = baseMessage.replaceText(format.removePrefix);
         }
 
-        final ChatService.TemplateCache ctc;
-        if (this.chatConfig.isUseGroupTemplates()) {
-            ctc = this.chatService.getTemplateNow(player);
-        } else {
-            ctc = this.chatService.getDefaultTemplate();
-        }
-
-        final TextComponent.Builder builder = Component.text();
-        final Component header = ctc.getPrefix().getForObject(player);
-        final Component footer = ctc.getSuffix().getForObject(player);
-        if (!AdventureUtils.isEmpty(header)) {
-            builder.append(header);
-        }
-        final Component body = this.chatConfig.isModifyMessage() ? this.useMessage(player, baseMessage, ctc) : baseMessage;
-        if (!AdventureUtils.isEmpty(footer)) {
-            builder.append(footer);
-        }
+        final Component header = format.prefix == null ? format.template.getPrefix().getForObject(player) : format.prefix;
+        final Component footer = format.suffix == null ? format.template.getSuffix().getForObject(player) : format.suffix;
+        final Component body = this.chatConfig.isModifyMessage() ? this.useMessage(baseMessage, format) : baseMessage;
         event.setMessage(body);
         event.setChatFormatter((sender, target, message, originalMessage) ->
                 Optional.of(LinearComponents.linear(header, message, footer)));
@@ -116,34 +152,161 @@ public class ChatListener implements IReloadableService.Reloadable, ListenerBase
         return serviceCollection.configProvider().getModuleConfig(ChatConfig.class).isModifychat();
     }
 
-    private TextComponent useMessage(final ServerPlayer player, final Component rawMessage, final ChatService.TemplateCache templateCache) {
-        final ChatTemplateConfig chatTemplateConfig = templateCache.getConfig();
-        String m = LegacyComponentSerializer.legacyAmpersand().serialize(rawMessage);
-        if (this.chatConfig.isRemoveBlueUnderline()) {
-            m = m.replaceAll("&9&n([A-Za-z\\d-.]+)(&r)?", "$1");
-        }
-
-        m = this.textStyleService.stripPermissionless(ChatPermissions.CHAT_COLOR, ChatPermissions.CHAT_STYLE, player, m);
-
-        final Component result;
-        if (this.permissionService.hasPermission(player, ChatPermissions.CHAT_URLS)) {
-            result = this.textStyleService.addUrls(m, !this.chatConfig.isRemoveBlueUnderline());
+    /**
+     * Works out everything about how the player's messages are formatted that does not
+     * depend on the message itself.
+     */
+    private PlayerFormat createFormat(final ServerPlayer player) {
+        final ChatService.TemplateCache ctc;
+        if (this.chatConfig.isUseGroupTemplates()) {
+            ctc = this.chatService.getTemplateNow(player);
         } else {
-            result = LegacyComponentSerializer.legacyAmpersand().deserialize(m);
+            ctc = this.chatService.getDefaultTemplate();
         }
 
+        final ChatTemplateConfig chatTemplateConfig = ctc.getConfig();
         final String chatcol = this.permissionService.getOptionFromSubject(player, "chatcolour", "chatcolor").orElseGet(chatTemplateConfig::getChatcolour);
         final String chatstyle = this.permissionService.getOptionFromSubject(player, "chatstyle").orElseGet(chatTemplateConfig::getChatstyle);
+        return new PlayerFormat(
+                ctc,
+                // Templates without tokens will look the same every time.
+                ctc.getPrefix().containsTokens() ? null : ctc.getPrefix().getForObject(player),
+                ctc.getSuffix().containsTokens() ? null : ctc.getSuffix().getForObject(player),
+                this.textStyleService.getColourFromString(chatcol).orElse(null),
+                this.textStyleService.getTextStyleFromString(chatstyle),
+                this.permissionService.hasPermission(player, ChatPermissions.CHAT_URLS),
+                TextReplacementConfig.builder().matchLiteral("<" + player.name() + ">").replacement(Component.empty()).build(),
+                player);
+    }
 
+    private Component useMessage(final Component rawMessage, final PlayerFormat format) {
         return Component.text()
-                .color(this.textStyleService.getColourFromString(chatcol).orElse(null))
-                .style(this.textStyleService.getTextStyleFromString(chatstyle))
-                .append(result)
+                .color(format.colour)
+                .style(format.style)
+                .append(this.format(rawMessage, format))
                 .build();
     }
 
+    /**
+     * Applies the player's permissions to the formatting codes and URLs in the text of the
+     * component and its children, returning the same component if nothing changed.
+     */
+    private Component format(final Component component, final PlayerFormat format) {
+        final List<Component> children = component.children();
+        List<Component> newChildren = null;
+        for (int i = 0; i < children.size(); i++) {
+            final Component child = children.get(i);
+            final Component formatted = this.format(child, format);
+            if (formatted != child) {
+                if (newChildren == null) {
+                    newChildren = new ArrayList<>(children);
+                }
+                newChildren.set(i, formatted);
+            }
+        }
+
+        Component result = component;
+        if (component instanceof TextComponent) {
+            final TextComponent text = (TextComponent) component;
+            final Component content = this.formatContent(text.content(), format);
+            if (content != null) {
+                if (newChildren == null) {
+                    newChildren = new ArrayList<>(children);
+                }
+                newChildren.add(0, content);
+                result = text.content("");
+            }
+
+            if (this.chatConfig.isRemoveBlueUnderline() && ChatListener.isBlueUnderlinedLink(text)) {
+                result = result.color(null).decoration(TextDecoration.UNDERLINED, TextDecoration.State.NOT_SET);
+            }
+        }
+
+        if (newChildren != null) {
+            result = result.children(newChildren);
+        }
+        return result;
+    }
+
+    /**
+     * Turns the formatting codes and URLs in a piece of text that the player can use into
+     * components.
+     *
+     * @return The component, or {@code null} if the text has nothing to format
+     */
+    @Nullable
+    private Component formatContent(final String content, final PlayerFormat format) {
+        final boolean hasCodes = content.indexOf('&') != -1;
+        final boolean mayHaveUrl = format.urls && content.indexOf('.') != -1;
+        if (!hasCodes && !mayHaveUrl) {
+            return null;
+        }
+
+        final String m = hasCodes ?
+                this.textStyleService.stripPermissionless(ChatPermissions.CHAT_COLOR, ChatPermissions.CHAT_STYLE, format.player, content) :
+                content;
+        if (format.urls) {
+            return this.textStyleService.addUrls(m, !this.chatConfig.isRemoveBlueUnderline());
+        }
+        return LegacyComponentSerializer.legacyAmpersand().deserialize(m);
+    }
+
+    // Links that have previously been formatted with blue underlines, see addUrls
+    private static boolean isBlueUnderlinedLink(final TextComponent text) {
+        final TextColor colour = text.color();
+        if (colour == null || colour.value() != NamedTextColor.BLUE.value()
+                || text.decoration(TextDecoration.UNDERLINED) != TextDecoration.State.TRUE) {
+            return false;
+        }
+
+        final String content = text.content();
+        if (content.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < content.length(); i++) {
+            final char c = content.charAt(i);
+            if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void onReload(final INucleusServiceCollection serviceCollection) {
         this.chatConfig = serviceCollection.configProvider().getModuleConfig(ChatConfig.class);
+        this.formats.clear();
+    }
+
+    private static final class PlayerFormat {
+
+        private final ChatService.TemplateCache template;
+        @Nullable private final Component prefix;
+        @Nullable private final Component suffix;
+        @Nullable private final TextColor colour;
+        private final Style style;
+        private final boolean urls;
+        private final TextReplacementConfig removePrefix;
+        private final ServerPlayer player;
+
+        private PlayerFormat(
+                final ChatService.TemplateCache template,
+                @Nullable final Component prefix,
+                @Nullable final Component suffix,
+                @Nullable final TextColor colour,
+                final Style style,
+                final boolean urls,
+                final TextReplacementConfig removePrefix,
+                final ServerPlayer player) {
+            this.template = template;
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.colour = colour;
+            this.style = style;
+            this.urls = urls;
+            this.removePrefix = removePrefix;
+            this.player = player;
+        }
     }
 }
@@ -13,11 +13,12 @@ import io.github.nucleuspowered.nucleus.modules.chat.config.ChatTemplateConfig;
 import io.github.nucleuspowered.nucleus.core.scaffold.service.ServiceBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
+import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.service.permission.Subject;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Contains the logic for caching templates and the template selection logic.
@@ -26,7 +27,12 @@ public class ChatService implements IReloadableService.Reloadable, ServiceBase {
 
     private final INucleusTextTemplateFactory textTemplateFactory;
     private ChatConfig config = new ChatConfig();
-    private final Map<String, TemplateCache> templateCacheMap = new HashMap<>();
+    private final Map<String, TemplateCache> templateCacheMap = new ConcurrentHashMap<>();
+
+    // The template selected for each online player, which is cleared whenever their
+    // permissions or contexts may have changed, so that the group option isn't looked up
+    // for every message.
+    private final Map<UUID, TemplateCache> playerTemplates = new ConcurrentHashMap<>();
     private TemplateCache defaultTemplate =
             new TemplateCache(new ChatTemplateConfig(), NucleusTextTemplateImpl.empty(), NucleusTextTemplateImpl.empty());
 
@@ -40,6 +46,29 @@ public class ChatService implements IReloadableService.Reloadable, ServiceBase {
             return this.defaultTemplate;
         }
 
+        if (subject instanceof ServerPlayer) {
+            return this.playerTemplates.computeIfAbsent(((ServerPlayer) subject).uniqueId(), x -> this.selectTemplate(subject));
+        }
+        return this.selectTemplate(subject);
+    }
+
+    /**
+     * Discards the template selected for the player with the given {@link UUID}.
+     *
+     * @param uuid The {@link UUID} of the player
+     */
+    public void invalidateTemplate(final UUID uuid) {
+        this.playerTemplates.remove(uuid);
+    }
+
+    /**
+     * Discards the templates selected for all players.
+     */
+    public void invalidateTemplates() {
+        this.playerTemplates.clear();
+    }
+
+    private TemplateCache selectTemplate(final Subject subject) {
         return subject.option("nucleus.chat.group")
                 .map(this::getTemplateCache)
                 .orElse(this.defaultTemplate);
@@ -69,6 +98,7 @@ public class ChatService implements IReloadableService.Reloadable, ServiceBase {
                 serviceCollection.textTemplateFactory().createFromAmpersandStringIgnoringExceptions(this.config.getDefaultTemplate().getSuffix())
                     .orElseGet(NucleusTextTemplateImpl::empty)
                 );
+        this.playerTemplates.clear();
     }
 
     public TemplateCache getDefaultTemplate() {
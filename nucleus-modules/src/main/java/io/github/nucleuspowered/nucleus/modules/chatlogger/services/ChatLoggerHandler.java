@@ -24,6 +24,7 @@ public class ChatLoggerHandler extends AbstractLoggingHandler implements Service
 
     @Override
     public void onReload(final INucleusServiceCollection serviceCollection) {
+        super.onReload(serviceCollection);
         final ChatLoggingConfig clca = serviceCollection.configProvider().getModuleConfig(ChatLoggingConfig.class);
         this.enabled = clca.isEnableLog();
         try {
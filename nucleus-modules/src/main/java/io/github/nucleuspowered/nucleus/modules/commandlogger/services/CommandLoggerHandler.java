@@ -25,6 +25,7 @@ public class CommandLoggerHandler extends AbstractLoggingHandler implements IRel
 
     @Override
     public void onReload(final INucleusServiceCollection serviceCollection) {
+        super.onReload(serviceCollection);
         this.config = serviceCollection.configProvider().getModuleConfig(CommandLoggerConfig.class);
         try {
             if (this.config.isLogToFile() && this.logger == null) {
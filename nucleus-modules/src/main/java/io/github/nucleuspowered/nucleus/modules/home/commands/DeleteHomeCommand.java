@@ -26,6 +26,7 @@ import org.spongepowered.api.event.CauseStackManager;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Command(
         aliases = {"delete", "del", "#deletehome", "#delhome"},
@@ -37,7 +38,7 @@ import java.util.UUID;
 @EssentialsEquivalent({"delhome", "remhome", "rmhome"})
 public class DeleteHomeCommand implements ICommandExecutor {
 
-    private final Parameter.Value<Home> parameter;
+    private final Parameter.Value<String> parameter;
     private final Parameter.Value<UUID> userParameter;
 
     @Inject
@@ -48,7 +49,7 @@ public class DeleteHomeCommand implements ICommandExecutor {
                         .requirements(x -> permissionService.hasPermission(x, HomePermissions.BASE_HOME_DELETEOTHER))
                         .key(HomeParameter.OTHER_PLAYER_KEY)
                         .build();
-        this.parameter = Parameter.builder(Home.class)
+        this.parameter = Parameter.builder(String.class)
                 .addParser(new HomeParameter(serviceCollection.getServiceUnchecked(HomeService.class), serviceCollection.messageProvider()))
                 .key("home")
                 .build();
@@ -64,13 +65,47 @@ public class DeleteHomeCommand implements ICommandExecutor {
 
     @Override
     public ICommandResult execute(final ICommandContext context) throws CommandException {
-        final Home wl = context.requireOne(this.parameter);
-        final Optional<User> target = context.getOne(this.userParameter)
-                .flatMap(x -> Sponge.server().userManager().load(x).join());
+        final HomeService homeService = context.getServiceCollection().getServiceUnchecked(HomeService.class);
+        final String name = context.requireOne(this.parameter);
+        final Optional<UUID> other = context.getOne(this.userParameter);
+        final UUID target = other.isPresent() ? other.get() : context.getIfPlayer().uniqueId();
+
+        // Get the home, and the other player, without waiting on storage.
+        final CompletableFuture<Optional<Home>> homeFuture = homeService.getHomeAsync(target, name);
+        final CompletableFuture<Optional<User>> userFuture =
+                other.isPresent() ? Sponge.server().userManager().load(target) : CompletableFuture.completedFuture(Optional.empty());
+        if (HomeCommand.isReady(homeFuture) && HomeCommand.isReady(userFuture)) {
+            return this.delete(context, homeService, name, userFuture.join(), homeFuture.join());
+        }
+
+        // Only the deletion needs to happen on the main thread.
+        CompletableFuture.allOf(homeFuture, userFuture).whenComplete((ignored, throwable) ->
+                context.getServiceCollection().schedulerService().runOnMainThread(() -> {
+                    if (throwable != null) {
+                        context.getServiceCollection().logger().error("Could not load the homes of " + target, throwable);
+                        context.completeLater(context.errorResultLiteral(Component.text("An unspecified error occurred")));
+                        return;
+                    }
+
+                    context.completeLater(this.delete(context, homeService, name, userFuture.join(), homeFuture.join()));
+                }));
+        return ICommandResult.willContinueLater();
+    }
+
+    private ICommandResult delete(
+            final ICommandContext context,
+            final HomeService homeService,
+            final String name,
+            final Optional<User> target,
+            final Optional<Home> home) {
+        if (!home.isPresent()) {
+            return context.errorResult("args.home.nohome", name);
+        }
+        final Home wl = home.get();
 
         try (final CauseStackManager.StackFrame frame = Sponge.server().causeStackManager().pushCauseFrame()) {
             frame.pushCause(context.getCommandSourceRoot());
-            context.getServiceCollection().getServiceUnchecked(HomeService.class).removeHome(wl.getOwnersUniqueId(), wl.getLocation().getName());
+            homeService.removeHome(wl.getOwnersUniqueId(), wl.getLocation().getName());
             if (target.isPresent()) {
                 context.sendMessage("command.home.delete.other.success", target.get().name(), wl.getLocation().getName());
             } else {
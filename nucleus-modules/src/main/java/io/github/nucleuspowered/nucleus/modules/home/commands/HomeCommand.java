@@ -35,6 +35,7 @@ import org.spongepowered.api.world.server.ServerLocation;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @EssentialsEquivalent(value = {"home", "homes"}, notes = "'/homes' will list homes, '/home' will teleport like Essentials did.")
 @Command(
@@ -57,7 +58,7 @@ public class HomeCommand implements ICommandExecutor, IReloadableService.Reloada
     private boolean isPreventOverhang = true;
     private boolean isOnlySameDimension = false;
 
-    private final Parameter.Value<Home> parameter;
+    private final Parameter.Value<String> parameter;
     private final Parameter.Value<UUID> userParameter;
 
     @Inject
@@ -68,7 +69,7 @@ public class HomeCommand implements ICommandExecutor, IReloadableService.Reloada
                         .requirements(x -> permissionService.hasPermission(x, HomePermissions.BASE_HOME_OTHER))
                         .key(HomeParameter.OTHER_PLAYER_KEY)
                         .build();
-        this.parameter = Parameter.builder(Home.class)
+        this.parameter = Parameter.builder(String.class)
                 .addParser(new HomeParameter(serviceCollection.getServiceUnchecked(HomeService.class), serviceCollection.messageProvider()))
                 .optional()
                 .key("home")
@@ -104,25 +105,61 @@ public class HomeCommand implements ICommandExecutor, IReloadableService.Reloada
             target = invokingPlayer.uniqueId();
             isOther = false;
         }
-        final int max = homeService.getMaximumHomes(target);
-        final int current = homeService.getHomeCount(target);
+        final int max = homeService.getMaximumHomes(user);
+
+        // Get the home, and the number of homes, without waiting on storage.
+        final String name = context.getOne(this.parameter).orElse(NucleusHomeService.DEFAULT_HOME_NAME);
+        final CompletableFuture<Optional<Home>> homeFuture = homeService.getHomeAsync(target, name);
+        final CompletableFuture<Integer> countFuture = homeService.getHomeCountAsync(target);
+        if (HomeCommand.isReady(homeFuture) && HomeCommand.isReady(countFuture)) {
+            return this.teleport(context, homeService, invokingPlayer, user, target, isOther, max, countFuture.join(), name, homeFuture.join());
+        }
+
+        // Only the teleport needs to happen on the main thread.
+        CompletableFuture.allOf(homeFuture, countFuture).whenComplete((ignored, throwable) ->
+                context.getServiceCollection().schedulerService().runOnMainThread(() -> {
+                    if (throwable != null) {
+                        context.getServiceCollection().logger().error("Could not load the homes of " + user.name(), throwable);
+                        context.completeLater(context.errorResultLiteral(Component.text("An unspecified error occurred")));
+                        return;
+                    }
+
+                    try {
+                        context.completeLater(
+                                this.teleport(context, homeService, invokingPlayer, user, target, isOther, max, countFuture.join(), name,
+                                        homeFuture.join()));
+                    } catch (final CommandException e) {
+                        context.completeLater(context.errorResultLiteral(
+                                e.componentMessage() == null ? Component.text("An unspecified error occurred") : e.componentMessage()));
+                    }
+                }));
+        return ICommandResult.willContinueLater();
+    }
+
+    static boolean isReady(final CompletableFuture<?> future) {
+        return future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    private ICommandResult teleport(
+            final ICommandContext context,
+            final HomeService homeService,
+            final ServerPlayer invokingPlayer,
+            final User user,
+            final UUID target,
+            final boolean isOther,
+            final int max,
+            final int current,
+            final String name,
+            final Optional<Home> home) throws CommandException {
         if (this.isPreventOverhang && max < current) {
             // If the player has too many homes, tell them
             return context.errorResult("command.home.overhang", max, current);
         }
 
-        // Get the home.
-        final Optional<Home> owl = context.getOne(this.parameter);
-        final Home wl;
-        if (owl.isPresent()) {
-            wl = owl.get();
-        } else {
-            final Optional<Home> home = homeService.getHome(target, NucleusHomeService.DEFAULT_HOME_NAME);
-            if (!home.isPresent()) {
-                return context.errorResult("args.home.nohome", NucleusHomeService.DEFAULT_HOME_NAME);
-            }
-            wl = home.get();
+        if (!home.isPresent()) {
+            return context.errorResult("args.home.nohome", name);
         }
+        final Home wl = home.get();
 
         Sponge.server().worldManager().world(wl.getLocation().getWorld().get().key())
                 .orElseThrow(() -> context.createException("command.home.invalid", wl.getLocation().getName()));
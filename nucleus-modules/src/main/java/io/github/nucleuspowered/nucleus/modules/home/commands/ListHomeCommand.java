@@ -35,6 +35,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Command(
@@ -57,18 +58,36 @@ public class ListHomeCommand implements ICommandExecutor, IReloadableService.Rel
 
     @Override public ICommandResult execute(final ICommandContext context) throws CommandException {
         final User user = context.getUserFromArgs();
-        final Component header;
 
         final boolean other = !context.is(user);
         if (other && (context.isConsoleAndBypass() || context.testPermissionFor(user, HomePermissions.HOME_OTHER_EXEMPT_TARGET))) {
             return context.errorResult("command.listhome.exempt");
         }
 
-        final List<Home> msw = context.getServiceCollection().getServiceUnchecked(HomeService.class).getHomes(user);
+        final CompletableFuture<List<Home>> homes =
+                context.getServiceCollection().getServiceUnchecked(HomeService.class).getHomesAsync(user.uniqueId());
+        if (homes.isDone() && !homes.isCompletedExceptionally()) {
+            return this.list(context, user, other, homes.join());
+        }
+
+        homes.whenComplete((msw, throwable) ->
+                context.getServiceCollection().schedulerService().runOnMainThread(() -> {
+                    if (throwable != null) {
+                        context.getServiceCollection().logger().error("Could not load the homes of " + user.name(), throwable);
+                        context.completeLater(context.errorResultLiteral(Component.text("An unspecified error occurred")));
+                    } else {
+                        context.completeLater(this.list(context, user, other, msw));
+                    }
+                }));
+        return ICommandResult.willContinueLater();
+    }
+
+    private ICommandResult list(final ICommandContext context, final User user, final boolean other, final List<Home> msw) {
         if (msw.isEmpty()) {
             return context.errorResult("command.home.nohomes");
         }
 
+        final Component header;
         final Audience audience = context.audience();
         final IMessageProviderService messageProviderService = context.getServiceCollection().messageProvider();
         if (other) {
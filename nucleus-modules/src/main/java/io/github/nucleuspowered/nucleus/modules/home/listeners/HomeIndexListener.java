@@ -0,0 +1,36 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.home.listeners;
+
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.modules.home.services.HomeService;
+import org.spongepowered.api.entity.living.player.server.ServerPlayer;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.filter.Getter;
+import org.spongepowered.api.event.network.ServerSideConnectionEvent;
+
+public class HomeIndexListener implements ListenerBase {
+
+    private final HomeService homeService;
+
+    @Inject
+    public HomeIndexListener(final INucleusServiceCollection serviceCollection) {
+        this.homeService = serviceCollection.getServiceUnchecked(HomeService.class);
+    }
+
+    @Listener(order = Order.LATE)
+    public void onJoin(final ServerSideConnectionEvent.Join event, @Getter("player") final ServerPlayer player) {
+        this.homeService.indexHomes(player.uniqueId());
+    }
+
+    @Listener(order = Order.POST)
+    public void onDisconnect(final ServerSideConnectionEvent.Disconnect event, @Getter("player") final ServerPlayer player) {
+        this.homeService.removeFromIndex(player.uniqueId());
+    }
+
+}
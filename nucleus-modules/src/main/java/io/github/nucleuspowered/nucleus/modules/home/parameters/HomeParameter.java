@@ -8,7 +8,6 @@ import io.github.nucleuspowered.nucleus.api.module.home.data.Home;
 import io.github.nucleuspowered.nucleus.modules.home.services.HomeService;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IMessageProviderService;
 import io.leangen.geantyref.TypeToken;
-import net.kyori.adventure.text.Component;
 import org.spongepowered.api.command.CommandCompletion;
 import org.spongepowered.api.command.exception.ArgumentParseException;
 import org.spongepowered.api.command.parameter.ArgumentReader;
@@ -24,9 +23,17 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-public class HomeParameter implements ValueParameter<Home> {
+/**
+ * Parses the name of a home of the target player.
+ *
+ * <p>Parsing cannot wait on storage, so a name is only checked here if the target's homes
+ * are already loaded. Commands must get the home itself with
+ * {@link HomeService#getHomeAsync(UUID, String)}, and handle it not existing.</p>
+ */
+public class HomeParameter implements ValueParameter<String> {
 
     public static final Parameter.Key<UUID> OTHER_PLAYER_KEY = Parameter.key("other player", TypeToken.get(UUID.class));
 
@@ -56,8 +63,8 @@ public class HomeParameter implements ValueParameter<Home> {
     }
 
     @Override
-    public Optional<? extends Home> parseValue(
-            final Parameter.Key<? super Home> parameterKey,
+    public Optional<? extends String> parseValue(
+            final Parameter.Key<? super String> parameterKey,
             final ArgumentReader.Mutable reader,
             final CommandContext.Builder context) throws ArgumentParseException {
 
@@ -65,17 +72,13 @@ public class HomeParameter implements ValueParameter<Home> {
                         reader.createException(this.messageProviderService.getMessageFor(context.cause().audience(), "command.playeronly")));
 
         final String home = reader.parseString();
-        try {
-            final Optional<Home> owl = this.homeService.getHome(target, home);
-            if (owl.isPresent()) {
-                return owl;
-            }
-        } catch (final Exception e) {
-            e.printStackTrace();
-            throw reader.createException(Component.text("An unspecified error occurred"));
+        final CompletableFuture<Optional<Home>> loaded = this.homeService.getHomeAsync(target, home);
+        if (loaded.isDone() && !loaded.isCompletedExceptionally() && !loaded.join().isPresent()) {
+            // Failing here lets the command try its other parameters, such as a player name.
+            throw reader.createException(this.messageProviderService.getMessageFor(context.cause().audience(), "args.home.nohome", home));
         }
 
-        throw reader.createException(this.messageProviderService.getMessageFor(context.cause().audience(), "args.home.nohome", home));
+        return Optional.of(home);
     }
 
     private Optional<UUID> getTarget(final CommandContext context) {
@@ -4,6 +4,8 @@
  */
 package io.github.nucleuspowered.nucleus.modules.home.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.inject.Inject;
 import io.github.nucleuspowered.nucleus.core.Util;
 import io.github.nucleuspowered.nucleus.api.module.home.NucleusHomeService;
@@ -46,40 +48,196 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @APIService(NucleusHomeService.class)
 public class HomeService implements NucleusHomeService, ServiceBase {
 
     private final INucleusServiceCollection serviceCollection;
 
+    // Homes of online players, keyed by lower case name, so lookups and completion never go to storage.
+    private final Map<UUID, Map<String, Home>> homeIndex = new ConcurrentHashMap<>();
+
+    // Homes of players who are not online but have been asked for, such as when completing
+    // their home names. Every change to homes goes through setAndSave, which keeps this current.
+    private final Cache<UUID, Map<String, Home>> offlineHomeIndex = Caffeine.newBuilder()
+            .maximumSize(100)
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .build();
+
     @Inject
     public HomeService(final INucleusServiceCollection serviceCollection) {
         this.serviceCollection = serviceCollection;
     }
 
+    /**
+     * Loads the homes for a player off the main thread, then adds them to the index on
+     * the main thread.
+     *
+     * <p>If the player's homes were changed while they were loading, the index already
+     * holds the newer homes, which are kept.</p>
+     *
+     * @param user The player
+     */
+    public void indexHomes(final UUID user) {
+        this.serviceCollection.storageManager().getUser(user).thenAcceptAsync(x -> {
+            // The player may have left while the data was loading.
+            if (Sponge.server().player(user).isPresent()) {
+                this.homeIndex.putIfAbsent(user, HomeService.toIndex(x.flatMap(udo -> udo.get(HomeKeys.HOMES)).orElseGet(Collections::emptyMap)));
+                this.offlineHomeIndex.invalidate(user);
+            }
+        }, Sponge.server().scheduler().executor(this.serviceCollection.pluginContainer()));
+    }
+
+    public void removeFromIndex(final UUID user) {
+        final Map<String, Home> indexed = this.homeIndex.remove(user);
+        if (indexed != null) {
+            // Keep them for a while, someone may well ask about them soon after they leave.
+            this.offlineHomeIndex.put(user, indexed);
+        }
+    }
+
+    /**
+     * Loads the homes for a player who is not online off the main thread, so that they
+     * can be looked up without touching storage for a while.
+     *
+     * @param user The player
+     */
+    private void indexOfflineHomes(final UUID user) {
+        this.serviceCollection.storageManager().getUser(user).thenAccept(x -> {
+            // Players who have come online are indexed when they join, and homes that were
+            // saved while this was loading are newer.
+            if (!this.homeIndex.containsKey(user)) {
+                this.offlineHomeIndex.asMap().putIfAbsent(user,
+                        HomeService.toIndex(x.flatMap(udo -> udo.get(HomeKeys.HOMES)).orElseGet(Collections::emptyMap)));
+            }
+        });
+    }
+
+    private @Nullable Map<String, Home> getIndexed(final UUID user) {
+        final Map<String, Home> online = this.homeIndex.get(user);
+        if (online != null) {
+            return online;
+        }
+        return this.offlineHomeIndex.getIfPresent(user);
+    }
+
+    private static Map<String, Home> toIndex(final Map<String, Home> homes) {
+        final Map<String, Home> indexed = new HashMap<>();
+        homes.forEach((name, home) -> indexed.put(name.toLowerCase(), home));
+        return Collections.unmodifiableMap(indexed);
+    }
+
     @Override
     public List<Home> getHomes(final UUID user) {
+        final Map<String, Home> indexed = this.getIndexed(user);
+        if (indexed != null) {
+            return this.getHomesFrom(indexed);
+        }
+
         final Optional<IUserDataObject> service = this.serviceCollection.storageManager().getUserOnThread(user); //.get().getHome;
         return service.map(this::getHomes).orElseGet(Collections::emptyList);
 
     }
 
+    @Override
+    public CompletableFuture<List<Home>> getHomesAsync(final UUID user) {
+        final Map<String, Home> indexed = this.getIndexed(user);
+        if (indexed != null) {
+            return CompletableFuture.completedFuture(this.getHomesFrom(indexed));
+        }
+
+        return this.serviceCollection.storageManager().getUser(user)
+                .thenApply(service -> service.map(this::getHomes).orElseGet(Collections::emptyList));
+    }
+
     private List<Home> getHomes(final IUserDataObject userDataObject) {
         return this.getHomesFrom(userDataObject.get(HomeKeys.HOMES).orElseGet(Collections::emptyMap));
     }
 
+    /**
+     * Gets the names of a player's homes from the index. This never waits on storage, so
+     * players whose homes are not indexed have no names until their homes have been
+     * loaded and indexed, which this starts.
+     *
+     * @param user The player
+     * @return The home names
+     */
     public Collection<String> getHomeNames(final UUID user) {
-        return this.serviceCollection.storageManager()
-                .getUserOnThread(user).flatMap(x -> x.get(HomeKeys.HOMES).map(Map::keySet)).orElseGet(Collections::emptySet);
+        Map<String, Home> indexed = this.getIndexed(user);
+        if (indexed == null) {
+            // If the player's data is already in memory, they are indexed straight away.
+            this.indexOfflineHomes(user);
+            indexed = this.offlineHomeIndex.getIfPresent(user);
+            if (indexed == null) {
+                return Collections.emptySet();
+            }
+        }
+
+        return indexed.values().stream().map(x -> x.getLocation().getName()).collect(Collectors.toList());
     }
 
     @Override public Optional<Home> getHome(final UUID user, final String name) {
+        final Map<String, Home> indexed = this.getIndexed(user);
+        if (indexed != null) {
+            return Optional.ofNullable(indexed.get(name.toLowerCase()));
+        }
+
         final Optional<IUserDataObject> service = this.serviceCollection.storageManager().getUser(user).join();
         return service.flatMap(modularUserService -> this.getHome(name, modularUserService.get(HomeKeys.HOMES).orElse(null)));
 
     }
 
+    @Override
+    public CompletableFuture<Optional<Home>> getHomeAsync(final UUID user, final String name) {
+        final Map<String, Home> indexed = this.getIndexed(user);
+        if (indexed != null) {
+            return CompletableFuture.completedFuture(Optional.ofNullable(indexed.get(name.toLowerCase())));
+        }
+
+        return this.serviceCollection.storageManager().getUser(user)
+                .thenApply(service -> service.flatMap(x -> this.getHome(name, x.get(HomeKeys.HOMES).orElse(null))));
+    }
+
+    @Override
+    public CompletableFuture<Void> createHomeAsync(final UUID user, final String name, final ServerLocation location, final Vector3d rotation) {
+        return this.runAfterLoading(user, () -> this.createHome(user, name, location, rotation));
+    }
+
+    @Override
+    public CompletableFuture<Void> modifyHomeAsync(final UUID user, final String name, final ServerLocation location, final Vector3d rotation) {
+        return this.runAfterLoading(user, () -> this.modifyHome(user, name, location, rotation));
+    }
+
+    @Override
+    public CompletableFuture<Void> removeHomeAsync(final UUID user, final String name) {
+        return this.runAfterLoading(user, () -> this.removeHome(user, name));
+    }
+
+    /*
+     * Loads the user's data off the main thread, then runs the action on the main thread,
+     * where the data is now cached. The root of the current cause is carried over, so that
+     * messages still go to whoever asked for the change.
+     */
+    private CompletableFuture<Void> runAfterLoading(final UUID user, final HomeAction action) {
+        final Object root = Sponge.server().onMainThread() ? Sponge.server().causeStackManager().currentCause().root() : null;
+        return this.serviceCollection.storageManager().getOrCreateUser(user).thenAcceptAsync(udo -> {
+            try (final CauseStackManager.StackFrame frame = Sponge.server().causeStackManager().pushCauseFrame()) {
+                if (root != null) {
+                    frame.pushCause(root);
+                }
+                action.run();
+            } catch (final HomeException e) {
+                throw new CompletionException(e);
+            }
+        }, Sponge.server().scheduler().executor(this.serviceCollection.pluginContainer()));
+    }
+
     @Override public void createHome(final UUID user, final String name, final ServerLocation location, final Vector3d rotation)
             throws HomeException {
 
@@ -177,6 +335,11 @@ public class HomeService implements NucleusHomeService, ServiceBase {
 
     @Override
     public int getMaximumHomes(final UUID uuid) throws IllegalArgumentException {
+        final Optional<ServerPlayer> player = Sponge.server().player(uuid);
+        if (player.isPresent()) {
+            return this.getMaximumHomes(player.get().user());
+        }
+
         final Optional<User> user = Sponge.server().userManager().load(uuid).join();
         if (!user.isPresent()) {
             throw new IllegalArgumentException("user does not exist.");
@@ -305,5 +468,18 @@ public class HomeService implements NucleusHomeService, ServiceBase {
 
     private void setAndSave(final UUID uuid, final Map<String, Home> map) {
         this.serviceCollection.storageManager().getUserService().setAndSave(uuid, HomeKeys.HOMES, map);
+        // Always index online players, even if their homes are still loading, so the load
+        // does not replace these homes with older ones.
+        if (Sponge.server().player(uuid).isPresent()) {
+            this.homeIndex.put(uuid, HomeService.toIndex(map));
+        } else {
+            this.offlineHomeIndex.put(uuid, HomeService.toIndex(map));
+        }
+    }
+
+    @FunctionalInterface
+    private interface HomeAction {
+
+        void run() throws HomeException;
     }
 }
@@ -34,6 +34,7 @@ import io.github.nucleuspowered.nucleus.modules.kit.config.KitConfig;
 import io.github.nucleuspowered.nucleus.modules.kit.data.KitDataBuilder;
 import io.github.nucleuspowered.nucleus.modules.kit.listeners.KitAutoRedeemListener;
 import io.github.nucleuspowered.nucleus.modules.kit.listeners.KitListener;
+import io.github.nucleuspowered.nucleus.modules.kit.services.KitItemTemplates;
 import io.github.nucleuspowered.nucleus.modules.kit.services.KitService;
 import io.github.nucleuspowered.nucleus.modules.kit.storage.KitStorageModule;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
@@ -57,8 +58,9 @@ public class KitModule implements IModule.Configurable<KitConfig> {
 
     @Override
     public void init(final INucleusServiceCollection serviceCollection) {
-        serviceCollection.storageManager().register(new KitStorageModule(serviceCollection));
-        final KitService kitService = new KitService(serviceCollection);
+        final KitItemTemplates itemTemplates = new KitItemTemplates(serviceCollection.textTemplateFactory());
+        serviceCollection.storageManager().register(new KitStorageModule(serviceCollection, itemTemplates));
+        final KitService kitService = new KitService(serviceCollection, itemTemplates);
         serviceCollection.registerService(KitService.class, kitService, false);
         // Data
         serviceCollection.game().dataManager().registerBuilder(Kit.class, new KitDataBuilder(serviceCollection.logger()));
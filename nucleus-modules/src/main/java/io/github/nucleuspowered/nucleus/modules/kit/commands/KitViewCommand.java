@@ -18,12 +18,10 @@ import org.spongepowered.api.command.exception.CommandException;
 import org.spongepowered.api.command.parameter.Parameter;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.item.inventory.ItemStack;
-import org.spongepowered.api.item.inventory.ItemStackSnapshot;
 import org.spongepowered.api.item.inventory.menu.InventoryMenu;
 import org.spongepowered.api.item.inventory.type.ViewableInventory;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Command(
         aliases = { "view" },
@@ -52,11 +50,7 @@ public class KitViewCommand implements ICommandExecutor, IReloadableService.Relo
         inventory.setTitle(context.getMessage("command.kit.edit.title", kitInfo.getName()));
         inventory.setReadOnly(true);
 
-        final List<ItemStack> lis = kitInfo.getStacks().stream().filter(x -> !x.isEmpty()).map(ItemStackSnapshot::createStack)
-                .collect(Collectors.toList());
-        if (this.processTokens) {
-            service.processTokensInItemStacks(src, lis);
-        }
+        final List<ItemStack> lis = service.getNonEmptyStacks(kitInfo, src, this.processTokens);
 
         lis.forEach(kitInv::offer);
         return inventory.open(src).map(x -> context.successResult())
@@ -19,7 +19,9 @@ import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.filter.cause.Root;
 import org.spongepowered.api.event.network.ServerSideConnectionEvent;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class KitAutoRedeemListener implements ListenerBase.Conditional, IReloadableService.Reloadable {
 
@@ -35,11 +37,15 @@ public class KitAutoRedeemListener implements ListenerBase.Conditional, IReloada
         this.logger = serviceCollection.logger();
     }
 
-    // TODO: Replace
     @Listener
     public void onPlayerJoin(final ServerSideConnectionEvent.Join event, @Root final ServerPlayer player) {
         final List<Kit> autoRedeemable = this.kitService.getAutoRedeemable();
+        if (autoRedeemable.isEmpty()) {
+            return;
+        }
+
         final String name = "[Kit Auto Redeem - " + player.name() + "]: ";
+        final List<Kit> toRedeem = new ArrayList<>();
         for (final Kit kit : autoRedeemable) {
             final String permission = KitPermissions.getKitPermission(kit.getName().toLowerCase());
             final String kitName = kit.getName();
@@ -51,14 +57,29 @@ public class KitAutoRedeemListener implements ListenerBase.Conditional, IReloada
                 continue;
             }
 
-            // Redeem kit in the normal way.
-            final KitRedeemResult redeemResult = this.kitService.redeemKit(kit, player, true, true, this.mustGetAll, false);
-            if (redeemResult.isSuccess()) {
-                this.log(name + kitName + " - kit redeemed.");
-            } else if (this.logAutoRedeem) {
-                this.logger.error(name + kitName + " - kit could not be redeemed.", redeemResult.getStatus().name());
-            }
+            toRedeem.add(kit);
+        }
+
+        if (toRedeem.isEmpty()) {
+            return;
         }
+
+        // Checks and item preparation happen off the main thread, the items are given out later.
+        this.kitService.redeemKitsStaged(player, toRedeem, this.mustGetAll, false).whenComplete((results, throwable) -> {
+            if (throwable != null) {
+                this.logger.error(name + "kits could not be redeemed.", throwable);
+                return;
+            }
+
+            for (final Map.Entry<Kit, KitRedeemResult> result : results.entrySet()) {
+                final String kitName = result.getKey().getName();
+                if (result.getValue().isSuccess()) {
+                    this.log(name + kitName + " - kit redeemed.");
+                } else if (this.logAutoRedeem) {
+                    this.logger.error(name + kitName + " - kit could not be redeemed.", result.getValue().getStatus().name());
+                }
+            }
+        });
     }
 
     @Override
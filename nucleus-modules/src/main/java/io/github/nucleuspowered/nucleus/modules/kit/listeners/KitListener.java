@@ -14,6 +14,8 @@ import org.spongepowered.api.entity.living.player.server.ServerPlayer;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.filter.Getter;
 
+import java.util.List;
+
 public class KitListener implements ListenerBase {
 
     private final KitService handler;
@@ -25,8 +27,9 @@ public class KitListener implements ListenerBase {
 
     @Listener
     public void onPlayerFirstJoin(final NucleusFirstJoinEvent event, @Getter("getPlayer") final ServerPlayer player) {
-        for (final Kit kit : this.handler.getFirstJoinKits()) {
-            this.handler.redeemKit(kit, player.uniqueId(), true, true);
+        final List<Kit> firstJoinKits = this.handler.getFirstJoinKits();
+        if (!firstJoinKits.isEmpty()) {
+            this.handler.redeemKitsStaged(player, firstJoinKits, true, false);
         }
     }
 
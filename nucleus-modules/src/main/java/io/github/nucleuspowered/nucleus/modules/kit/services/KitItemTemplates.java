@@ -0,0 +1,195 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.kit.services;
+
+import io.github.nucleuspowered.nucleus.api.module.kit.data.Kit;
+import io.github.nucleuspowered.nucleus.core.services.interfaces.INucleusTextTemplateFactory;
+import io.github.nucleuspowered.nucleus.core.services.impl.texttemplatefactory.NucleusTextTemplateImpl;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.data.Keys;
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.item.inventory.ItemStack;
+import org.spongepowered.api.item.inventory.ItemStackSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the token templates for the names and lore of the items in each kit.
+ *
+ * <p>Kits are compiled when they are loaded, or the first time they are needed, and are
+ * discarded when they are saved. Redeeming a kit then only has to fill in the tokens for
+ * the player, rather than search for and parse them each time.</p>
+ */
+public final class KitItemTemplates {
+
+    private static final Pattern TOKEN = Pattern.compile("\\{\\{.+?}}");
+
+    private final INucleusTextTemplateFactory textTemplateFactory;
+    private final Map<String, CompiledKit> compiled = new ConcurrentHashMap<>();
+
+    public KitItemTemplates(final INucleusTextTemplateFactory textTemplateFactory) {
+        this.textTemplateFactory = textTemplateFactory;
+    }
+
+    private static boolean hasToken(final Component component) {
+        return TOKEN.matcher(PlainTextComponentSerializer.plainText().serialize(component)).find();
+    }
+
+    public void compileAll(final Collection<Kit> kits) {
+        this.compiled.clear();
+        for (final Kit kit : kits) {
+            this.compiled.put(kit.getName().toLowerCase(), this.compile(kit, kit.getStacks()));
+        }
+    }
+
+    public void invalidate(final String kitName) {
+        this.compiled.remove(kitName.toLowerCase());
+    }
+
+    public void invalidateAll() {
+        this.compiled.clear();
+    }
+
+    /**
+     * Gets whether any item in the kit has a token in its name or lore.
+     *
+     * @param kit The kit
+     * @return Whether there are tokens to fill in
+     */
+    public boolean hasTokens(final Kit kit) {
+        for (final CompiledStack stack : this.getCompiled(kit, kit.getStacks()).stacks) {
+            if (stack != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the stacks in the kit, filling in any tokens in their names and lore for
+     * the given player.
+     *
+     * @param kit The kit
+     * @param player The player to fill tokens in for
+     * @param processTokens Whether to fill in tokens
+     * @param skipEmpty Whether to leave out empty stacks
+     * @return The stacks
+     */
+    public List<ItemStack> createStacks(final Kit kit, final Player player, final boolean processTokens, final boolean skipEmpty) {
+        final List<ItemStackSnapshot> snapshots = kit.getStacks();
+        final CompiledKit compiledKit = processTokens ? this.getCompiled(kit, snapshots) : null;
+        final List<ItemStack> stacks = new ArrayList<>(snapshots.size());
+        for (int i = 0; i < snapshots.size(); i++) {
+            final ItemStackSnapshot snapshot = snapshots.get(i);
+            if (skipEmpty && snapshot.isEmpty()) {
+                continue;
+            }
+
+            final ItemStack stack = snapshot.createStack();
+            if (compiledKit != null) {
+                final CompiledStack compiledStack = compiledKit.stacks[i];
+                if (compiledStack != null) {
+                    compiledStack.apply(stack, player);
+                }
+            }
+            stacks.add(stack);
+        }
+
+        return stacks;
+    }
+
+    private CompiledKit getCompiled(final Kit kit, final List<ItemStackSnapshot> snapshots) {
+        final CompiledKit compiledKit = this.compiled.get(kit.getName().toLowerCase());
+        if (compiledKit != null && compiledKit.kit == kit && compiledKit.stacks.length == snapshots.size()) {
+            return compiledKit;
+        }
+
+        final CompiledKit newlyCompiled = this.compile(kit, snapshots);
+        this.compiled.put(kit.getName().toLowerCase(), newlyCompiled);
+        return newlyCompiled;
+    }
+
+    private CompiledKit compile(final Kit kit, final List<ItemStackSnapshot> snapshots) {
+        final CompiledStack[] stacks = new CompiledStack[snapshots.size()];
+        for (int i = 0; i < stacks.length; i++) {
+            stacks[i] = this.compile(snapshots.get(i));
+        }
+        return new CompiledKit(kit, stacks);
+    }
+
+    @Nullable
+    private CompiledStack compile(final ItemStackSnapshot snapshot) {
+        final NucleusTextTemplateImpl name = snapshot.get(Keys.CUSTOM_NAME)
+                .filter(KitItemTemplates::hasToken)
+                .map(this::toTemplate)
+                .orElse(null);
+
+        final List<Component> lore = snapshot.get(Keys.LORE).orElse(null);
+        Object[] loreLines = null;
+        if (lore != null && lore.stream().anyMatch(KitItemTemplates::hasToken)) {
+            loreLines = new Object[lore.size()];
+            for (int i = 0; i < loreLines.length; i++) {
+                final Component line = lore.get(i);
+                loreLines[i] = KitItemTemplates.hasToken(line) ? this.toTemplate(line) : line;
+            }
+        }
+
+        if (name == null && loreLines == null) {
+            return null;
+        }
+        return new CompiledStack(name, loreLines);
+    }
+
+    private NucleusTextTemplateImpl toTemplate(final Component component) {
+        return this.textTemplateFactory.createFromAmpersandString(LegacyComponentSerializer.legacyAmpersand().serialize(component));
+    }
+
+    private static final class CompiledKit {
+
+        private final Kit kit;
+        private final @Nullable CompiledStack[] stacks;
+
+        private CompiledKit(final Kit kit, final @Nullable CompiledStack[] stacks) {
+            this.kit = kit;
+            this.stacks = stacks;
+        }
+    }
+
+    private static final class CompiledStack {
+
+        @Nullable private final NucleusTextTemplateImpl name;
+
+        // Each line is either a template, or a component without tokens
+        private final Object @Nullable [] lore;
+
+        private CompiledStack(@Nullable final NucleusTextTemplateImpl name, final Object @Nullable [] lore) {
+            this.name = name;
+            this.lore = lore;
+        }
+
+        private void apply(final ItemStack stack, final Player player) {
+            if (this.name != null) {
+                stack.offer(Keys.CUSTOM_NAME, this.name.getForObject(player));
+            }
+
+            if (this.lore != null) {
+                final List<Component> lines = new ArrayList<>(this.lore.length);
+                for (final Object line : this.lore) {
+                    lines.add(line instanceof NucleusTextTemplateImpl ? ((NucleusTextTemplateImpl) line).getForObject(player) : (Component) line);
+                }
+                stack.offer(Keys.LORE, lines);
+            }
+        }
+    }
+
+}
@@ -31,6 +31,7 @@ import io.github.nucleuspowered.nucleus.core.services.impl.storage.services.ISto
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.command.exception.CommandException;
 import org.spongepowered.api.command.parameter.Parameter;
@@ -55,6 +56,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -78,6 +80,7 @@ public class KitService implements NucleusKitService, IReloadableService.Reloada
     private final IPermissionService permissionService;
     private final IMessageProviderService messageProviderService;
     private final INucleusTextTemplateFactory textTemplateFactory;
+    private final KitItemTemplates itemTemplates;
     private final Logger logger;
 
     private boolean isProcessTokens = false;
@@ -90,6 +93,11 @@ public class KitService implements NucleusKitService, IReloadableService.Reloada
 
     @Inject
     public KitService(final INucleusServiceCollection serviceCollection) {
+        this(serviceCollection, new KitItemTemplates(serviceCollection.textTemplateFactory()));
+    }
+
+    public KitService(final INucleusServiceCollection serviceCollection, final KitItemTemplates itemTemplates) {
+        this.itemTemplates = itemTemplates;
         this.pluginContainer = serviceCollection.pluginContainer();
         this.permissionService = serviceCollection.permissionService();
         this.storageManager = serviceCollection.storageManager();
@@ -132,12 +140,7 @@ public class KitService implements NucleusKitService, IReloadableService.Reloada
     @Override
     public Collection<ItemStack> getItemsForPlayer(final Kit kit, final UUID uuid) {
         final ServerPlayer serverPlayer = this.player(uuid);
-        final Collection<ItemStack> cis = kit.getStacks().stream().map(ItemStackSnapshot::createStack).collect(Collectors.toList());
-        if (this.isProcessTokens) {
-            this.processTokensInItemStacks(serverPlayer, cis);
-        }
-
-        return cis;
+        return this.itemTemplates.createStacks(kit, serverPlayer, this.isProcessTokens, false);
     }
 
     private ServerPlayer player(final UUID uuid) {
@@ -199,10 +202,127 @@ public class KitService implements NucleusKitService, IReloadableService.Reloada
             final boolean checkCooldown,
             final boolean isMustGetAll,
             final boolean isFirstJoin) {
+        final Map<String, Instant> redeemed = this.getUserRedemptionData(player.uniqueId()).join();
+        final Collection<ItemStackSnapshot> original = this.getItems(kit, this.isProcessTokens, player);
+        final KitRedeemResult result =
+                this.redeemKit(kit, player, redeemed, original, checkOneTime, checkCooldown, isMustGetAll, isFirstJoin);
+        if (checkCooldown && result.isSuccess()) {
+            this.setUserRedemptionData(player.uniqueId(), redeemed);
+        }
+        return result;
+    }
+
+    /**
+     * Redeems a set of kits for a player in stages, so that as little work as possible
+     * is done on the main thread.
+     *
+     * <ol>
+     *     <li>The exemption permissions are read on the calling thread, which must be the
+     *     main thread.</li>
+     *     <li>The player's redemption data is loaded, and the one time and cooldown checks
+     *     and item preparation are performed off the main thread. Items that contain
+     *     tokens are left for the next stage, as filling them in may need to look at the
+     *     player.</li>
+     *     <li>The remaining kits are redeemed on the main thread in one task. The checks
+     *     are made again against the player's current redemption data, as other
+     *     redemptions may have happened since the second stage, and that data is saved once
+     *     at the end.</li>
+     * </ol>
+     *
+     * <p>Kits that are filtered out in the second stage do not fire a failed redeem
+     * event.</p>
+     *
+     * @param player The player
+     * @param kits The kits to redeem, in order
+     * @param isMustGetAll Whether all items must be given for a kit to be redeemed
+     * @param isFirstJoin Whether this is for the player's first join
+     * @return The results for each kit that was attempted
+     */
+    public CompletableFuture<Map<Kit, KitRedeemResult>> redeemKitsStaged(final ServerPlayer player,
+            final Collection<Kit> kits,
+            final boolean isMustGetAll,
+            final boolean isFirstJoin) {
         final UUID playerUUID = player.uniqueId();
-        KitRedeemResult result = null;
+        final boolean exemptOneTime = this.permissionService.hasPermission(player, KitPermissions.KIT_EXEMPT_ONETIME);
+        final boolean exemptCooldown = this.permissionService.hasPermission(player, KitPermissions.KIT_EXEMPT_COOLDOWN);
+        final List<Kit> toRedeem = new ArrayList<>(kits);
+        final boolean processTokens = this.isProcessTokens;
+        return this.getUserRedemptionData(playerUUID)
+                .thenApplyAsync(redeemed -> this.prepareRedemptions(toRedeem, redeemed, exemptOneTime, exemptCooldown, processTokens),
+                        Sponge.asyncScheduler().executor(this.pluginContainer))
+                .thenApplyAsync(prepared -> this.applyRedemptions(playerUUID, prepared, isMustGetAll, isFirstJoin),
+                        Sponge.server().scheduler().executor(this.pluginContainer));
+    }
+
+    private List<PreparedKit> prepareRedemptions(final List<Kit> kits,
+            final Map<String, Instant> redeemed,
+            final boolean exemptOneTime,
+            final boolean exemptCooldown,
+            final boolean processTokens) {
+        final Instant now = Instant.now();
+        final List<PreparedKit> prepared = new ArrayList<>();
+        for (final Kit kit : kits) {
+            final Instant timeOfLastUse = redeemed.get(kit.getName().toLowerCase());
+            if (timeOfLastUse != null) {
+                if (kit.isOneTime() && !exemptOneTime) {
+                    continue;
+                }
 
-        final Map<String, Instant> redeemed = this.getUserRedemptionData(player.uniqueId()).join();
+                if (!exemptCooldown && kit.getCooldown().map(Duration::getSeconds).orElse(0L) > 0
+                        && timeOfLastUse.plus(kit.getCooldown().get()).isAfter(now)) {
+                    continue;
+                }
+            }
+
+            if (processTokens && this.itemTemplates.hasTokens(kit)) {
+                prepared.add(new PreparedKit(kit, null));
+            } else {
+                // Without tokens, the items are just the non-empty stacks in the kit.
+                prepared.add(new PreparedKit(kit, kit.getStacks().stream().filter(x -> !x.isEmpty()).collect(Collectors.toList())));
+            }
+        }
+
+        return prepared;
+    }
+
+    private Map<Kit, KitRedeemResult> applyRedemptions(final UUID playerUUID,
+            final List<PreparedKit> prepared,
+            final boolean isMustGetAll,
+            final boolean isFirstJoin) {
+        final Map<Kit, KitRedeemResult> results = new LinkedHashMap<>();
+        final ServerPlayer player = Sponge.server().player(playerUUID).orElse(null);
+        if (player == null || prepared.isEmpty()) {
+            return results;
+        }
+
+        // The data was loaded in the first stage so will be cached, and may have changed since.
+        final Map<String, Instant> redeemed = this.getUserRedemptionData(playerUUID).join();
+        boolean changed = false;
+        for (final PreparedKit preparedKit : prepared) {
+            final Collection<ItemStackSnapshot> original = preparedKit.items == null ?
+                    this.getItems(preparedKit.kit, true, player) : preparedKit.items;
+            final KitRedeemResult result =
+                    this.redeemKit(preparedKit.kit, player, redeemed, original, true, true, isMustGetAll, isFirstJoin);
+            changed = changed || result.isSuccess();
+            results.put(preparedKit.kit, result);
+        }
+
+        if (changed) {
+            this.setUserRedemptionData(playerUUID, redeemed);
+        }
+        return results;
+    }
+
+    private KitRedeemResult redeemKit(final Kit kit,
+            final ServerPlayer player,
+            final Map<String, Instant> redeemed,
+            final Collection<ItemStackSnapshot> original,
+            final boolean checkOneTime,
+            final boolean checkCooldown,
+            final boolean isMustGetAll,
+            final boolean isFirstJoin) {
+        final UUID playerUUID = player.uniqueId();
+        KitRedeemResult result = null;
 
         final Instant timeOfLastUse = redeemed.get(kit.getName().toLowerCase());
         final Instant now = Instant.now();
@@ -211,8 +331,6 @@ public class KitService implements NucleusKitService, IReloadableService.Reloada
             frame.pushCause(player);
 
             // If the kit was used before...
-            // Get original list
-            final Collection<ItemStackSnapshot> original = this.getItems(kit, this.isProcessTokens, player);
             final Collection<String> commands = kit.getCommands();
             final Optional<Instant> instant = this.getNextUseTime(kit, playerUUID, timeOfLastUse);
             if ((checkOneTime || checkCooldown) && timeOfLastUse != null) {
@@ -298,7 +416,6 @@ public class KitService implements NucleusKitService, IReloadableService.Reloada
                         // permissions or cooldowns change later
                         if (checkCooldown) {
                             redeemed.put(kit.getName().toLowerCase(), now);
-                            this.setUserRedemptionData(playerUUID, redeemed);
                         }
 
                         Sponge.eventManager().post(new KitEvent.PostRedeem(frame.currentCause(), timeOfLastUse, kit, player, original,
@@ -409,6 +526,7 @@ public class KitService implements NucleusKitService, IReloadableService.Reloada
         final Map<String, Kit> kits = new HashMap<>(kitDataObject.getKitMap());
         Util.getKeyIgnoreCase(this.getKitNames(true), kit.getName()).ifPresent(kits::remove);
         kits.put(kit.getName().toLowerCase(), kit);
+        this.itemTemplates.invalidate(kit.getName());
         try {
             kitDataObject.setKitMap(kits);
             if (save) {
@@ -444,6 +562,19 @@ public class KitService implements NucleusKitService, IReloadableService.Reloada
         this.removeKit(from);
     }
 
+    /**
+     * Creates the non-empty stacks in a kit for a player, using the precompiled token
+     * templates for the kit.
+     *
+     * @param kit The kit
+     * @param player The player
+     * @param processTokens Whether to fill in tokens
+     * @return The stacks
+     */
+    public List<ItemStack> getNonEmptyStacks(final Kit kit, final Player player, final boolean processTokens) {
+        return this.itemTemplates.createStacks(kit, player, processTokens, true);
+    }
+
     public void processTokensInItemStacks(final Player player, final Collection<ItemStack> stacks) {
         final Matcher m = inventory.matcher("");
         for (final ItemStack x : stacks) {
@@ -469,15 +600,7 @@ public class KitService implements NucleusKitService, IReloadableService.Reloada
     }
 
     private Collection<ItemStackSnapshot> getItems(final Kit kit, final boolean replaceTokensInLore, final Player targetPlayer) {
-        final Collection<ItemStack> toOffer = kit.getStacks().stream()
-                .filter(x -> !x.isEmpty())
-                .map(ItemStackSnapshot::createStack)
-                .collect(Collectors.toList());
-
-        if (replaceTokensInLore) {
-            this.processTokensInItemStacks(targetPlayer, toOffer);
-        }
-
+        final Collection<ItemStack> toOffer = this.itemTemplates.createStacks(kit, targetPlayer, replaceTokensInLore, true);
         return toOffer.stream().map(ItemStack::createSnapshot).collect(Collectors.toList());
     }
 
@@ -539,6 +662,7 @@ public class KitService implements NucleusKitService, IReloadableService.Reloada
         boolean r = false;
         try {
             r = this.getKits().removeKit(name.toLowerCase());
+            this.itemTemplates.invalidate(name);
         } catch (final Exception e) {
             this.logger.error("Could not update kits", e);
         }
@@ -571,4 +695,17 @@ public class KitService implements NucleusKitService, IReloadableService.Reloada
                 .build();
     }
 
+    private static final class PreparedKit {
+
+        private final Kit kit;
+
+        // Null if the items need tokens filling in on the main thread.
+        @Nullable private final Collection<ItemStackSnapshot> items;
+
+        private PreparedKit(final Kit kit, @Nullable final Collection<ItemStackSnapshot> items) {
+            this.kit = kit;
+            this.items = items;
+        }
+    }
+
 }
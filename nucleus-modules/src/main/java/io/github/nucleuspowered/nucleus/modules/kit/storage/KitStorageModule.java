@@ -12,6 +12,7 @@ import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataaccess.ID
 import io.github.nucleuspowered.storage.persistence.IStorageRepository;
 import io.github.nucleuspowered.storage.persistence.IStorageRepositoryFactory;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.services.IStorageService;
+import io.github.nucleuspowered.nucleus.modules.kit.services.KitItemTemplates;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.api.data.persistence.DataContainer;
 
@@ -24,12 +25,27 @@ public final class KitStorageModule implements IStorageModule<IKitDataObject, IS
 
     @Inject
     public KitStorageModule(final INucleusServiceCollection serviceCollection) {
+        this(serviceCollection, null);
+    }
+
+    /**
+     * Creates the module, compiling the item templates for the kits whenever they are
+     * loaded from the repository.
+     *
+     * @param serviceCollection The {@link INucleusServiceCollection}
+     * @param itemTemplates The {@link KitItemTemplates} to compile into, if any
+     */
+    public KitStorageModule(final INucleusServiceCollection serviceCollection, @Nullable final KitItemTemplates itemTemplates) {
         this.kitsService = new SingleCachedService<>(
                 this::getRepository,
                 this::getDataTranslator,
                 serviceCollection.pluginContainer(),
                 c -> {},
-                c -> {});
+                c -> {
+                    if (itemTemplates != null) {
+                        itemTemplates.compileAll(c.getKitMap().values());
+                    }
+                });
         this.serviceCollection = serviceCollection;
     }
 
@@ -87,21 +87,20 @@ public class NicknameService implements NucleusNicknameService, IReloadableServi
                     @Override public Optional<User> resolve(final String name) {
                         return NicknameService.this.getFromCache(name).map(ServerPlayer::user);
                     }
-
-                    @Override public Map<UUID, String> startsWith(final String name) {
-                        return NicknameService.this.startsWithUUIDStringMap(name);
-                    }
                 }
         );
     }
 
     public void markRead(final UUID player) {
         this.cached.add(player);
+        this.playerDisplayNameService.invalidateCache(player);
     }
 
     public void updateCache(final UUID player, final Component text) {
         this.cache.put(player, text.toString());
         this.textCache.put(player, text);
+        this.playerDisplayNameService.invalidateCache(player);
+        this.playerDisplayNameService.indexNickname(player, PlainTextComponentSerializer.plainText().serialize(text));
     }
 
     public Optional<ServerPlayer> getFromCache(final String text) {
@@ -144,11 +143,6 @@ public class NicknameService implements NucleusNicknameService, IReloadableServi
         return Collections.unmodifiableMap(mapToReturn);
     }
 
-    public Map<UUID, String> startsWithUUIDStringMap(final String text) {
-        return this.cache.inverse().entrySet().stream().filter(x -> x.getKey().startsWith(text.toLowerCase()))
-                .collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey));
-    }
-
 
     public List<UUID> startsWith(final String text) {
         return this.cache.inverse().entrySet().stream().filter(x -> x.getKey().startsWith(text.toLowerCase()))
@@ -160,6 +154,7 @@ public class NicknameService implements NucleusNicknameService, IReloadableServi
         this.cache.remove(player);
         this.textCache.remove(player);
         this.cached.remove(player);
+        this.playerDisplayNameService.invalidateCache(player);
     }
 
     @Override
@@ -214,6 +209,7 @@ public class NicknameService implements NucleusNicknameService, IReloadableServi
 
         this.storageManager.getUserService().removeAndSave(uuid, NicknameKeys.USER_NICKNAME_JSON);
         this.removeFromCache(uuid);
+        this.playerDisplayNameService.indexNickname(uuid, null);
         Sponge.eventManager().post(new ChangeNicknameEventPost(cause, currentNickname, null, uuid));
 
         final Optional<User> user = Sponge.server().userManager().load(uuid).join();
@@ -325,6 +321,7 @@ public class NicknameService implements NucleusNicknameService, IReloadableServi
         this.min = nc.getMinNicknameLength();
         this.max = nc.getMaxNicknameLength();
         this.prefix = LegacyComponentSerializer.legacyAmpersand().deserialize(nc.getPrefix());
+        this.playerDisplayNameService.invalidateCache();
     }
 
     private void stripPermissionless(final Subject source, final Component message) throws NicknameException {
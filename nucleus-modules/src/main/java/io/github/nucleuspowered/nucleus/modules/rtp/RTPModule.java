@@ -7,20 +7,26 @@ package io.github.nucleuspowered.nucleus.modules.rtp;
 import io.github.nucleuspowered.nucleus.api.module.rtp.kernel.RTPKernel;
 import io.github.nucleuspowered.nucleus.api.module.rtp.kernel.RTPKernels;
 import io.github.nucleuspowered.nucleus.core.module.IModule;
+import io.github.nucleuspowered.nucleus.modules.rtp.commands.RTPStatisticsCommand;
 import io.github.nucleuspowered.nucleus.modules.rtp.commands.RandomTeleportCommand;
 import io.github.nucleuspowered.nucleus.modules.rtp.config.RTPConfig;
 import io.github.nucleuspowered.nucleus.modules.rtp.kernels.AroundPlayerAndSurfaceKernel;
 import io.github.nucleuspowered.nucleus.modules.rtp.kernels.AroundPlayerKernel;
 import io.github.nucleuspowered.nucleus.modules.rtp.kernels.DefaultKernel;
 import io.github.nucleuspowered.nucleus.modules.rtp.kernels.SurfaceKernel;
+import io.github.nucleuspowered.nucleus.modules.rtp.runnables.RTPLocationPoolTask;
+import io.github.nucleuspowered.nucleus.modules.rtp.runnables.RTPLocationSamplerTask;
 import io.github.nucleuspowered.nucleus.modules.rtp.services.RTPService;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
 import io.github.nucleuspowered.nucleus.core.scaffold.listener.ListenerBase;
+import io.github.nucleuspowered.nucleus.core.scaffold.task.SyncTaskBase;
+import io.github.nucleuspowered.nucleus.core.scaffold.task.TaskBase;
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import org.spongepowered.api.ResourceKey;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.lifecycle.RegisterRegistryEvent;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -39,7 +45,7 @@ public class RTPModule implements IModule.Configurable<RTPConfig> {
 
     @Override
     public Collection<Class<? extends ICommandExecutor>> getCommands() {
-        return Collections.singletonList(RandomTeleportCommand.class);
+        return Arrays.asList(RandomTeleportCommand.class, RTPStatisticsCommand.class);
     }
 
     @Override
@@ -52,6 +58,16 @@ public class RTPModule implements IModule.Configurable<RTPConfig> {
         return Collections.emptyList();
     }
 
+    @Override
+    public Collection<Class<? extends TaskBase>> getAsyncTasks() {
+        return Collections.singleton(RTPLocationSamplerTask.class);
+    }
+
+    @Override
+    public Collection<Class<? extends SyncTaskBase>> getSyncTasks() {
+        return Collections.singleton(RTPLocationPoolTask.class);
+    }
+
     @Override
     public Class<RTPConfig> getConfigClass() {
         return RTPConfig.class;
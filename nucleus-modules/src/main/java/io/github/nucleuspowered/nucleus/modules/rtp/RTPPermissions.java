@@ -27,6 +27,9 @@ public final class RTPPermissions {
     @PermissionMetadata(descriptionKey = "permission.others", replacements = { "rtp" }, level = SuggestedLevel.ADMIN)
     public static final String OTHERS_RTP = "nucleus.rtp.others";
 
+    @PermissionMetadata(descriptionKey = "permission.base", replacements = { "debug rtpstats" }, level = SuggestedLevel.ADMIN)
+    public static final String BASE_DEBUG_RTPSTATS = "nucleus.nucleus.debug.rtpstats.base";
+
     @PermissionMetadata(descriptionKey = "permission.rtp.worlds", level = SuggestedLevel.ADMIN)
     public static final String RTP_WORLDS = "nucleus.rtp.worlds";
 
@@ -0,0 +1,53 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.rtp.commands;
+
+import io.github.nucleuspowered.nucleus.core.core.commands.nucleus.DebugCommand;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandContext;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandResult;
+import io.github.nucleuspowered.nucleus.core.scaffold.command.annotation.Command;
+import io.github.nucleuspowered.nucleus.modules.rtp.RTPPermissions;
+import io.github.nucleuspowered.nucleus.modules.rtp.kernels.KernelHelper;
+import io.github.nucleuspowered.nucleus.modules.rtp.kernels.KernelStatistics;
+import org.spongepowered.api.command.exception.CommandException;
+
+import java.util.Map;
+
+@Command(
+        aliases = "rtpstats",
+        basePermission = RTPPermissions.BASE_DEBUG_RTPSTATS,
+        commandDescriptionKey = "nucleus.debug.rtpstats",
+        parentCommand = DebugCommand.class
+)
+public class RTPStatisticsCommand implements ICommandExecutor {
+
+    @Override
+    public ICommandResult execute(final ICommandContext context) throws CommandException {
+        final Map<String, KernelStatistics> statistics = KernelHelper.INSTANCE.getStatistics();
+        if (statistics.isEmpty()) {
+            context.sendMessage("command.nucleus.debug.rtpstats.none");
+            return context.successResult();
+        }
+
+        context.sendMessage("command.nucleus.debug.rtpstats.title");
+        for (final Map.Entry<String, KernelStatistics> entry : statistics.entrySet()) {
+            final KernelStatistics kernel = entry.getValue();
+            final long successes = kernel.getSuccesses();
+            context.sendMessage("command.nucleus.debug.rtpstats.kernel",
+                    entry.getKey(),
+                    kernel.getAttempts(),
+                    successes,
+                    successes == 0 ? "-" : String.format("%.2f", (double) kernel.getAttempts() / successes));
+            for (final KernelStatistics.Rejection rejection : KernelStatistics.Rejection.values()) {
+                final long count = kernel.getRejections(rejection);
+                if (count > 0) {
+                    context.sendMessage("command.nucleus.debug.rtpstats.rejection", rejection.name().toLowerCase().replace('_', ' '), count);
+                }
+            }
+        }
+        return context.successResult();
+    }
+}
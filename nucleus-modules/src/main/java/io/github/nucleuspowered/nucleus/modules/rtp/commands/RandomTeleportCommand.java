@@ -11,7 +11,10 @@ import io.github.nucleuspowered.nucleus.core.services.interfaces.ITimingsService
 import io.github.nucleuspowered.nucleus.modules.rtp.RTPPermissions;
 import io.github.nucleuspowered.nucleus.modules.rtp.config.RTPConfig;
 import io.github.nucleuspowered.nucleus.modules.rtp.events.RTPSelectedLocationEvent;
+import io.github.nucleuspowered.nucleus.modules.rtp.kernels.KernelHelper;
+import io.github.nucleuspowered.nucleus.modules.rtp.kernels.KernelStatistics;
 import io.github.nucleuspowered.nucleus.modules.rtp.options.RTPOptions;
+import io.github.nucleuspowered.nucleus.modules.rtp.services.RTPLocationPool;
 import io.github.nucleuspowered.nucleus.modules.rtp.services.RTPService;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandContext;
 import io.github.nucleuspowered.nucleus.core.scaffold.command.ICommandExecutor;
@@ -107,6 +110,7 @@ public class RandomTeleportCommand implements ICommandExecutor, IReloadableServi
         context.sendMessage("command.rtp.searching");
 
         final RTPOptions options = new RTPOptions(this.rc, wp.key().asString());
+        final RTPService service = context.getServiceCollection().getServiceUnchecked(RTPService.class);
         final RTPTask rtask = new RTPTask(
                 context.getServiceCollection().pluginContainer(),
                 wp,
@@ -114,7 +118,8 @@ public class RandomTeleportCommand implements ICommandExecutor, IReloadableServi
                 player.uniqueId(),
                 this.rc.getNoOfAttempts(),
                 options,
-                context.getServiceCollection().getServiceUnchecked(RTPService.class).getKernel(wp),
+                service.getKernel(wp),
+                service.getLocationPool(),
                 context.is(player) ? context.getCost() : 0);
         final Task task = Task.builder().execute(rtask).plugin(context.getServiceCollection().pluginContainer()).build();
         this.cachedTasks.put(Sponge.server().scheduler().submit(task), player.uniqueId());
@@ -146,6 +151,7 @@ public class RandomTeleportCommand implements ICommandExecutor, IReloadableServi
         private final int maxCount;
         private final NucleusRTPService.RTPOptions options;
         private final RTPKernel kernel;
+        private final RTPLocationPool pool;
 
         private RTPTask(
                 final PluginContainer pluginContainer,
@@ -155,6 +161,7 @@ public class RandomTeleportCommand implements ICommandExecutor, IReloadableServi
                 final int maxCount,
                 final NucleusRTPService.RTPOptions options,
                 final RTPKernel kernel,
+                final RTPLocationPool pool,
                 final double cost) {
             super(source.getServiceCollection(), target1, cost);
             this.logger = source.getServiceCollection().logger();
@@ -168,6 +175,7 @@ public class RandomTeleportCommand implements ICommandExecutor, IReloadableServi
             this.count = maxCount;
             this.options = options;
             this.kernel = kernel;
+            this.pool = pool;
         }
 
         @Override public void accept(final ScheduledTask task) {
@@ -184,8 +192,7 @@ public class RandomTeleportCommand implements ICommandExecutor, IReloadableServi
                 int counter = 0;
                 while (++counter <= 10) {
                     try {
-                        final Optional<ServerLocation> optionalLocation =
-                                this.kernel.getLocation(serverPlayer.serverLocation(), this.targetWorld, this.options);
+                        final Optional<ServerLocation> optionalLocation = this.nextLocation(serverPlayer);
                         if (optionalLocation.isPresent()) {
                             final ServerLocation targetLocation = optionalLocation.get();
                             if (Sponge.eventManager().post(new RTPSelectedLocationEvent(
@@ -193,6 +200,7 @@ public class RandomTeleportCommand implements ICommandExecutor, IReloadableServi
                                     serverPlayer,
                                     this.cause
                             ))) {
+                                KernelHelper.INSTANCE.statistics(this.kernel).reject(KernelStatistics.Rejection.EVENT_CANCELLED);
                                 continue;
                             }
 
@@ -246,6 +254,16 @@ public class RandomTeleportCommand implements ICommandExecutor, IReloadableServi
             }
         }
 
+        private Optional<ServerLocation> nextLocation(final ServerPlayer serverPlayer) {
+            // Pooled locations have already been checked, and won't cause chunks to load.
+            final Optional<ServerLocation> pooled = this.pool.poll(this.targetWorld, this.kernel);
+            if (pooled.isPresent()) {
+                return pooled;
+            }
+
+            return this.kernel.getLocation(serverPlayer.serverLocation(), this.targetWorld, this.options);
+        }
+
         private void onUnsuccesfulAttempt(final ScheduledTask task, final ServerPlayer serverPlayer) {
             synchronized (RandomTeleportCommand.this.cachedTasks) {
                 if (this.count <= 0) {
@@ -66,6 +66,30 @@ public class RTPConfig {
     @LocalisedComment("config.rtp.prohibitedbiomes")
     private Set<String> prohibitedBiomes;
 
+    @Setting(value = "location-pool-size")
+    @LocalisedComment("config.rtp.pool.size")
+    private int locationPoolSize = 5;
+
+    @Setting(value = "location-pool-refill-budget-ms")
+    @LocalisedComment("config.rtp.pool.budget")
+    private long locationPoolRefillBudget = 5;
+
+    @Setting(value = "location-pool-max-age-seconds")
+    @LocalisedComment("config.rtp.pool.maxage")
+    private long locationPoolMaxAge = 300;
+
+    @Setting(value = "sampling-method")
+    @LocalisedComment("config.rtp.sampling.method")
+    private String samplingMethod = "square";
+
+    @Setting(value = "biome-aware-sampling")
+    @LocalisedComment("config.rtp.sampling.biomeaware")
+    private boolean biomeAwareSampling = true;
+
+    @Setting(value = "sampling-seed")
+    @LocalisedComment("config.rtp.sampling.seed")
+    private long samplingSeed = 0;
+
     public RTPConfig() {
         this.prohibitedBiomes = new HashSet<>();
         this.prohibitedBiomes.add("minecraft:ocean");
@@ -136,6 +160,30 @@ public class RTPConfig {
         return this.defaultRTPKernel;
     }
 
+    public String getSamplingMethod() {
+        return this.samplingMethod == null ? "square" : this.samplingMethod;
+    }
+
+    public boolean isBiomeAwareSampling() {
+        return this.biomeAwareSampling;
+    }
+
+    public long getSamplingSeed() {
+        return this.samplingSeed;
+    }
+
+    public int getLocationPoolSize() {
+        return Math.max(0, this.locationPoolSize);
+    }
+
+    public long getLocationPoolRefillBudget() {
+        return Math.max(1, this.locationPoolRefillBudget);
+    }
+
+    public long getLocationPoolMaxAge() {
+        return Math.max(1, this.locationPoolMaxAge);
+    }
+
     @ConfigSerializable
     public static class PerWorldRTPConfig {
         @Setting(value = "radius")
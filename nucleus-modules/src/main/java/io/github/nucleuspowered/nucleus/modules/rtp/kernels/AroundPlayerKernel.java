@@ -19,6 +19,11 @@ public class AroundPlayerKernel extends DefaultKernel {
         return AroundPlayerKernel.AROUND_PLAYER_KERNEL_KEY;
     }
 
+    @Override
+    public boolean isPoolable() {
+        return false;
+    }
+
     @Override Vector3i getCentralLocation(@Nullable final ServerLocation currentLocation, final ServerWorld world) {
         if (currentLocation != null && world.key().equals(currentLocation.worldKey())) {
             return currentLocation.blockPosition();
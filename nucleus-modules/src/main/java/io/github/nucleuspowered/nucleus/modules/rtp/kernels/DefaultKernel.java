@@ -16,7 +16,6 @@ import org.spongepowered.api.world.server.ServerWorld;
 import org.spongepowered.api.world.teleport.TeleportHelper;
 import org.spongepowered.api.world.teleport.TeleportHelperFilter;
 import org.spongepowered.api.world.teleport.TeleportHelperFilters;
-import org.spongepowered.math.vector.Vector3d;
 import org.spongepowered.math.vector.Vector3i;
 
 import java.util.Optional;
@@ -34,19 +33,116 @@ public class DefaultKernel implements RTPKernel {
     @Override
     public Optional<ServerLocation> getLocation(@Nullable final ServerLocation currentLocation, final ServerWorld target, final NucleusRTPService.RTPOptions options) {
         // from world spawn
-        Vector3d location;
+        final KernelStatistics statistics = KernelHelper.INSTANCE.statistics(this);
+        final Vector3i centre = this.getCentralLocation(currentLocation, target);
+        Vector3i location;
         int count = 25;
-        do {
+        while (true) {
             if (--count < 0) {
                 // We found nothing in the timeframe.
                 return Optional.empty();
             }
 
-            location = KernelHelper.INSTANCE.getLocationWithOffset(this.getCentralLocation(currentLocation, target), options);
-        } while (!Util.isLocationInWorldBorder(location.toDouble(), target));
+            statistics.attempt();
+            location = KernelHelper.INSTANCE.sample(target.key(), centre, options);
+            if (!Util.isLocationInWorldBorder(location.toDouble(), target)) {
+                statistics.reject(KernelStatistics.Rejection.WORLD_BORDER);
+            } else if (this.isProhibitedBiome(target, location, options)) {
+                // Cheaper to try again now than to search this area for a safe spot that will be rejected.
+                statistics.reject(KernelStatistics.Rejection.BIOME);
+            } else {
+                break;
+            }
+        }
+
+        final Optional<ServerLocation> result = this.getSafeLocation(ServerLocation.of(target, location), options);
+        result.ifPresent(x -> KernelHelper.INSTANCE.onSelected(target.key(), x.blockPosition()));
+        return result;
+    }
+
+    /**
+     * Gets whether the locations this kernel selects do not depend on the player, so
+     * that they can be found ahead of time.
+     *
+     * @return true if so
+     */
+    public boolean isPoolable() {
+        return true;
+    }
+
+    /**
+     * Gets the point that pooled locations are selected around.
+     *
+     * @param world The world
+     * @return The centre
+     */
+    public Vector3i getPoolCentre(final ServerWorld world) {
+        return this.getCentralLocation(null, world);
+    }
+
+    /**
+     * Gets whether every chunk that would be checked when searching around the candidate
+     * point is already loaded.
+     *
+     * @param target The world
+     * @param candidate The candidate point
+     * @return true if so
+     */
+    public boolean isLoaded(final ServerWorld target, final Vector3i candidate) {
+        return DefaultKernel.areChunksLoaded(target, candidate, TeleportHelper.DEFAULT_WIDTH);
+    }
+
+    /**
+     * Attempts to find a safe location around the candidate point, to be pooled. This
+     * should only be called if {@link #isLoaded(ServerWorld, Vector3i)} is true, so that
+     * no chunks are loaded.
+     *
+     * <p>The location is not recorded as selected, as it has not been handed out yet.</p>
+     *
+     * @param target The world
+     * @param candidate The candidate point
+     * @param options The options
+     * @return The location, if one was found
+     */
+    public Optional<ServerLocation> getPoolLocation(final ServerWorld target, final Vector3i candidate,
+            final NucleusRTPService.RTPOptions options) {
+        final KernelStatistics statistics = KernelHelper.INSTANCE.statistics(this);
+        statistics.attempt();
+        if (this.isProhibitedBiome(target, candidate, options)) {
+            statistics.reject(KernelStatistics.Rejection.BIOME);
+            return Optional.empty();
+        }
+
+        return this.getSafeLocation(ServerLocation.of(target, candidate), options);
+    }
+
+    /**
+     * Checks that a location that was previously found is still safe. If its chunk has
+     * been unloaded since, it is not checked, and is not considered safe.
+     *
+     * @param location The location
+     * @return true if it is
+     */
+    public boolean isStillSafe(final ServerLocation location) {
+        if (!DefaultKernel.areChunksLoaded(location.world(), location.blockPosition(), 0)) {
+            return false;
+        }
+
+        return Sponge.server().teleportHelper().findSafeLocation(location,
+                0,
+                0,
+                TeleportHelper.DEFAULT_FLOOR_CHECK_DISTANCE,
+                TeleportHelperFilters.CONFIG.get(),
+                this.filterToUse())
+                .filter(x -> x.blockPosition().equals(location.blockPosition()))
+                .isPresent() && this.verifyLocation(location);
+    }
 
-        final ServerLocation worldLocation = this.getStartingLocation(ServerLocation.of(target, location));
+    Optional<ServerLocation> getSafeLocation(final ServerLocation location, final NucleusRTPService.RTPOptions options) {
+        final KernelStatistics statistics = KernelHelper.INSTANCE.statistics(this);
+        final ServerLocation worldLocation = this.getStartingLocation(location);
         if (worldLocation == null) {
+            statistics.reject(KernelStatistics.Rejection.NO_SAFE_LOCATION);
             return Optional.empty();
         }
 
@@ -56,19 +152,34 @@ public class DefaultKernel implements RTPKernel {
                 TeleportHelper.DEFAULT_FLOOR_CHECK_DISTANCE,
                 TeleportHelperFilters.CONFIG.get(),
                 this.filterToUse());
-        if (targetLocation.isPresent()) {
-            // Is it in the world border?
-            if (!Util.isLocationInWorldBorder(worldLocation)
-                    || options.prohibitedBiomes().contains(worldLocation.biome())
-                    || options.minHeight() > worldLocation.blockX()
-                    || options.maxHeight() < worldLocation.blockY()) {
-                return Optional.empty();
-            }
+        if (!targetLocation.isPresent()) {
+            statistics.reject(KernelStatistics.Rejection.NO_SAFE_LOCATION);
+            return Optional.empty();
+        }
+
+        // Is it in the world border?
+        if (!Util.isLocationInWorldBorder(worldLocation)) {
+            statistics.reject(KernelStatistics.Rejection.WORLD_BORDER);
+            return Optional.empty();
+        }
+
+        if (options.prohibitedBiomes().contains(worldLocation.biome())) {
+            statistics.reject(KernelStatistics.Rejection.BIOME);
+            return Optional.empty();
+        }
+
+        if (options.minHeight() > worldLocation.blockY() || options.maxHeight() < worldLocation.blockY()) {
+            statistics.reject(KernelStatistics.Rejection.HEIGHT);
+            return Optional.empty();
+        }
 
-            return this.verifyLocation(targetLocation.get()) ? targetLocation : Optional.empty();
+        if (!this.verifyLocation(targetLocation.get())) {
+            statistics.reject(KernelStatistics.Rejection.VERIFICATION);
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        statistics.success();
+        return targetLocation;
     }
 
     TeleportHelperFilter filterToUse() {
@@ -94,4 +205,24 @@ public class DefaultKernel implements RTPKernel {
         return true;
     }
 
+    private boolean isProhibitedBiome(final ServerWorld world, final Vector3i location, final NucleusRTPService.RTPOptions options) {
+        return KernelHelper.INSTANCE.isBiomeAware()
+                && !options.prohibitedBiomes().isEmpty()
+                && options.prohibitedBiomes().contains(world.biome(location.x(), location.y(), location.z()));
+    }
+
+    private static boolean areChunksLoaded(final ServerWorld world, final Vector3i centre, final int radius) {
+        final int maxX = (centre.x() + radius) >> 4;
+        final int maxZ = (centre.z() + radius) >> 4;
+        for (int x = (centre.x() - radius) >> 4; x <= maxX; x++) {
+            for (int z = (centre.z() - radius) >> 4; z <= maxZ; z++) {
+                if (!world.isChunkLoaded(x, 0, z, false)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
 }
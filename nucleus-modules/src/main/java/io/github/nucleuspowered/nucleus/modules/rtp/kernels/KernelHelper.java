@@ -4,11 +4,25 @@
  */
 package io.github.nucleuspowered.nucleus.modules.rtp.kernels;
 
+import io.github.nucleuspowered.nucleus.api.module.rtp.kernel.RTPKernel;
+import io.github.nucleuspowered.nucleus.modules.rtp.config.RTPConfig;
+import io.github.nucleuspowered.nucleus.modules.rtp.sampling.AnnulusSampler;
+import io.github.nucleuspowered.nucleus.modules.rtp.sampling.RTPSampler;
+import io.github.nucleuspowered.nucleus.modules.rtp.sampling.SamplerRandom;
+import io.github.nucleuspowered.nucleus.modules.rtp.sampling.SpreadSampler;
+import io.github.nucleuspowered.nucleus.modules.rtp.sampling.SquareSampler;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.ResourceKey;
+import org.spongepowered.math.vector.Vector2i;
 import org.spongepowered.math.vector.Vector3d;
 import org.spongepowered.math.vector.Vector3i;
 import io.github.nucleuspowered.nucleus.api.module.rtp.NucleusRTPService;
 
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class KernelHelper {
 
@@ -16,14 +30,50 @@ public class KernelHelper {
 
     protected KernelHelper() {}
 
-    private final Random random = new Random();
+    private final Map<String, KernelStatistics> statistics = new ConcurrentHashMap<>();
+    private volatile RTPSampler sampler = new SquareSampler();
+    private volatile SamplerRandom random = new SamplerRandom(0);
+    private volatile boolean biomeAware = true;
+
+    public static String nameOf(final RTPKernel kernel) {
+        if (kernel instanceof DefaultKernel) {
+            return ((DefaultKernel) kernel).getKey().asString();
+        }
+
+        return kernel.getClass().getName();
+    }
+
+    public void configure(final RTPConfig config) {
+        switch (config.getSamplingMethod().toLowerCase(Locale.ROOT)) {
+            case "annulus":
+                this.sampler = new AnnulusSampler();
+                break;
+            case "spread":
+                this.sampler = new SpreadSampler();
+                break;
+            default:
+                this.sampler = new SquareSampler();
+                break;
+        }
+
+        this.random = new SamplerRandom(config.getSamplingSeed());
+        this.biomeAware = config.isBiomeAwareSampling();
+    }
+
+    public Random random() {
+        return this.random.get();
+    }
+
+    public boolean isBiomeAware() {
+        return this.biomeAware;
+    }
 
     public int getRandomBetween(final int min, final int max) {
-        return this.random.nextInt(max - min) + min;
+        return max <= min ? min : this.random().nextInt(max - min) + min;
     }
 
     public int randomSign(final int in) {
-        return this.random.nextInt(2) == 0 ? -in : in;
+        return this.random().nextInt(2) == 0 ? -in : in;
     }
 
     public Vector3d getLocationWithOffset(final Vector3i centre, final NucleusRTPService.RTPOptions options) {
@@ -33,4 +83,30 @@ public class KernelHelper {
         return new Vector3d(x, y, z);
     }
 
+    /**
+     * Selects a point using the configured {@link RTPSampler}.
+     *
+     * @param world The world being sampled, if known
+     * @param centre The centre
+     * @param options The options
+     * @return The point
+     */
+    public Vector3i sample(@Nullable final ResourceKey world, final Vector3i centre, final NucleusRTPService.RTPOptions options) {
+        final Vector2i column = this.sampler.sample(world, new Vector2i(centre.x(), centre.z()), options.minRadius(), options.maxRadius(),
+                this.random());
+        return new Vector3i(column.x(), this.getRandomBetween(options.minHeight(), options.maxHeight()), column.y());
+    }
+
+    public void onSelected(final ResourceKey world, final Vector3i position) {
+        this.sampler.onSelected(world, new Vector2i(position.x(), position.z()));
+    }
+
+    public KernelStatistics statistics(final RTPKernel kernel) {
+        return this.statistics.computeIfAbsent(KernelHelper.nameOf(kernel), x -> new KernelStatistics());
+    }
+
+    public Map<String, KernelStatistics> getStatistics() {
+        return Collections.unmodifiableMap(this.statistics);
+    }
+
 }
@@ -0,0 +1,60 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.rtp.kernels;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the attempts a kernel makes, and why each failed attempt was rejected.
+ */
+public final class KernelStatistics {
+
+    public enum Rejection {
+        WORLD_BORDER,
+        BIOME,
+        HEIGHT,
+        NO_SAFE_LOCATION,
+        VERIFICATION,
+        CHUNK_NOT_LOADED,
+        EVENT_CANCELLED
+    }
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final Map<Rejection, LongAdder> rejections = new EnumMap<>(Rejection.class);
+
+    KernelStatistics() {
+        for (final Rejection rejection : Rejection.values()) {
+            this.rejections.put(rejection, new LongAdder());
+        }
+    }
+
+    public void attempt() {
+        this.attempts.increment();
+    }
+
+    public void success() {
+        this.successes.increment();
+    }
+
+    public void reject(final Rejection rejection) {
+        this.rejections.get(rejection).increment();
+    }
+
+    public long getAttempts() {
+        return this.attempts.sum();
+    }
+
+    public long getSuccesses() {
+        return this.successes.sum();
+    }
+
+    public long getRejections(final Rejection rejection) {
+        return this.rejections.get(rejection).sum();
+    }
+
+}
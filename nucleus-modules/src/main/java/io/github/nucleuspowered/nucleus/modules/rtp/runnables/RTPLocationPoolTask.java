@@ -0,0 +1,38 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.rtp.runnables;
+
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.scaffold.task.SyncTaskBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.modules.rtp.services.RTPService;
+import org.spongepowered.api.scheduler.ScheduledTask;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Checks sampled candidate points and adds the safe ones to the RTP location pool,
+ * within the configured time budget.
+ */
+public class RTPLocationPoolTask implements SyncTaskBase {
+
+    private final RTPService service;
+
+    @Inject
+    public RTPLocationPoolTask(final INucleusServiceCollection serviceCollection) {
+        this.service = serviceCollection.getServiceUnchecked(RTPService.class);
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.of(1, ChronoUnit.SECONDS);
+    }
+
+    @Override
+    public void accept(final ScheduledTask task) {
+        this.service.getLocationPool().refill();
+    }
+}
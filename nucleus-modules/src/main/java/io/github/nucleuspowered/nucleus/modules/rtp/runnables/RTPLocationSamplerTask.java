@@ -0,0 +1,36 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.rtp.runnables;
+
+import com.google.inject.Inject;
+import io.github.nucleuspowered.nucleus.core.scaffold.task.TaskBase;
+import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
+import io.github.nucleuspowered.nucleus.modules.rtp.services.RTPService;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Samples candidate points for the RTP location pool, off the main thread.
+ */
+public class RTPLocationSamplerTask implements TaskBase {
+
+    private final RTPService service;
+
+    @Inject
+    public RTPLocationSamplerTask(final INucleusServiceCollection serviceCollection) {
+        this.service = serviceCollection.getServiceUnchecked(RTPService.class);
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.of(1, ChronoUnit.SECONDS);
+    }
+
+    @Override
+    public void run() {
+        this.service.getLocationPool().sampleCandidates();
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.rtp.sampling;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.ResourceKey;
+import org.spongepowered.math.vector.Vector2i;
+
+import java.util.Random;
+
+/**
+ * Selects columns uniformly by area from the ring between the minimum and maximum
+ * radius.
+ *
+ * <p>Taking the square root when selecting the radius means that the outer parts of the
+ * ring, which cover more area, are selected proportionally more often.</p>
+ */
+public final class AnnulusSampler implements RTPSampler {
+
+    @Override
+    public Vector2i sample(@Nullable final ResourceKey world, final Vector2i centre, final int minRadius, final int maxRadius,
+            final Random random) {
+        final double min = (double) minRadius * minRadius;
+        final double max = (double) Math.max(minRadius, maxRadius) * Math.max(minRadius, maxRadius);
+        final double radius = Math.sqrt(min + random.nextDouble() * (max - min));
+        final double theta = random.nextDouble() * 2 * Math.PI;
+        return new Vector2i(
+                centre.x() + (int) Math.round(radius * Math.cos(theta)),
+                centre.y() + (int) Math.round(radius * Math.sin(theta)));
+    }
+
+}
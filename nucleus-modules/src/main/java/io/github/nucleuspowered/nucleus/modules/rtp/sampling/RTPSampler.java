@@ -0,0 +1,39 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.rtp.sampling;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.ResourceKey;
+import org.spongepowered.math.vector.Vector2i;
+
+import java.util.Random;
+
+/**
+ * Selects the column that a random teleport will look for a safe location in.
+ */
+public interface RTPSampler {
+
+    /**
+     * Selects a column between the minimum and maximum radius from the centre.
+     *
+     * @param world The world being sampled, if known
+     * @param centre The centre, as an x/z pair
+     * @param minRadius The minimum radius
+     * @param maxRadius The maximum radius
+     * @param random The {@link Random} to use
+     * @return The column, as an x/z pair
+     */
+    Vector2i sample(@Nullable ResourceKey world, Vector2i centre, int minRadius, int maxRadius, Random random);
+
+    /**
+     * Informs the sampler that a column was used for a teleport.
+     *
+     * @param world The world
+     * @param column The column, as an x/z pair
+     */
+    default void onSelected(final ResourceKey world, final Vector2i column) {
+    }
+
+}
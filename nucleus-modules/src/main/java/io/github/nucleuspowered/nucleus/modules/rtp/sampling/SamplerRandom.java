@@ -0,0 +1,39 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.rtp.sampling;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provides each thread with its own {@link Random}, so that sampling threads do not
+ * contend on a shared seed.
+ *
+ * <p>If a seed is set, each thread's generator is derived from it in the order that the
+ * threads first ask for one, so that runs can be reproduced.</p>
+ */
+public final class SamplerRandom {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final AtomicLong streams = new AtomicLong();
+    private final ThreadLocal<Random> random;
+
+    public SamplerRandom(final long seed) {
+        this.seed = seed;
+        this.random = ThreadLocal.withInitial(() -> new Random(this.seed + this.streams.getAndIncrement() * GOLDEN_GAMMA));
+    }
+
+    public Random get() {
+        if (this.seed == 0) {
+            return ThreadLocalRandom.current();
+        }
+
+        return this.random.get();
+    }
+
+}
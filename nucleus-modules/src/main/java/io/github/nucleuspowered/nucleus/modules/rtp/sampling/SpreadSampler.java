@@ -0,0 +1,76 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.rtp.sampling;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.ResourceKey;
+import org.spongepowered.math.vector.Vector2i;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spreads players out by preferring columns far from recent teleports.
+ *
+ * <p>This approximates Poisson disk sampling with Mitchell's best candidate method.
+ * A handful of candidates are drawn uniformly from the ring, and the one furthest from
+ * any recently selected column wins. It needs no grid, so works with any radius.</p>
+ */
+public final class SpreadSampler implements RTPSampler {
+
+    private static final int CANDIDATES = 8;
+    private static final int HISTORY = 32;
+
+    private final RTPSampler delegate = new AnnulusSampler();
+    private final Map<ResourceKey, Deque<Vector2i>> recent = new ConcurrentHashMap<>();
+
+    @Override
+    public Vector2i sample(@Nullable final ResourceKey world, final Vector2i centre, final int minRadius, final int maxRadius,
+            final Random random) {
+        final Deque<Vector2i> history = world == null ? null : this.recent.get(world);
+        if (history == null) {
+            return this.delegate.sample(world, centre, minRadius, maxRadius, random);
+        }
+
+        final Vector2i[] previous;
+        synchronized (history) {
+            previous = history.toArray(new Vector2i[0]);
+        }
+
+        Vector2i best = null;
+        long bestDistance = -1;
+        for (int i = 0; i < CANDIDATES; i++) {
+            final Vector2i candidate = this.delegate.sample(world, centre, minRadius, maxRadius, random);
+            long nearest = Long.MAX_VALUE;
+            for (final Vector2i point : previous) {
+                final long x = candidate.x() - point.x();
+                final long z = candidate.y() - point.y();
+                nearest = Math.min(nearest, x * x + z * z);
+            }
+
+            if (nearest > bestDistance) {
+                best = candidate;
+                bestDistance = nearest;
+            }
+        }
+
+        return best;
+    }
+
+    @Override
+    public void onSelected(final ResourceKey world, final Vector2i column) {
+        final Deque<Vector2i> history = this.recent.computeIfAbsent(world, x -> new ArrayDeque<>());
+        synchronized (history) {
+            history.addLast(column);
+            if (history.size() > HISTORY) {
+                history.removeFirst();
+            }
+        }
+    }
+
+}
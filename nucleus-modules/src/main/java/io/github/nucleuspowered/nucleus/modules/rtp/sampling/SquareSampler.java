@@ -0,0 +1,35 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.rtp.sampling;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.ResourceKey;
+import org.spongepowered.math.vector.Vector2i;
+
+import java.util.Random;
+
+/**
+ * Selects the x and z offsets independently, as Nucleus has always done. Columns close
+ * to the axes through the centre are never selected when there is a minimum radius.
+ */
+public final class SquareSampler implements RTPSampler {
+
+    private static int between(final Random random, final int min, final int max) {
+        return max <= min ? min : random.nextInt(max - min) + min;
+    }
+
+    private static int randomSign(final Random random, final int in) {
+        return random.nextBoolean() ? -in : in;
+    }
+
+    @Override
+    public Vector2i sample(@Nullable final ResourceKey world, final Vector2i centre, final int minRadius, final int maxRadius,
+            final Random random) {
+        return new Vector2i(
+                centre.x() + SquareSampler.randomSign(random, SquareSampler.between(random, minRadius, maxRadius)),
+                centre.y() + SquareSampler.randomSign(random, SquareSampler.between(random, minRadius, maxRadius)));
+    }
+
+}
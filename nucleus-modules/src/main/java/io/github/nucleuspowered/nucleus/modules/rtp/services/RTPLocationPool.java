@@ -0,0 +1,231 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.rtp.services;
+
+import io.github.nucleuspowered.nucleus.api.module.rtp.NucleusRTPService;
+import io.github.nucleuspowered.nucleus.api.module.rtp.kernel.RTPKernel;
+import io.github.nucleuspowered.nucleus.modules.rtp.config.RTPConfig;
+import io.github.nucleuspowered.nucleus.modules.rtp.kernels.DefaultKernel;
+import io.github.nucleuspowered.nucleus.modules.rtp.kernels.KernelHelper;
+import io.github.nucleuspowered.nucleus.modules.rtp.kernels.KernelStatistics;
+import io.github.nucleuspowered.nucleus.modules.rtp.options.RTPOptions;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.ResourceKey;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.world.border.WorldBorder;
+import org.spongepowered.api.world.server.ServerLocation;
+import org.spongepowered.api.world.server.ServerWorld;
+import org.spongepowered.math.vector.Vector2d;
+import org.spongepowered.math.vector.Vector3i;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds safe locations for RTP that have been found ahead of time, per world.
+ *
+ * <p>Candidate points are sampled off the main thread, as that only requires the world
+ * centre and border, which are captured on the main thread beforehand. The candidates
+ * are then checked in order on the main thread, for no longer than the configured budget
+ * each run. Candidates whose chunks are not loaded are discarded, so the pool never causes
+ * chunks to be loaded or generated.</p>
+ *
+ * <p>Pooled locations are checked again when they are taken, as the world may have
+ * changed since they were found, and are discarded if their chunk has been unloaded. A
+ * location is only recorded as selected with the {@link KernelHelper} once it has been
+ * handed out.</p>
+ */
+public final class RTPLocationPool {
+
+    private static final int CANDIDATES_PER_LOCATION = 8;
+
+    private final Map<ResourceKey, WorldPool> pools = new ConcurrentHashMap<>();
+    private RTPConfig config = new RTPConfig();
+    private volatile int poolSize;
+    private volatile long refillBudgetNanos;
+    private volatile long maxAgeMillis;
+
+    RTPLocationPool() {
+        this.configure(this.config);
+    }
+
+    void configure(final RTPConfig config) {
+        this.config = config;
+        this.poolSize = config.getLocationPoolSize();
+        this.refillBudgetNanos = TimeUnit.MILLISECONDS.toNanos(config.getLocationPoolRefillBudget());
+        this.maxAgeMillis = TimeUnit.SECONDS.toMillis(config.getLocationPoolMaxAge());
+        this.pools.clear();
+    }
+
+    /**
+     * Takes a location from the pool for the given world, if the kernel supports pooling
+     * and there is a pooled location that is still safe.
+     *
+     * <p>This must be called on the main thread.</p>
+     *
+     * @param world The world
+     * @param kernel The kernel that is being used
+     * @return The location, if there is one
+     */
+    public Optional<ServerLocation> poll(final ServerWorld world, final RTPKernel kernel) {
+        if (this.poolSize <= 0 || !(kernel instanceof DefaultKernel) || !((DefaultKernel) kernel).isPoolable()) {
+            return Optional.empty();
+        }
+
+        final WorldPool pool = this.pools.computeIfAbsent(world.key(), key -> new WorldPool((DefaultKernel) kernel));
+        if (pool.kernel != kernel) {
+            return Optional.empty();
+        }
+
+        final long oldest = System.currentTimeMillis() - this.maxAgeMillis;
+        PooledLocation pooled;
+        while ((pooled = pool.locations.poll()) != null) {
+            if (pooled.found >= oldest) {
+                final ServerLocation location = ServerLocation.of(world, pooled.position);
+                if (pool.kernel.isStillSafe(location)) {
+                    KernelHelper.INSTANCE.onSelected(world.key(), pooled.position);
+                    return Optional.of(location);
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Tops up the candidate points for each pooled world. This does not touch the world,
+     * so may be run on any thread.
+     */
+    public void sampleCandidates() {
+        final int poolSize = this.poolSize;
+        if (poolSize <= 0) {
+            return;
+        }
+
+        final int target = poolSize * CANDIDATES_PER_LOCATION;
+        for (final Map.Entry<ResourceKey, WorldPool> entry : this.pools.entrySet()) {
+            final WorldPool pool = entry.getValue();
+            final WorldParameters parameters = pool.parameters;
+            if (parameters == null) {
+                continue;
+            }
+
+            int attempts = target * 4;
+            while (pool.candidateCount.get() < target && --attempts >= 0) {
+                final Vector3i candidate = KernelHelper.INSTANCE.sample(entry.getKey(), parameters.centre, parameters.options);
+                if (parameters.isInBorder(candidate)) {
+                    pool.candidates.offer(candidate);
+                    pool.candidateCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks candidate points until each pool is full or the budget has been used up.
+     *
+     * <p>This must be called on the main thread.</p>
+     */
+    public void refill() {
+        final int poolSize = this.poolSize;
+        if (poolSize <= 0) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        final long oldest = now - this.maxAgeMillis;
+        final long deadline = System.nanoTime() + this.refillBudgetNanos;
+        final Iterator<Map.Entry<ResourceKey, WorldPool>> iterator = this.pools.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<ResourceKey, WorldPool> entry = iterator.next();
+            final ServerWorld world = Sponge.server().worldManager().world(entry.getKey()).orElse(null);
+            if (world == null) {
+                iterator.remove();
+                continue;
+            }
+
+            final WorldPool pool = entry.getValue();
+            final WorldBorder border = world.properties().worldBorder();
+            pool.parameters = new WorldParameters(
+                    pool.kernel.getPoolCentre(world),
+                    border.center(),
+                    Math.floor(border.diameter() / 2.0),
+                    new RTPOptions(this.config, world.key().asString()));
+
+            // The oldest locations are at the head of the queue.
+            PooledLocation head;
+            while ((head = pool.locations.peek()) != null && head.found < oldest) {
+                pool.locations.remove(head);
+            }
+
+            final KernelStatistics statistics = KernelHelper.INSTANCE.statistics(pool.kernel);
+            Vector3i candidate;
+            while (pool.locations.size() < poolSize && System.nanoTime() < deadline && (candidate = pool.candidates.poll()) != null) {
+                pool.candidateCount.decrementAndGet();
+                if (!pool.kernel.isLoaded(world, candidate)) {
+                    // Loading or generating the chunks could take far longer than the budget.
+                    statistics.attempt();
+                    statistics.reject(KernelStatistics.Rejection.CHUNK_NOT_LOADED);
+                    continue;
+                }
+
+                pool.kernel.getPoolLocation(world, candidate, pool.parameters.options)
+                        .ifPresent(x -> pool.locations.offer(new PooledLocation(x.blockPosition(), now)));
+            }
+        }
+    }
+
+    private static final class WorldPool {
+
+        private final DefaultKernel kernel;
+        private final Queue<Vector3i> candidates = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger candidateCount = new AtomicInteger();
+        private final Queue<PooledLocation> locations = new ConcurrentLinkedQueue<>();
+        @Nullable private volatile WorldParameters parameters;
+
+        private WorldPool(final DefaultKernel kernel) {
+            this.kernel = kernel;
+        }
+    }
+
+    private static final class WorldParameters {
+
+        private final Vector3i centre;
+        private final Vector2d borderCentre;
+        private final double borderRadius;
+        private final NucleusRTPService.RTPOptions options;
+
+        private WorldParameters(final Vector3i centre, final Vector2d borderCentre, final double borderRadius,
+                final NucleusRTPService.RTPOptions options) {
+            this.centre = centre;
+            this.borderCentre = borderCentre;
+            this.borderRadius = borderRadius;
+            this.options = options;
+        }
+
+        private boolean isInBorder(final Vector3i candidate) {
+            return Math.abs(candidate.x() - this.borderCentre.x()) <= this.borderRadius
+                    && Math.abs(candidate.z() - this.borderCentre.y()) <= this.borderRadius;
+        }
+    }
+
+    private static final class PooledLocation {
+
+        private final Vector3i position;
+        private final long found;
+
+        private PooledLocation(final Vector3i position, final long found) {
+            this.position = position;
+            this.found = found;
+        }
+    }
+
+}
@@ -13,6 +13,7 @@ import io.github.nucleuspowered.nucleus.core.scaffold.service.annotations.APISer
 import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.interfaces.IReloadableService;
 import io.github.nucleuspowered.nucleus.modules.rtp.config.RTPConfig;
+import io.github.nucleuspowered.nucleus.modules.rtp.kernels.KernelHelper;
 import io.github.nucleuspowered.nucleus.modules.rtp.options.RTPOptionsBuilder;
 import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -31,6 +32,7 @@ public class RTPService implements NucleusRTPService, IReloadableService.Reloada
     private RTPConfig config = new RTPConfig();
     @Nullable private RTPKernel lazyLoadedKernel = null;
     private final Map<RTPConfig.PerWorldRTPConfig, RTPKernel> perWorldLazyLoadedKernel = new WeakHashMap<>();
+    private final RTPLocationPool locationPool = new RTPLocationPool();
 
     @Inject
     public RTPService(final INucleusServiceCollection serviceCollection) {
@@ -95,9 +97,15 @@ public class RTPService implements NucleusRTPService, IReloadableService.Reloada
         }).orElseGet(this::getDefaultKernel);
     }
 
+    public RTPLocationPool getLocationPool() {
+        return this.locationPool;
+    }
+
     @Override
     public void onReload(final INucleusServiceCollection serviceCollection) {
         // create the new RTPOptions
         this.config = serviceCollection.configProvider().getModuleConfig(RTPConfig.class);
+        this.locationPool.configure(this.config);
+        KernelHelper.INSTANCE.configure(this.config);
     }
 }
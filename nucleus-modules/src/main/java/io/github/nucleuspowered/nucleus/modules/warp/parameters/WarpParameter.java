@@ -37,8 +37,7 @@ public final class WarpParameter implements ValueParameter<Warp> {
     }
 
     @Override public List<CommandCompletion> complete(final CommandContext context, final String currentInput) {
-        return this.warpService.getWarpNames().stream()
-            .filter(s -> s.startsWith(currentInput))
+        return this.warpService.getWarpNamesStartingWith(currentInput).stream()
             .filter(s -> !this.checkPermission || this.checkPermission(context.cause(), s))
             .map(CommandCompletion::of)
             .collect(Collectors.toList());
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.modules.warp.services;
+
+import io.github.nucleuspowered.nucleus.api.module.warp.data.Warp;
+import io.github.nucleuspowered.nucleus.core.util.PrefixIndex;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the warps, indexed by name, by name prefix and by category.
+ *
+ * <p>Each index is updated as warps are added and removed, so that none of the lookups
+ * need to look through every warp.</p>
+ */
+public final class WarpIndex {
+
+    private final Map<String, Warp> warps = new HashMap<>();
+    private final PrefixIndex<Warp> names = new PrefixIndex<>();
+    private final Map<String, Map<String, Warp>> categories = new HashMap<>();
+    private final Map<String, Warp> uncategorised = new HashMap<>();
+
+    @Nullable
+    public Warp get(final String name) {
+        return this.warps.get(name.toLowerCase());
+    }
+
+    /**
+     * Adds a warp, replacing any warp with the same name.
+     *
+     * @param name The name of the warp
+     * @param warp The warp
+     * @return The warp that was replaced, if any
+     */
+    @Nullable
+    public Warp put(final String name, final Warp warp) {
+        final String key = name.toLowerCase();
+        final Warp previous = this.remove(key);
+        this.warps.put(key, warp);
+        this.names.put(key, warp);
+        final String category = warp.getCategory().map(String::toLowerCase).orElse(null);
+        if (category == null) {
+            this.uncategorised.put(key, warp);
+        } else {
+            this.categories.computeIfAbsent(category, c -> new HashMap<>()).put(key, warp);
+        }
+        return previous;
+    }
+
+    @Nullable
+    public Warp remove(final String name) {
+        final String key = name.toLowerCase();
+        final Warp warp = this.warps.remove(key);
+        if (warp == null) {
+            return null;
+        }
+
+        this.names.remove(key);
+        final String category = warp.getCategory().map(String::toLowerCase).orElse(null);
+        if (category == null) {
+            this.uncategorised.remove(key);
+        } else {
+            final Map<String, Warp> inCategory = this.categories.get(category);
+            if (inCategory != null) {
+                inCategory.remove(key);
+                if (inCategory.isEmpty()) {
+                    this.categories.remove(category);
+                }
+            }
+        }
+
+        return warp;
+    }
+
+    public void clear() {
+        this.warps.clear();
+        this.names.clear();
+        this.categories.clear();
+        this.uncategorised.clear();
+    }
+
+    public Collection<Warp> all() {
+        return Collections.unmodifiableCollection(this.warps.values());
+    }
+
+    public Set<String> names() {
+        return Collections.unmodifiableSet(this.warps.keySet());
+    }
+
+    public Set<String> namesWithPrefix(final String prefix) {
+        return this.names.namesWithPrefix(prefix);
+    }
+
+    public Collection<Warp> uncategorised() {
+        return Collections.unmodifiableCollection(this.uncategorised.values());
+    }
+
+    public Collection<Warp> inCategory(final String category) {
+        final Map<String, Warp> inCategory = this.categories.get(category.toLowerCase());
+        return inCategory == null ? Collections.emptyList() : Collections.unmodifiableCollection(inCategory.values());
+    }
+
+}
@@ -21,7 +21,10 @@ import io.github.nucleuspowered.nucleus.core.services.INucleusServiceCollection;
 import io.github.nucleuspowered.nucleus.core.services.impl.storage.dataobjects.IGeneralDataObject;
 import net.kyori.adventure.text.Component;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.api.Sponge;
 import org.spongepowered.api.command.parameter.Parameter;
+import org.spongepowered.api.scheduler.Task;
+import org.spongepowered.api.util.Ticks;
 import org.spongepowered.api.world.server.ServerLocation;
 import org.spongepowered.math.vector.Vector3d;
 
@@ -33,6 +36,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -43,10 +47,12 @@ public class WarpService implements NucleusWarpService, ServiceBase {
     public static final String WARP_KEY = "warp";
     public static final String WARP_CATEGORY_KEY = "warp category";
 
-    @Nullable private Map<String, Warp> warpCache = null;
+    // Mutations are saved after this many ticks, so that a burst of changes is written once.
+    private static final long SAVE_DELAY_TICKS = 20;
+
+    @Nullable private WarpIndex warpIndex = null;
     @Nullable private Map<String, WarpCategory> warpCategoryCache = null;
-    @Nullable private List<Warp> uncategorised = null;
-    private final Map<String, List<Warp>> categoryCollectionMap = new HashMap<>();
+    private final AtomicBoolean savePending = new AtomicBoolean(false);
 
     private final INucleusServiceCollection serviceCollection;
 
@@ -81,12 +87,12 @@ public class WarpService implements NucleusWarpService, ServiceBase {
                 .build();
     }
 
-    private Map<String, Warp> getWarpCache() {
-        if (this.warpCache == null) {
+    private WarpIndex getWarpIndex() {
+        if (this.warpIndex == null) {
             this.updateCache();
         }
 
-        return this.warpCache;
+        return this.warpIndex;
     }
 
     private Map<String, WarpCategory> getWarpCategoryCache() {
@@ -97,40 +103,74 @@ public class WarpService implements NucleusWarpService, ServiceBase {
         return this.warpCategoryCache;
     }
 
+    private IGeneralDataObject getDataObject() {
+        return this.serviceCollection
+                .storageManager()
+                .getGeneralService()
+                .getOrNewOnThread();
+    }
+
     private void updateCache() {
-        this.categoryCollectionMap.clear();
-        this.warpCache = new HashMap<>();
+        this.warpIndex = new WarpIndex();
         this.warpCategoryCache = new HashMap<>();
-        this.uncategorised = null;
-        final IGeneralDataObject dataObject =
-                this.serviceCollection
-                        .storageManager()
-                        .getGeneralService()
-                        .getOrNewOnThread();
-
-        dataObject.get(WarpKeys.WARP_NODES)
-                .orElseGet(Collections::emptyMap)
-                .forEach((key, value) -> this.warpCache.put(key.toLowerCase(), value));
-
-                this.warpCategoryCache
-                        .putAll(dataObject.get(WarpKeys.WARP_CATEGORIES)
-                                .map(x -> x.stream().collect(Collectors.toMap(WarpCategory::getId, v -> v)))
-                                .orElseGet(Collections::emptyMap));
+        final IGeneralDataObject dataObject = this.getDataObject();
+
+        final Map<String, Warp> stored = dataObject.get(WarpKeys.WARP_NODES).orElseGet(Collections::emptyMap);
+        boolean normalise = false;
+        for (final Map.Entry<String, Warp> entry : stored.entrySet()) {
+            final String key = entry.getKey().toLowerCase();
+            normalise = normalise || !key.equals(entry.getKey());
+            this.warpIndex.put(key, entry.getValue());
+        }
+
+        this.warpCategoryCache
+                .putAll(dataObject.get(WarpKeys.WARP_CATEGORIES)
+                        .map(x -> x.stream().collect(Collectors.toMap(WarpCategory::getId, v -> v)))
+                        .orElseGet(Collections::emptyMap));
+
+        if (normalise) {
+            // Entries are updated individually by their lower case name, so older data needs
+            // its keys converting once.
+            final Map<String, Warp> normalised = new HashMap<>();
+            for (final String name : this.warpIndex.names()) {
+                normalised.put(name, this.warpIndex.get(name));
+            }
+            dataObject.set(WarpKeys.WARP_NODES, normalised);
+            this.scheduleSave();
+        }
     }
 
-    private void saveFromCache() {
-        if (this.warpCache == null || this.warpCategoryCache == null) {
+    private void putWarp(final String warpName, final Warp warp) {
+        final String key = warpName.toLowerCase();
+        this.getWarpIndex().put(key, warp);
+        this.getDataObject().setMapEntry(WarpKeys.WARP_NODES, key, warp);
+        this.scheduleSave();
+    }
+
+    private void saveCategories() {
+        if (this.warpCategoryCache == null) {
             return; // not loaded
         }
 
-        final IGeneralDataObject dataObject =
-                this.serviceCollection
-                        .storageManager()
-                        .getGeneralService()
-                        .getOrNewOnThread();
-        dataObject.set(WarpKeys.WARP_NODES, new HashMap<>(this.warpCache));
-        dataObject.set(WarpKeys.WARP_CATEGORIES, new ArrayList<>(this.warpCategoryCache.values()));
-        this.serviceCollection.storageManager().getGeneralService().save(dataObject);
+        this.getDataObject().set(WarpKeys.WARP_CATEGORIES, new ArrayList<>(this.warpCategoryCache.values()));
+        this.scheduleSave();
+    }
+
+    private void scheduleSave() {
+        if (this.savePending.compareAndSet(false, true)) {
+            Sponge.server().scheduler().submit(
+                    Task.builder()
+                            .delay(Ticks.of(SAVE_DELAY_TICKS))
+                            .execute(this::save)
+                            .plugin(this.serviceCollection.pluginContainer())
+                            .build()
+            );
+        }
+    }
+
+    private void save() {
+        this.savePending.set(false);
+        this.serviceCollection.storageManager().getGeneralService().save(this.getDataObject());
     }
 
     public Parameter.Value<Warp> warpElement(final boolean requirePermission) {
@@ -147,13 +187,15 @@ public class WarpService implements NucleusWarpService, ServiceBase {
 
     @Override
     public Optional<Warp> getWarp(final String warpName) {
-        return Optional.ofNullable(this.getWarpCache().get(warpName.toLowerCase()));
+        return Optional.ofNullable(this.getWarpIndex().get(warpName));
     }
 
     @Override
     public boolean removeWarp(final String warpName) {
-        if (this.getWarpCache().remove(warpName.toLowerCase()) != null) {
-            this.saveFromCache();
+        final String key = warpName.toLowerCase();
+        if (this.getWarpIndex().remove(key) != null) {
+            this.getDataObject().setMapEntry(WarpKeys.WARP_NODES, key, null);
+            this.scheduleSave();
             return true;
         }
 
@@ -162,17 +204,13 @@ public class WarpService implements NucleusWarpService, ServiceBase {
 
     @Override
     public boolean setWarp(final String warpName, final ServerLocation location, final Vector3d rotation) {
-        final Map<String, Warp> cache = this.getWarpCache();
-        final String key = warpName.toLowerCase();
-        if (!cache.containsKey(key)) {
-            cache.put(key, new NucleusWarp(
+        if (this.getWarpIndex().get(warpName) == null) {
+            this.putWarp(warpName, new NucleusWarp(
                     null,
                     0,
                     null,
                     new NucleusNamedLocation(warpName, location.worldKey(), location.position(), rotation)
             ));
-
-            this.saveFromCache();
             return true;
         }
 
@@ -181,28 +219,17 @@ public class WarpService implements NucleusWarpService, ServiceBase {
 
     @Override
     public List<Warp> getAllWarps() {
-        return Collections.unmodifiableList(new ArrayList<>(this.getWarpCache().values()));
+        return Collections.unmodifiableList(new ArrayList<>(this.getWarpIndex().all()));
     }
 
     @Override
     public List<Warp> getUncategorisedWarps() {
-        if (this.uncategorised == null) {
-            this.uncategorised = this.getAllWarps()
-                    .stream()
-                    .filter(x -> !x.getCategory().isPresent())
-                    .collect(Collectors.toList());
-        }
-
-        return Collections.unmodifiableList(this.uncategorised);
+        return Collections.unmodifiableList(new ArrayList<>(this.getWarpIndex().uncategorised()));
     }
 
     @Override
     public List<Warp> getWarpsForCategory(final String category) {
-        final List<Warp> warps = this.categoryCollectionMap.computeIfAbsent(category.toLowerCase(),
-                c -> this.getAllWarps().stream().filter(x ->
-                        x.getCategory().map(cat -> cat.equalsIgnoreCase(c)).orElse(false))
-                        .collect(Collectors.toList()));
-        return Collections.unmodifiableList(warps);
+        return Collections.unmodifiableList(new ArrayList<>(this.getWarpIndex().inCategory(category)));
     }
 
     public Map<WarpCategory, List<Warp>> getWarpsWithCategories() {
@@ -211,30 +238,44 @@ public class WarpService implements NucleusWarpService, ServiceBase {
 
     @Override
     public Map<WarpCategory, List<Warp>> getWarpsWithCategories(final Predicate<Warp> warpDataPredicate) {
-        // Populate cache
         final Map<WarpCategory, List<Warp>> map = new HashMap<>();
-        this.getWarpCategoryCache().keySet().forEach(x -> {
-            final List<Warp> warps = this.getWarpsForCategory(x).stream().filter(warpDataPredicate).collect(Collectors.toList());
+        final WarpIndex index = this.getWarpIndex();
+        this.getWarpCategoryCache().forEach((id, category) -> {
+            final List<Warp> warps = new ArrayList<>();
+            for (final Warp warp : index.inCategory(id)) {
+                if (warpDataPredicate.test(warp)) {
+                    warps.add(warp);
+                }
+            }
+
             if (!warps.isEmpty()) {
-                map.put(this.getWarpCategoryCache().get(x.toLowerCase()), warps);
+                map.put(category, warps);
             }
         });
         return map;
     }
 
+    /**
+     * Gets the names of the warps that start with the given prefix.
+     *
+     * @param prefix The prefix
+     * @return The lower case names, in order
+     */
+    public Set<String> getWarpNamesStartingWith(final String prefix) {
+        return this.getWarpIndex().namesWithPrefix(prefix);
+    }
+
     @Override
     public boolean removeWarpCost(final String warpName) {
         final Optional<Warp> warp = this.getWarp(warpName);
         if (warp.isPresent()) {
             final Warp w = warp.get();
-            this.removeWarp(warpName);
-            this.getWarpCache().put(w.getNamedLocation().getName().toLowerCase(), new NucleusWarp(
+            this.putWarp(w.getNamedLocation().getName(), new NucleusWarp(
                     w.getCategory().orElse(null),
                     0,
                     w.getDescription().orElse(null),
                     w.getNamedLocation()
             ));
-            this.saveFromCache();
             return true;
         }
         return false;
@@ -249,14 +290,12 @@ public class WarpService implements NucleusWarpService, ServiceBase {
         final Optional<Warp> warp = this.getWarp(warpName);
         if (warp.isPresent()) {
             final Warp w = warp.get();
-            this.removeWarp(warpName);
-            this.getWarpCache().put(w.getNamedLocation().getName().toLowerCase(), new NucleusWarp(
+            this.putWarp(w.getNamedLocation().getName(), new NucleusWarp(
                     w.getCategory().orElse(null),
                     cost,
                     w.getDescription().orElse(null),
                     w.getNamedLocation()
             ));
-            this.saveFromCache();
             return true;
         }
         return false;
@@ -272,26 +311,21 @@ public class WarpService implements NucleusWarpService, ServiceBase {
                         null,
                         null);
                 this.getWarpCategoryCache().put(category.toLowerCase(), wc);
-            } else {
-                this.categoryCollectionMap.remove(category.toLowerCase());
+                this.saveCategories();
             }
 
             category = category.toLowerCase();
-        } else {
-            this.uncategorised = null;
         }
 
         final Optional<Warp> warp = this.getWarp(warpName);
         if (warp.isPresent()) {
             final Warp w = warp.get();
-            this.removeWarp(warpName);
-            this.getWarpCache().put(w.getNamedLocation().getName().toLowerCase(), new NucleusWarp(
+            this.putWarp(w.getNamedLocation().getName(), new NucleusWarp(
                     category,
                     w.getCost().orElse(0d),
                     w.getDescription().orElse(null),
                     w.getNamedLocation()
             ));
-            this.saveFromCache();
             return true;
         }
         return false;
@@ -302,14 +336,12 @@ public class WarpService implements NucleusWarpService, ServiceBase {
         final Optional<Warp> warp = this.getWarp(warpName);
         if (warp.isPresent()) {
             final Warp w = warp.get();
-            this.removeWarp(warpName);
-            this.getWarpCache().put(w.getNamedLocation().getName().toLowerCase(), new NucleusWarp(
+            this.putWarp(w.getNamedLocation().getName(), new NucleusWarp(
                     w.getCategory().orElse(null),
                     w.getCost().orElse(0d),
                     description,
                     w.getNamedLocation()
             ));
-            this.saveFromCache();
             return true;
         }
         return false;
@@ -317,7 +349,7 @@ public class WarpService implements NucleusWarpService, ServiceBase {
 
     @Override
     public Set<String> getWarpNames() {
-        return this.getWarpCache().keySet();
+        return this.getWarpIndex().names();
     }
 
     @Override
@@ -336,7 +368,7 @@ public class WarpService implements NucleusWarpService, ServiceBase {
                     displayName,
                     cat.getDescription().orElse(null)
             ));
-            this.saveFromCache();
+            this.saveCategories();
             return true;
         }
 
@@ -354,7 +386,7 @@ public class WarpService implements NucleusWarpService, ServiceBase {
                     cat.getDisplayName(),
                     description
             ));
-            this.saveFromCache();
+            this.saveCategories();
             return true;
         }
 
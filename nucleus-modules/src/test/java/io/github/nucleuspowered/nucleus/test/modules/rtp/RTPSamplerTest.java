@@ -0,0 +1,94 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.test.modules.rtp;
+
+import io.github.nucleuspowered.nucleus.modules.rtp.sampling.AnnulusSampler;
+import io.github.nucleuspowered.nucleus.modules.rtp.sampling.RTPSampler;
+import io.github.nucleuspowered.nucleus.modules.rtp.sampling.SamplerRandom;
+import io.github.nucleuspowered.nucleus.modules.rtp.sampling.SpreadSampler;
+import io.github.nucleuspowered.nucleus.modules.rtp.sampling.SquareSampler;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.ResourceKey;
+import org.spongepowered.math.vector.Vector2i;
+
+import java.util.Random;
+
+public class RTPSamplerTest {
+
+    private static final Vector2i CENTRE = new Vector2i(100, -200);
+
+    @Test
+    public void testAnnulusSamplerStaysWithinRadii() {
+        final RTPSampler sampler = new AnnulusSampler();
+        final Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            final double distance = sampler.sample(null, CENTRE, 500, 1000, random).toDouble().distance(CENTRE.toDouble());
+            Assert.assertTrue("Sample at distance " + distance + " is outside the ring", distance >= 499 && distance <= 1001);
+        }
+    }
+
+    @Test
+    public void testAnnulusSamplerIsUniformByArea() {
+        // The inner half of the radius covers a quarter of the area of the disc.
+        final RTPSampler sampler = new AnnulusSampler();
+        final Random random = new Random(2);
+        int inner = 0;
+        final int samples = 20000;
+        for (int i = 0; i < samples; i++) {
+            if (sampler.sample(null, CENTRE, 0, 1000, random).toDouble().distance(CENTRE.toDouble()) < 500) {
+                inner++;
+            }
+        }
+
+        Assert.assertEquals(0.25, (double) inner / samples, 0.02);
+    }
+
+    @Test
+    public void testSquareSamplerHandlesEqualRadii() {
+        final Vector2i result = new SquareSampler().sample(null, CENTRE, 50, 50, new Random(3));
+        Assert.assertEquals(50, Math.abs(result.x() - CENTRE.x()));
+        Assert.assertEquals(50, Math.abs(result.y() - CENTRE.y()));
+    }
+
+    @Test
+    public void testSeededRandomIsReproducible() {
+        final SamplerRandom first = new SamplerRandom(42);
+        final SamplerRandom second = new SamplerRandom(42);
+        final RTPSampler sampler = new AnnulusSampler();
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(
+                    sampler.sample(null, CENTRE, 0, 1000, first.get()),
+                    sampler.sample(null, CENTRE, 0, 1000, second.get()));
+        }
+    }
+
+    @Test
+    public void testSpreadSamplerAvoidsRecentSelections() {
+        final RTPSampler sampler = new SpreadSampler();
+        final Random random = new Random(4);
+        final ResourceKey world = Mockito.mock(ResourceKey.class);
+        final Vector2i previous = sampler.sample(world, CENTRE, 0, 1000, random);
+        sampler.onSelected(world, previous);
+
+        // Best of eight uniform candidates should, on average, be well clear of the previous point.
+        double total = 0;
+        for (int i = 0; i < 200; i++) {
+            total += sampler.sample(world, CENTRE, 0, 1000, random)
+                    .toDouble().distance(previous.toDouble());
+        }
+
+        final Random baseline = new Random(4);
+        final RTPSampler annulus = new AnnulusSampler();
+        double baselineTotal = 0;
+        for (int i = 0; i < 200; i++) {
+            baselineTotal += annulus.sample(null, CENTRE, 0, 1000, baseline).toDouble().distance(previous.toDouble());
+        }
+
+        Assert.assertTrue(total > baselineTotal);
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Nucleus, licensed under the MIT License (MIT). See the LICENSE.txt file
+ * at the root of this project for more details.
+ */
+package io.github.nucleuspowered.nucleus.test.modules.warp;
+
+import io.github.nucleuspowered.nucleus.api.module.warp.data.Warp;
+import io.github.nucleuspowered.nucleus.modules.warp.services.WarpIndex;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+
+public class WarpIndexTest {
+
+    private static Warp warp(@Nullable final String category) {
+        final Warp warp = Mockito.mock(Warp.class);
+        Mockito.when(warp.getCategory()).thenReturn(Optional.ofNullable(category));
+        return warp;
+    }
+
+    @Test
+    public void testNamesAreCaseInsensitive() {
+        final Warp warp = WarpIndexTest.warp(null);
+        final WarpIndex index = new WarpIndex();
+        index.put("Spawn", warp);
+
+        Assert.assertSame(warp, index.get("SPAWN"));
+        Assert.assertEquals(Collections.singleton("spawn"), index.names());
+        Assert.assertEquals(Collections.singleton("spawn"), index.namesWithPrefix("Sp"));
+    }
+
+    @Test
+    public void testWarpsAreIndexedByCategory() {
+        final Warp shop = WarpIndexTest.warp("Shops");
+        final Warp bank = WarpIndexTest.warp("shops");
+        final Warp spawn = WarpIndexTest.warp(null);
+        final WarpIndex index = new WarpIndex();
+        index.put("shop", shop);
+        index.put("bank", bank);
+        index.put("spawn", spawn);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(shop, bank)), new HashSet<>(index.inCategory("SHOPS")));
+        Assert.assertEquals(Collections.singletonList(spawn), Arrays.asList(index.uncategorised().toArray()));
+        Assert.assertTrue(index.inCategory("other").isEmpty());
+    }
+
+    @Test
+    public void testReplacingAWarpMovesItBetweenCategories() {
+        final Warp before = WarpIndexTest.warp("shops");
+        final Warp after = WarpIndexTest.warp(null);
+        final WarpIndex index = new WarpIndex();
+        index.put("shop", before);
+
+        Assert.assertSame(before, index.put("SHOP", after));
+        Assert.assertSame(after, index.get("shop"));
+        Assert.assertTrue(index.inCategory("shops").isEmpty());
+        Assert.assertEquals(Collections.singletonList(after), Arrays.asList(index.uncategorised().toArray()));
+        Assert.assertEquals(1, index.all().size());
+    }
+
+    @Test
+    public void testRemovedWarpsAreRemovedFromEveryIndex() {
+        final Warp removed = WarpIndexTest.warp("shops");
+        final Warp kept = WarpIndexTest.warp("shops");
+        final WarpIndex index = new WarpIndex();
+        index.put("shop", removed);
+        index.put("shed", kept);
+
+        Assert.assertSame(removed, index.remove("Shop"));
+        Assert.assertNull(index.remove("shop"));
+        Assert.assertNull(index.get("shop"));
+        Assert.assertEquals(Collections.singleton("shed"), index.namesWithPrefix("sh"));
+        Assert.assertEquals(Collections.singletonList(kept), Arrays.asList(index.inCategory("shops").toArray()));
+    }
+
+    @Test
+    public void testClear() {
+        final WarpIndex index = new WarpIndex();
+        index.put("shop", WarpIndexTest.warp("shops"));
+        index.put("spawn", WarpIndexTest.warp(null));
+        index.clear();
+
+        Assert.assertTrue(index.all().isEmpty());
+        Assert.assertTrue(index.namesWithPrefix("s").isEmpty());
+        Assert.assertTrue(index.inCategory("shops").isEmpty());
+        Assert.assertTrue(index.uncategorised().isEmpty());
+    }
+}